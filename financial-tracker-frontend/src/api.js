@@ -22,6 +22,17 @@ const processQueue = (error, token = null) => {
   failedQueue = []
 }
 
+// Random per-browser ID so the server keeps one session per device, even
+// when two devices run the same browser
+const getDeviceId = () => {
+  let deviceId = localStorage.getItem('deviceId')
+  if (!deviceId) {
+    deviceId = crypto.randomUUID()
+    localStorage.setItem('deviceId', deviceId)
+  }
+  return deviceId
+}
+
 const apiFetch = async (endpoint, options = {}) => {
   const jwtToken = localStorage.getItem('jwtToken')
 
@@ -33,6 +44,7 @@ const apiFetch = async (endpoint, options = {}) => {
   const headers = {
     ...(hasBody && { 'Content-Type': 'application/json' }),
     ...(jwtToken && { Authorization: `Bearer ${jwtToken}` }),
+    'X-Device-Id': getDeviceId(),
     ...options.headers,
   }
 
@@ -19,12 +19,24 @@ const processQueue = (error, token = null) => {
     failedQueue = [];
 };
 
+// Random per-install ID so the server keeps one session per device, even
+// when two devices report the same User-Agent
+const getDeviceId = async () => {
+    let deviceId = await AsyncStorage.getItem('deviceId');
+    if (!deviceId) {
+        deviceId = Array.from({ length: 32 }, () => Math.floor(Math.random() * 16).toString(16)).join('');
+        await AsyncStorage.setItem('deviceId', deviceId);
+    }
+    return deviceId;
+};
+
 const apiFetch = async (endpoint, options = {}) => {
     const jwtToken = await AsyncStorage.getItem('jwtToken');
 
     const headers = {
         'Content-Type': 'application/json',
         ...(jwtToken && { 'Authorization': `Bearer ${jwtToken}` }),
+        'X-Device-Id': await getDeviceId(),
         ...options.headers,
     };
 
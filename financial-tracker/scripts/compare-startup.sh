@@ -0,0 +1,36 @@
+#!/usr/bin/env bash
+# Starts the backend with the given command, reports time to first HTTP response and
+# resident memory, then runs NativeSmokeTest against it. Run from financial-tracker/.
+#
+#   scripts/compare-startup.sh jvm    java -jar target/financial-tracker-0.0.1-SNAPSHOT.jar
+#   scripts/compare-startup.sh native target/financial-tracker
+#
+# Database and mail settings come from the environment as usual (DB_HOST, DB_PORT, ...).
+# SMOKE_USERNAME / SMOKE_PASSWORD name a verified account for the authenticated smoke test.
+set -euo pipefail
+
+label=$1
+shift
+port=${SERVER_PORT:-8082}
+base_url="http://127.0.0.1:${port}"
+
+start=$(date +%s%N)
+"$@" --server.port="$port" > "target/${label}-startup.log" 2>&1 &
+pid=$!
+trap 'kill $pid 2>/dev/null || true' EXIT
+
+until [ "$(curl -s -o /dev/null -w '%{http_code}' "$base_url/api/transactions")" != "000" ]; do
+    kill -0 $pid 2>/dev/null || { echo "$label exited during startup, see target/${label}-startup.log"; exit 1; }
+    sleep 0.02
+done
+first_response_ms=$(( ($(date +%s%N) - start) / 1000000 ))
+rss_started_kb=$(awk '/VmRSS/ {print $2}' /proc/$pid/status)
+
+smoke=passed
+mvn -B -q test -Dtest=NativeSmokeTest -Dsurefire.failIfNoSpecifiedTests=false \
+    -Dsmoke.base-url="$base_url" ${SMOKE_USERNAME:+-Dsmoke.username="$SMOKE_USERNAME"} \
+    ${SMOKE_PASSWORD:+-Dsmoke.password="$SMOKE_PASSWORD"} > "target/${label}-smoke.log" 2>&1 || smoke=failed
+rss_after_smoke_kb=$(awk '/VmRSS/ {print $2}' /proc/$pid/status)
+
+printf '%-8s first response %6d ms   RSS %5d MB started, %5d MB after smoke   smoke tests %s\n' \
+    "$label" "$first_response_ms" $((rss_started_kb / 1024)) $((rss_after_smoke_kb / 1024)) "$smoke"
@@ -0,0 +1,18 @@
+package com.example.financialtracker.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the annotated method (or every method of the annotated bean) on the
+ * batch connection pool, so long transactions from scheduled jobs and bulk
+ * operations cannot drain the pool that serves interactive requests.
+ */
+@Target({ ElementType.METHOD, ElementType.TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface BatchWorkload {
+}
@@ -0,0 +1,31 @@
+package com.example.financialtracker.config;
+
+import com.example.financialtracker.config.WorkloadRoutingDataSource.Workload;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Switches {@link BatchWorkload} methods to the batch pool. Ordered ahead of
+ * the transaction interceptor so the transaction's connection already comes
+ * from the batch pool.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class BatchWorkloadAspect {
+
+    @Around("@annotation(com.example.financialtracker.config.BatchWorkload) "
+            + "|| @within(com.example.financialtracker.config.BatchWorkload)")
+    public Object runAsBatch(ProceedingJoinPoint joinPoint) throws Throwable {
+        Workload previous = WorkloadRoutingDataSource.enter(Workload.BATCH);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            WorkloadRoutingDataSource.restore(previous);
+        }
+    }
+}
@@ -14,7 +14,7 @@ public class CacheConfig {
 
     @Bean
     public org.springframework.cache.CacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager("reports", "rates", "currencies");
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager("reports", "currencies");
         cacheManager.setCaffeine(Caffeine.newBuilder()
                 .expireAfterWrite(10, TimeUnit.MINUTES)
                 .maximumSize(100)
@@ -0,0 +1,62 @@
+package com.example.financialtracker.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Two Hikari pools on the primary database: {@code interactive} for request
+ * handling, tuned to fail fast when saturated, and {@code batch} for scheduled
+ * jobs and bulk operations marked {@link BatchWorkload}. Both have leak
+ * detection on and publish {@code hikaricp.*} metrics (acquire time, pending
+ * threads, usage) tagged with the pool name.
+ *
+ * When read replicas are configured, {@link ReplicaDataSourceConfig} puts the
+ * replica router in front of these pools.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource interactiveDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("interactive");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.batch.hikari")
+    public HikariDataSource batchDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("batch");
+        return dataSource;
+    }
+
+    @Bean
+    public WorkloadRoutingDataSource workloadRoutingDataSource(
+            @Qualifier("interactiveDataSource") HikariDataSource interactiveDataSource,
+            @Qualifier("batchDataSource") HikariDataSource batchDataSource) {
+        return new WorkloadRoutingDataSource(interactiveDataSource, batchDataSource);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(WorkloadRoutingDataSource workloadRoutingDataSource,
+            ObjectProvider<ReplicaRoutingDataSource> replicaRoutingDataSource) {
+        // Lazy so the pool (and replica) decision is made at the first statement
+        DataSource target = replicaRoutingDataSource.getIfAvailable();
+        if (target == null) {
+            target = workloadRoutingDataSource;
+        }
+        return new LazyConnectionDataSourceProxy(target);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.financialtracker.config;
+
+import com.example.financialtracker.model.AccountDeletionJob;
+import com.example.financialtracker.model.AccountHead;
+import com.example.financialtracker.model.BalanceCheckpoint;
+import com.example.financialtracker.model.Budget;
+import com.example.financialtracker.model.FinalizationLog;
+import com.example.financialtracker.model.FinalizedMonthReport;
+import com.example.financialtracker.model.LedgerEntry;
+import com.example.financialtracker.model.MonthlySummary;
+import com.example.financialtracker.model.RecurringTransaction;
+import com.example.financialtracker.model.RefreshToken;
+import com.example.financialtracker.model.SystemStatus;
+import com.example.financialtracker.model.Transaction;
+import com.example.financialtracker.model.User;
+import com.example.financialtracker.model.UserDevice;
+import com.example.financialtracker.payload.AdvisorInsightsResponse;
+import com.example.financialtracker.payload.AuthRequest;
+import com.example.financialtracker.payload.AuthResponse;
+import com.example.financialtracker.payload.MonthHistoryResponse;
+import com.example.financialtracker.payload.TokenRefreshRequest;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.util.List;
+
+/**
+ * Reachability metadata for the native image that Spring AOT cannot infer
+ * from the bean definitions. The JPA mapping of the entities is registered by
+ * Spring itself; what is added here is what reaches the code reflectively:
+ * <ul>
+ * <li>entities and payloads that Jackson binds, since most controllers return
+ * {@code ResponseEntity<?>} and hide the body type;</li>
+ * <li>jjwt, which instantiates its implementation classes by name and loads
+ * the Jackson serializer and compression codecs through {@code ServiceLoader};</li>
+ * <li>Caffeine, which picks a generated cache and node class by name for each
+ * builder configuration. The list below covers the caches built in this
+ * application (the rate limiter's bucket cache included) and must grow with
+ * any new combination of expiry, size and weight settings;</li>
+ * <li>the commons-math3 message bundles used when a regression fails.</li>
+ * </ul>
+ * bucket4j needs nothing of its own: local buckets and the Lettuce proxy
+ * manager use no reflection or resources.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    static final List<Class<?>> BOUND_TYPES = List.of(Transaction.class, MonthlySummary.class, Budget.class,
+            RecurringTransaction.class, FinalizationLog.class, User.class, UserDevice.class, RefreshToken.class,
+            SystemStatus.class, LedgerEntry.class, AccountHead.class, BalanceCheckpoint.class,
+            FinalizedMonthReport.class, AdvisorInsightsResponse.class, MonthHistoryResponse.class,
+            AuthRequest.class, AuthResponse.class, TokenRefreshRequest.class,
+            AccountDeletionJob.class);
+
+    static final List<String> JJWT_TYPES = List.of(
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParser",
+            "io.jsonwebtoken.impl.DefaultClaims",
+            "io.jsonwebtoken.impl.DefaultHeader",
+            "io.jsonwebtoken.impl.DefaultJwsHeader",
+            "io.jsonwebtoken.impl.compression.DeflateCompressionCodec",
+            "io.jsonwebtoken.impl.compression.GzipCompressionCodec",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+    // Cache and node classes, e.g. SSMSW = strong keys/values, maximum size, expire after write
+    static final List<String> CAFFEINE_TYPES = List.of(
+            "com.github.benmanes.caffeine.cache.SSSMSW", // CacheConfig (stats recorded)
+            "com.github.benmanes.caffeine.cache.SSMSW", // ReadYourWritesTracker, DashboardService
+            "com.github.benmanes.caffeine.cache.SSMSA", // InMemoryRateLimitStore
+            "com.github.benmanes.caffeine.cache.SSMWW", // LedgerSnapshotService (weighted)
+            "com.github.benmanes.caffeine.cache.PSWMS",
+            "com.github.benmanes.caffeine.cache.PSAMS",
+            "com.github.benmanes.caffeine.cache.PSWMW");
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+        bindings.registerReflectionHints(hints.reflection(), BOUND_TYPES.toArray(Class<?>[]::new));
+
+        for (String type : JJWT_TYPES) {
+            hints.reflection().registerType(TypeReference.of(type), MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        }
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+
+        for (String type : CAFFEINE_TYPES) {
+            hints.reflection().registerType(TypeReference.of(type), MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.DECLARED_FIELDS);
+        }
+
+        hints.resources().registerResourceBundle("assets/org/apache/commons/math3/exception/util/LocalizedFormats");
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.financialtracker.config;
+
+import com.example.financialtracker.service.QueryStatsService;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC proxy that times every statement execution and reports it to
+ * {@link QueryStatsService}. Connections, statements and result sets are
+ * wrapped with JDK proxies; bind parameters are kept per prepared statement so
+ * a slow query can be EXPLAINed with the values it actually ran with, and rows
+ * are counted as the caller iterates the result set.
+ */
+public class ProfilingDataSource extends DelegatingDataSource {
+
+    private final QueryStatsService queryStats;
+
+    public ProfilingDataSource(DataSource target, QueryStatsService queryStats) {
+        super(target);
+        this.queryStats = queryStats;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(ProfilingDataSource.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, new ConnectionHandler(connection));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("equals")) {
+                return proxy == args[0];
+            }
+            if (name.equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            Object result = ProfilingDataSource.invoke(target, method, args);
+            if (result instanceof CallableStatement statement) {
+                return wrapStatement(statement, CallableStatement.class, (String) args[0], proxy);
+            }
+            if (result instanceof PreparedStatement statement) {
+                return wrapStatement(statement, PreparedStatement.class, (String) args[0], proxy);
+            }
+            if (result instanceof Statement statement) {
+                return wrapStatement(statement, Statement.class, null, proxy);
+            }
+            return result;
+        }
+    }
+
+    private Object wrapStatement(Statement statement, Class<?> type, String sql, Object connection) {
+        return Proxy.newProxyInstance(ProfilingDataSource.class.getClassLoader(), new Class<?>[] { type },
+                new StatementHandler(statement, sql, connection));
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final Object connection;
+        private final List<Object> parameters = new ArrayList<>();
+        private String sql;
+        private QueryStatsService.Stats last;
+
+        StatementHandler(Statement target, String sql, Object connection) {
+            this.target = target;
+            this.sql = sql;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("equals")) {
+                return proxy == args[0];
+            }
+            if (name.equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            if (name.equals("getConnection")) {
+                return connection;
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index
+                    && target instanceof PreparedStatement) {
+                bind(index, name.equals("setNull") ? null : args[1]);
+                return ProfilingDataSource.invoke(target, method, args);
+            }
+            if (name.equals("clearParameters")) {
+                parameters.clear();
+            } else if (name.equals("addBatch") && args != null && args.length == 1 && sql == null) {
+                sql = (String) args[0];
+            }
+            if (!name.startsWith("execute")) {
+                Object result = ProfilingDataSource.invoke(target, method, args);
+                if (result instanceof ResultSet resultSet && name.equals("getResultSet")) {
+                    return wrapResultSet(resultSet);
+                }
+                return result;
+            }
+
+            String statementSql = args != null && args.length > 0 && args[0] instanceof String s ? s : sql;
+            long start = System.nanoTime();
+            Object result = ProfilingDataSource.invoke(target, method, args);
+            long elapsed = System.nanoTime() - start;
+            if (statementSql == null) {
+                return result;
+            }
+            last = queryStats.record(statementSql, elapsed, affectedRows(result),
+                    target instanceof PreparedStatement ? parameters : null, getTargetDataSource());
+            if (name.equals("executeBatch") && !(target instanceof PreparedStatement)) {
+                sql = null;
+            }
+            return result instanceof ResultSet resultSet ? wrapResultSet(resultSet) : result;
+        }
+
+        private void bind(int index, Object value) {
+            while (parameters.size() < index) {
+                parameters.add(null);
+            }
+            parameters.set(index - 1, value);
+        }
+
+        private ResultSet wrapResultSet(ResultSet resultSet) {
+            QueryStatsService.Stats stats = last;
+            if (stats == null) {
+                return resultSet;
+            }
+            return (ResultSet) Proxy.newProxyInstance(ProfilingDataSource.class.getClassLoader(),
+                    new Class<?>[] { ResultSet.class }, new ResultSetHandler(resultSet, stats));
+        }
+    }
+
+    private static long affectedRows(Object result) {
+        if (result instanceof Integer count) {
+            return Math.max(count, 0);
+        }
+        if (result instanceof Long count) {
+            return Math.max(count, 0L);
+        }
+        if (result instanceof int[] counts) {
+            long total = 0;
+            for (int count : counts) {
+                total += Math.max(count, 0);
+            }
+            return total;
+        }
+        if (result instanceof long[] counts) {
+            long total = 0;
+            for (long count : counts) {
+                total += Math.max(count, 0L);
+            }
+            return total;
+        }
+        return 0L;
+    }
+
+    private static final class ResultSetHandler implements InvocationHandler {
+        private final ResultSet target;
+        private final QueryStatsService.Stats stats;
+        private long rows;
+        private boolean reported;
+
+        ResultSetHandler(ResultSet target, QueryStatsService.Stats stats) {
+            this.target = target;
+            this.stats = stats;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            Object result = ProfilingDataSource.invoke(target, method, args);
+            if (name.equals("next")) {
+                if (Boolean.TRUE.equals(result)) {
+                    rows++;
+                } else {
+                    report();
+                }
+            } else if (name.equals("close")) {
+                report();
+            }
+            return result;
+        }
+
+        private void report() {
+            if (!reported) {
+                reported = true;
+                stats.addRows(rows);
+            }
+        }
+    }
+}
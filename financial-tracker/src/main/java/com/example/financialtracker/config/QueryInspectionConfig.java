@@ -0,0 +1,35 @@
+package com.example.financialtracker.config;
+
+import com.example.financialtracker.service.QueryStatsService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application's {@code dataSource} bean (the single Hikari pool, or
+ * the replica-routing proxy when replicas are configured) in a
+ * {@link ProfilingDataSource}, so every statement issued through JPA, JDBC
+ * templates or Flyway is fingerprinted.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.query-stats", name = "enabled", matchIfMissing = true)
+public class QueryInspectionConfig {
+
+    @Bean
+    public static BeanPostProcessor profilingDataSourcePostProcessor(ObjectProvider<QueryStatsService> queryStats) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof ProfilingDataSource)) {
+                    return new ProfilingDataSource(dataSource, queryStats.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.financialtracker.config;
+
+import com.example.financialtracker.service.QueryStatsService;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/queries}: statement fingerprints ordered by total time, with
+ * the calling method, row counts and captured plans. DELETE resets the
+ * counters.
+ */
+@Component
+@Endpoint(id = "queries")
+public class QueryStatsEndpoint {
+
+    private final QueryStatsService queryStats;
+
+    public QueryStatsEndpoint(QueryStatsService queryStats) {
+        this.queryStats = queryStats;
+    }
+
+    @ReadOperation
+    public List<QueryStatsService.Stats> queries(@Nullable Integer limit) {
+        List<QueryStatsService.Stats> stats = queryStats.getStats();
+        return limit != null && limit < stats.size() ? stats.subList(0, limit) : stats;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        queryStats.reset();
+    }
+}
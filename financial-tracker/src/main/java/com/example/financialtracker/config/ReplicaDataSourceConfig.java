@@ -0,0 +1,65 @@
+package com.example.financialtracker.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Read-replica data sources, enabled by setting
+ * {@code app.datasource.replica.urls}. The router sends writes to the primary
+ * pools from {@link DataSourceConfig}; without replicas those are used
+ * directly.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "urls")
+public class ReplicaDataSourceConfig {
+
+    @Value("${app.datasource.replica.urls}")
+    private String[] replicaUrls;
+
+    @Value("${app.datasource.replica.username:${spring.datasource.username}}")
+    private String replicaUsername;
+
+    @Value("${app.datasource.replica.password:${spring.datasource.password}}")
+    private String replicaPassword;
+
+    @Value("${app.datasource.replica.max-pool-size:10}")
+    private int replicaPoolSize;
+
+    @Value("${app.datasource.replica.max-lag-seconds:5}")
+    private double maxLagSeconds;
+
+    @Value("${app.datasource.replica.sticky-seconds:5}")
+    private long stickySeconds;
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(WorkloadRoutingDataSource workloadRoutingDataSource,
+            DataSourceProperties properties) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaUrls.length; i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(replicaUrls[i].trim());
+            replica.setUsername(replicaUsername);
+            replica.setPassword(replicaPassword);
+            replica.setDriverClassName(properties.getDriverClassName());
+            replica.setMaximumPoolSize(replicaPoolSize);
+            replica.setReadOnly(true);
+            // Do not block startup on a replica that is down; it just stays out of rotation
+            replica.setInitializationFailTimeout(-1);
+            replicas.put(replica.getPoolName(), replica);
+        }
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(workloadRoutingDataSource, replicas,
+                new ReadYourWritesTracker(Duration.ofSeconds(stickySeconds)), maxLagSeconds);
+        routing.checkReplicas();
+        return routing;
+    }
+}
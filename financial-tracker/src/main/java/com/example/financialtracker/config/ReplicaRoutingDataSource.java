@@ -0,0 +1,169 @@
+package com.example.financialtracker.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a healthy replica and everything else to the
+ * primary. Must sit behind a {@code LazyConnectionDataSourceProxy} so the
+ * routing decision is made at the first statement, once the transaction's
+ * read-only flag is known, and needs {@code spring.jpa.open-in-view} off so
+ * each transaction gets a connection of its own.
+ *
+ * A replica is used only while its last health check succeeded with a replay
+ * lag under the configured limit, and never for a principal that committed a
+ * write within the read-your-writes window.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+
+    // Replay lag in seconds; a replica with no replay activity yet reports 0
+    private static final String LAG_QUERY = "SELECT CASE WHEN pg_is_in_recovery() "
+            + "THEN COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) ELSE 0 END";
+
+    private final DataSource primary;
+    private final Map<String, Replica> replicas = new LinkedHashMap<>();
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final double maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicaDataSources,
+            ReadYourWritesTracker readYourWritesTracker, double maxLagSeconds) {
+        this.primary = primary;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.maxLagSeconds = maxLagSeconds;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicaDataSources.forEach((name, dataSource) -> {
+            replicas.put(name, new Replica(name, dataSource));
+            targets.put(name, dataSource);
+        });
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return PRIMARY;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            registerWriteTracking();
+            return PRIMARY;
+        }
+        if (readYourWritesTracker.hasRecentWrite()) {
+            return PRIMARY;
+        }
+        return pickReplica();
+    }
+
+    private void registerWriteTracking() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    readYourWritesTracker.recordWrite();
+                }
+            });
+        }
+    }
+
+    private String pickReplica() {
+        List<Replica> healthy = new ArrayList<>(replicas.size());
+        for (Replica replica : replicas.values()) {
+            if (replica.healthy) {
+                healthy.add(replica);
+            }
+        }
+        if (healthy.isEmpty()) {
+            return PRIMARY;
+        }
+        return healthy.get(Math.floorMod(next.getAndIncrement(), healthy.size())).name;
+    }
+
+    /**
+     * Probes every replica once and updates its routing eligibility.
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replica.health-check-interval-ms:5000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas.values()) {
+            boolean healthy;
+            double lag = Double.NaN;
+            try (Connection connection = replica.dataSource.getConnection();
+                    Statement statement = connection.createStatement();
+                    ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+                rs.next();
+                lag = rs.getDouble(1);
+                healthy = lag <= maxLagSeconds;
+            } catch (Exception e) {
+                healthy = false;
+                log.debug("Replica {} health check failed: {}", replica.name, e.getMessage());
+            }
+            if (healthy != replica.healthy) {
+                log.warn("Replica {} is now {} (lag {}s)", replica.name, healthy ? "in rotation" : "out of rotation",
+                        lag);
+            }
+            replica.healthy = healthy;
+            replica.lagSeconds = lag;
+        }
+    }
+
+    /**
+     * Marks a replica in or out of rotation without probing it.
+     */
+    void setReplicaHealthy(String name, boolean healthy) {
+        replicas.get(name).healthy = healthy;
+    }
+
+    public Map<String, Object> getReplicaStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        replicas.values().forEach(replica -> status.put(replica.name,
+                Map.of("healthy", replica.healthy, "lagSeconds", replica.lagSeconds)));
+        return status;
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    public void close() throws Exception {
+        for (Replica replica : replicas.values()) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        // Out of rotation until the first successful health check
+        private volatile boolean healthy;
+        private volatile double lagSeconds = Double.NaN;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
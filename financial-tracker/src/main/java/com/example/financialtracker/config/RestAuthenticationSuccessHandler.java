@@ -3,6 +3,7 @@ package com.example.financialtracker.config;
 import com.example.financialtracker.model.User;
 import com.example.financialtracker.payload.AuthResponse;
 import com.example.financialtracker.repository.UserRepository;
+import com.example.financialtracker.security.DeviceIdResolver;
 import com.example.financialtracker.service.RefreshTokenService;
 import com.example.financialtracker.util.JwtUtil;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -33,18 +34,20 @@ public class RestAuthenticationSuccessHandler implements AuthenticationSuccessHa
     private UserRepository userRepository;
     @Autowired
     private PasswordEncoder passwordEncoder;
+    @Autowired
+    private DeviceIdResolver deviceIdResolver;
 
     @Override
     public void onAuthenticationSuccess(HttpServletRequest request, HttpServletResponse response,
             Authentication authentication) throws IOException, ServletException {
 
-        String username;
+        User user;
         Object principal = authentication.getPrincipal();
 
         if (principal instanceof OAuth2User oauth2User) {
             String email = oauth2User.getAttribute("email");
             // Basic JIT Provisioning
-            User user = userRepository.findByEmail(email).orElseGet(() -> {
+            user = userRepository.findByEmail(email).orElseGet(() -> {
                 User newUser = new User();
                 newUser.setEmail(email);
                 // Use email prefix as username, ensure uniqueness in real app logic handling
@@ -60,15 +63,15 @@ public class RestAuthenticationSuccessHandler implements AuthenticationSuccessHa
 
                 return userRepository.save(newUser);
             });
-            username = user.getUsername();
         } else if (principal instanceof UserDetails userDetails) {
-            username = userDetails.getUsername();
+            user = userRepository.findByUsername(userDetails.getUsername())
+                    .orElseThrow(() -> new RuntimeException("User not found: " + userDetails.getUsername()));
         } else {
             throw new IllegalStateException("Unexpected principal type: " + principal.getClass());
         }
 
-        String jwt = jwtUtil.generateToken(username);
-        String refreshToken = refreshTokenService.createRefreshToken(username).getToken();
+        String jwt = jwtUtil.generateToken(user.getUsername());
+        String refreshToken = refreshTokenService.createRefreshToken(user, deviceIdResolver.resolve(request)).getToken();
 
         AuthResponse authResponse = new AuthResponse(jwt, refreshToken);
 
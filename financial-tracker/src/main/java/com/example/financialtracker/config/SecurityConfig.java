@@ -1,22 +1,30 @@
 package com.example.financialtracker.config;
 
+import com.example.financialtracker.filter.AdmissionControlFilter;
 import com.example.financialtracker.filter.JwtAuthFilter;
 import com.example.financialtracker.repository.UserRepository;
 import com.example.financialtracker.util.JwtUtil;
 import com.example.financialtracker.security.RateLimitFilter;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.info.InfoEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -73,10 +81,43 @@ public class SecurityConfig {
         this.oAuth2LoginSuccessHandler = oAuth2LoginSuccessHandler;
     }
 
+    /**
+     * Actuator endpoints. Health and info are open for probes; the rest (metrics,
+     * captured query plans) need HTTP Basic as the operator account from
+     * {@code app.management.username}/{@code password}, and are closed while no
+     * password is set.
+     */
     @Bean
+    @Order(1)
+    public SecurityFilterChain managementSecurityFilterChain(HttpSecurity http, PasswordEncoder passwordEncoder,
+            @Value("${app.management.username:actuator}") String username,
+            @Value("${app.management.password:}") String password) throws Exception {
+        InMemoryUserDetailsManager operators = new InMemoryUserDetailsManager();
+        if (!password.isBlank()) {
+            operators.createUser(User.withUsername(username).password(passwordEncoder.encode(password))
+                    .roles("ACTUATOR").build());
+        }
+        DaoAuthenticationProvider operatorProvider = new DaoAuthenticationProvider();
+        operatorProvider.setUserDetailsService(operators);
+        operatorProvider.setPasswordEncoder(passwordEncoder);
+
+        http
+                .securityMatcher(EndpointRequest.toAnyEndpoint())
+                .csrf(AbstractHttpConfigurer::disable)
+                .authorizeHttpRequests(authorize -> authorize
+                        .requestMatchers(EndpointRequest.to(HealthEndpoint.class, InfoEndpoint.class)).permitAll()
+                        .anyRequest().hasRole("ACTUATOR"))
+                .authenticationManager(new ProviderManager(operatorProvider))
+                .httpBasic(withDefaults())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+        return http.build();
+    }
+
+    @Bean
+    @Order(2)
     public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtAuthFilter jwtAuthFilter,
             RestAuthenticationEntryPoint restAuthenticationEntryPoint, DaoAuthenticationProvider authenticationProvider,
-            RateLimitFilter rateLimitFilter)
+            RateLimitFilter rateLimitFilter, AdmissionControlFilter admissionControlFilter)
             throws Exception {
         http
                 .csrf(AbstractHttpConfigurer::disable)
@@ -87,6 +128,8 @@ public class SecurityConfig {
                         .requestMatchers(org.springframework.web.bind.annotation.RequestMethod.OPTIONS.name())
                         .permitAll()
                         .requestMatchers("/api/auth/**", "/oauth2/**", "/error").permitAll()
+                        // Deletion status outlives the account it belongs to
+                        .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/users/deletions/*").permitAll()
                         .anyRequest().authenticated())
                 .oauth2Login(oauth2 -> oauth2
                         .successHandler(oAuth2LoginSuccessHandler))
@@ -94,8 +137,10 @@ public class SecurityConfig {
                 .httpBasic(AbstractHttpConfigurer::disable)
                 .formLogin(AbstractHttpConfigurer::disable)
                 .authenticationProvider(authenticationProvider)
-                .addFilterBefore(rateLimitFilter, UsernamePasswordAuthenticationFilter.class)
-                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                // After the JWT filter so per-user budgets can key on the authenticated principal
+                .addFilterAfter(rateLimitFilter, JwtAuthFilter.class)
+                .addFilterAfter(admissionControlFilter, RateLimitFilter.class);
         return http.build();
     }
 
@@ -0,0 +1,28 @@
+package com.example.financialtracker.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+import javax.sql.DataSource;
+
+/**
+ * Beans that stay eager when the {@code fast-start} profile turns on lazy
+ * initialization: the pools, the migrations and the entity manager factory,
+ * so a replica with a bad connection or a schema that does not match the
+ * entities still fails at startup rather than on its first request. Beans with
+ * {@code @Scheduled} methods are kept eager by Spring Boot itself.
+ */
+@Configuration(proxyBeanMethods = false)
+public class StartupConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerInfrastructure() {
+        return LazyInitializationExcludeFilter.forBeanTypes(DataSource.class, Flyway.class,
+                FlywayMigrationInitializer.class, EntityManagerFactory.class, AbstractEntityManagerFactoryBean.class);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.financialtracker.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Picks the interactive or the batch pool for the current thread. The
+ * workload is set by {@link BatchWorkloadAspect} around
+ * {@link BatchWorkload} methods and defaults to interactive.
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Workload {
+        INTERACTIVE, BATCH
+    }
+
+    private static final ThreadLocal<Workload> CURRENT = new ThreadLocal<>();
+
+    public WorkloadRoutingDataSource(DataSource interactive, DataSource batch) {
+        setTargetDataSources(Map.of(Workload.INTERACTIVE, interactive, Workload.BATCH, batch));
+        setDefaultTargetDataSource(interactive);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return current();
+    }
+
+    public static Workload current() {
+        Workload workload = CURRENT.get();
+        return workload != null ? workload : Workload.INTERACTIVE;
+    }
+
+    /**
+     * Switches the current thread to {@code workload} and returns the previous
+     * value for {@link #restore}. Only affects connections obtained afterwards;
+     * a transaction that is already open keeps its connection, as would a
+     * session held for the whole request, which is why
+     * {@code spring.jpa.open-in-view} is off.
+     */
+    public static Workload enter(Workload workload) {
+        Workload previous = CURRENT.get();
+        CURRENT.set(workload);
+        return previous;
+    }
+
+    public static void restore(Workload previous) {
+        if (previous != null) {
+            CURRENT.set(previous);
+        } else {
+            CURRENT.remove();
+        }
+    }
+}
@@ -2,7 +2,9 @@ package com.example.financialtracker.controller;
 
 import com.example.financialtracker.model.User;
 
+import com.example.financialtracker.payload.AdvisorInsightsResponse;
 import com.example.financialtracker.service.AdvisorService;
+import com.example.financialtracker.service.DisplayCurrencyService;
 import com.example.financialtracker.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -10,8 +12,12 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDate;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/advisor")
 public class AdvisorController {
@@ -22,15 +28,40 @@ public class AdvisorController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private DisplayCurrencyService displayCurrencyService;
+
     @GetMapping("/insights")
-    public ResponseEntity<?> getInsights(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> getInsights(@AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(required = false) String currency) {
         if (userDetails == null) {
             return ResponseEntity.status(401).build();
         }
+        DisplayCurrencyService.Converter converter = displayCurrencyService.converterFor(currency).orElse(null);
+        if (converter == null) {
+            return ResponseEntity.badRequest().body("Unsupported currency: " + currency);
+        }
         User user = userService.findByUsername(userDetails.getUsername());
         if (user == null) {
             return ResponseEntity.status(404).build();
         }
-        return ResponseEntity.ok(advisorService.getInsights(user));
+        AdvisorInsightsResponse insights = advisorService.getInsights(user);
+        return ResponseEntity.ok(converter.isIdentity() ? insights : convert(insights, converter));
+    }
+
+    // Past balances at their day's rate, projected ones and the stats at the latest
+    private AdvisorInsightsResponse convert(AdvisorInsightsResponse insights,
+            DisplayCurrencyService.Converter converter) {
+        List<AdvisorInsightsResponse.ForecastDataPoint> forecast = insights.getBalanceForecast().stream()
+                .map(point -> new AdvisorInsightsResponse.ForecastDataPoint(point.getDate(),
+                        converter.convert(point.getBalance(), LocalDate.parse(point.getDate())),
+                        point.isProjected()))
+                .toList();
+        AdvisorInsightsResponse.SummaryStats stats = insights.getStats();
+        return new AdvisorInsightsResponse(forecast, insights.getAdvice(),
+                new AdvisorInsightsResponse.SummaryStats(
+                        converter.convert(stats.getProjectedEndOfMonthBalance()),
+                        converter.convert(stats.getAverageDailySpending()),
+                        stats.getSpendingTrend()));
     }
 }
@@ -4,9 +4,10 @@ import com.example.financialtracker.model.User;
 import com.example.financialtracker.payload.AuthRequest;
 import com.example.financialtracker.payload.AuthResponse;
 import com.example.financialtracker.payload.TokenRefreshRequest;
+import com.example.financialtracker.security.ClientIpResolver;
+import com.example.financialtracker.security.DeviceIdResolver;
 import com.example.financialtracker.service.AuthService;
 import com.example.financialtracker.service.RefreshTokenService;
-import com.example.financialtracker.model.RefreshToken;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,6 +30,12 @@ public class AuthController {
     @Autowired
     private RefreshTokenService refreshTokenService;
 
+    @Autowired
+    private ClientIpResolver clientIpResolver;
+
+    @Autowired
+    private DeviceIdResolver deviceIdResolver;
+
     @PostMapping("/register")
     public ResponseEntity<?> registerUser(@RequestBody AuthRequest authRequest) {
         try {
@@ -113,12 +120,10 @@ public class AuthController {
             if (deviceDetails == null)
                 deviceDetails = "Unknown Device";
 
-            String ipAddress = request.getHeader("X-Forwarded-For");
-            if (ipAddress == null || ipAddress.isEmpty()) {
-                ipAddress = request.getRemoteAddr();
-            }
+            String ipAddress = clientIpResolver.resolve(request);
 
-            AuthResponse authResponse = authService.authenticateUser(authRequest, deviceDetails, ipAddress);
+            AuthResponse authResponse = authService.authenticateUser(authRequest, deviceDetails,
+                    deviceIdResolver.resolve(request), ipAddress);
             return ResponseEntity.ok(authResponse);
         } catch (RuntimeException e) {
             Map<String, String> errorResponse = new HashMap<>();
@@ -131,12 +136,11 @@ public class AuthController {
     public ResponseEntity<?> refreshToken(@RequestBody TokenRefreshRequest request) {
         String requestRefreshToken = request.getRefreshToken();
 
-        return refreshTokenService.findByToken(requestRefreshToken)
-                .map(refreshTokenService::verifyExpiration)
-                .map(RefreshToken::getUser)
-                .map(user -> {
-                    String token = authService.generateAccessToken(user.getUsername());
-                    return ResponseEntity.ok(new AuthResponse(token, requestRefreshToken));
+        // Rotate on every use so a leaked token is only good until the owner's next refresh
+        return refreshTokenService.rotate(requestRefreshToken)
+                .map(rotated -> {
+                    String token = authService.generateAccessToken(rotated.getUser().getUsername());
+                    return ResponseEntity.ok(new AuthResponse(token, rotated.getToken()));
                 })
                 .orElseThrow(() -> new RuntimeException("Refresh token is not in database!"));
     }
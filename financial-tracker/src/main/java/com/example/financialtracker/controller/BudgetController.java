@@ -4,10 +4,13 @@ import com.example.financialtracker.model.Budget;
 import com.example.financialtracker.model.User;
 import com.example.financialtracker.repository.UserRepository;
 import com.example.financialtracker.service.BudgetService;
+import com.example.financialtracker.service.DisplayCurrencyService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -20,23 +23,33 @@ public class BudgetController {
 
     private final BudgetService budgetService;
     private final UserRepository userRepository;
+    private final DisplayCurrencyService displayCurrencyService;
 
-    public BudgetController(BudgetService budgetService, UserRepository userRepository) {
+    public BudgetController(BudgetService budgetService, UserRepository userRepository,
+            DisplayCurrencyService displayCurrencyService) {
         this.budgetService = budgetService;
         this.userRepository = userRepository;
+        this.displayCurrencyService = displayCurrencyService;
     }
 
     @GetMapping("/current")
     public ResponseEntity<List<Map<String, Object>>> getCurrentBudgetStatus(
             @RequestParam(required = false) Integer month,
-            @RequestParam(required = false) Integer year) {
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) String currency) {
 
+        DisplayCurrencyService.Converter converter = displayCurrencyService.converterFor(currency)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Unsupported currency: " + currency));
         User user = getCurrentUser();
         LocalDate now = LocalDate.now();
         int targetMonth = (month != null) ? month : now.getMonthValue();
         int targetYear = (year != null) ? year : now.getYear();
 
-        return ResponseEntity.ok(budgetService.getBudgetStatus(user, targetMonth, targetYear));
+        // Percentages are unchanged by the currency; only the amounts are converted
+        return ResponseEntity.ok(budgetService.getBudgetStatus(user, targetMonth, targetYear).stream()
+                .map(status -> converter.convert(status, null, "budgeted", "actual"))
+                .toList());
     }
 
     @PostMapping
@@ -0,0 +1,43 @@
+package com.example.financialtracker.controller;
+
+import com.example.financialtracker.model.User;
+import com.example.financialtracker.service.DashboardService;
+import com.example.financialtracker.service.UserService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Everything the dashboard shows in one response, in place of separate
+ * report, budget and advisor calls. The {@code ETag} is the dashboard's
+ * version; a request with a matching {@code If-None-Match} gets a 304.
+ */
+@RestController
+@RequestMapping("/api/dashboard")
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+    private final UserService userService;
+
+    public DashboardController(DashboardService dashboardService, UserService userService) {
+        this.dashboardService = dashboardService;
+        this.userService = userService;
+    }
+
+    @GetMapping
+    public ResponseEntity<byte[]> getDashboard(@AuthenticationPrincipal UserDetails userDetails) {
+        User user = userService.findByUsername(userDetails.getUsername());
+        DashboardService.Dashboard dashboard = dashboardService.getDashboard(user);
+        // The ETag makes Spring answer a matching If-None-Match with 304 and no body
+        return ResponseEntity.ok()
+                .eTag(dashboard.version())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(dashboard.body());
+    }
+}
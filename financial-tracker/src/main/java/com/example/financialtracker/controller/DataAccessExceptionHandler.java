@@ -0,0 +1,35 @@
+package com.example.financialtracker.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+/**
+ * Turns "no connection available" into 503 + Retry-After. The interactive pool
+ * gives up after its short connection timeout, so a saturated pool sheds
+ * requests quickly instead of queueing them.
+ */
+@RestControllerAdvice
+public class DataAccessExceptionHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(DataAccessExceptionHandler.class);
+
+    @Value("${app.admission.retry-after-seconds:2}")
+    private long retryAfterSeconds;
+
+    @ExceptionHandler({ CannotCreateTransactionException.class, DataAccessResourceFailureException.class })
+    public ResponseEntity<Map<String, String>> handleConnectionUnavailable(Exception e) {
+        log.warn("Database connection unavailable: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", String.valueOf(retryAfterSeconds))
+                .body(Map.of("error", "Server is busy. Please try again shortly."));
+    }
+}
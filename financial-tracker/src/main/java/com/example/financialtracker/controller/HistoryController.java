@@ -0,0 +1,63 @@
+package com.example.financialtracker.controller;
+
+import com.example.financialtracker.model.MonthlySummary;
+import com.example.financialtracker.model.User;
+import com.example.financialtracker.payload.MonthHistoryResponse;
+import com.example.financialtracker.repository.MonthlySummaryRepository;
+import com.example.financialtracker.service.UserService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Finalized months, newest first, from the aggregates stored at finalization:
+ * a long-range chart reads one row per month instead of the transactions.
+ */
+@RestController
+@RequestMapping("/api/history")
+public class HistoryController {
+
+    private static final int MAX_PAGE_SIZE = 120;
+
+    private final MonthlySummaryRepository monthlySummaryRepository;
+    private final UserService userService;
+
+    public HistoryController(MonthlySummaryRepository monthlySummaryRepository, UserService userService) {
+        this.monthlySummaryRepository = monthlySummaryRepository;
+        this.userService = userService;
+    }
+
+    @GetMapping("/months")
+    public ResponseEntity<Map<String, Object>> getMonths(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "24") int size) {
+
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "page must be 0 or more and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        User user = userService.findByUsername(userDetails.getUsername());
+        Page<MonthlySummary> months = monthlySummaryRepository.findAllByUserOrderByMonthStartDesc(user,
+                PageRequest.of(page, size));
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("months", months.map(MonthHistoryResponse::of).getContent());
+        response.put("page", months.getNumber());
+        response.put("size", months.getSize());
+        response.put("totalElements", months.getTotalElements());
+        response.put("totalPages", months.getTotalPages());
+        return ResponseEntity.ok(response);
+    }
+}
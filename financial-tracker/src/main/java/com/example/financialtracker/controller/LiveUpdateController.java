@@ -0,0 +1,42 @@
+package com.example.financialtracker.controller;
+
+import com.example.financialtracker.model.User;
+import com.example.financialtracker.repository.UserRepository;
+import com.example.financialtracker.service.LiveUpdateService;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Server-sent event stream of the signed-in user's updates:
+ * {@code balance} ({@code {"balance": ...}}), {@code budget} (one category's
+ * spending against its budget), {@code transaction} (created, updated or
+ * deleted rows) and {@code month} (the open month was finalized). Clients load the full state once, then apply the events; on
+ * reconnect they load it again.
+ */
+@RestController
+@RequestMapping("/api/events")
+public class LiveUpdateController {
+
+    private final LiveUpdateService liveUpdateService;
+    private final UserRepository userRepository;
+
+    public LiveUpdateController(LiveUpdateService liveUpdateService, UserRepository userRepository) {
+        this.liveUpdateService = liveUpdateService;
+        this.userRepository = userRepository;
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        return liveUpdateService.open(getCurrentUser());
+    }
+
+    private User getCurrentUser() {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        return userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found: " + username));
+    }
+}
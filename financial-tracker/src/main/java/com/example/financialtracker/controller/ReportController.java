@@ -1,13 +1,20 @@
 package com.example.financialtracker.controller;
 
 import com.example.financialtracker.model.User;
+import com.example.financialtracker.service.DisplayCurrencyService;
+import com.example.financialtracker.service.FinalizedReportService;
+import com.example.financialtracker.service.RangeReportService;
 import com.example.financialtracker.service.ReportService;
 import com.example.financialtracker.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -15,8 +22,14 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/reports")
@@ -25,6 +38,15 @@ public class ReportController {
     @Autowired
     private ReportService reportService;
 
+    @Autowired
+    private RangeReportService rangeReportService;
+
+    @Autowired
+    private FinalizedReportService finalizedReportService;
+
+    @Autowired
+    private DisplayCurrencyService displayCurrencyService;
+
     @Autowired
     private UserService userService;
 
@@ -32,13 +54,17 @@ public class ReportController {
     public ResponseEntity<List<Map<String, Object>>> getExpensesByCategory(
             @AuthenticationPrincipal UserDetails userDetails,
             @RequestParam(required = false) Integer month,
-            @RequestParam(required = false) Integer year) {
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) String currency) {
 
+        DisplayCurrencyService.Converter converter = converter(currency);
         User user = userService.findByUsername(userDetails.getUsername());
         LocalDate startDate = getStartDate(month, year);
         LocalDate endDate = getEndDate(startDate);
 
-        List<Map<String, Object>> response = reportService.getExpensesByCategory(user, startDate, endDate);
+        List<Map<String, Object>> response = reportService.getExpensesByCategory(user, startDate, endDate).stream()
+                .map(row -> converter.convert(row, null, "value"))
+                .toList();
 
         return ResponseEntity.ok(response);
     }
@@ -47,17 +73,157 @@ public class ReportController {
     public ResponseEntity<List<Map<String, Object>>> getMonthlySummary(
             @AuthenticationPrincipal UserDetails userDetails,
             @RequestParam(required = false) Integer month,
-            @RequestParam(required = false) Integer year) {
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) String currency) {
 
+        DisplayCurrencyService.Converter converter = converter(currency);
         User user = userService.findByUsername(userDetails.getUsername());
         LocalDate startDate = getStartDate(month, year);
         LocalDate endDate = getEndDate(startDate);
 
-        List<Map<String, Object>> response = reportService.getMonthlySummary(user, startDate, endDate);
+        // Daily amounts, each at its own day's rate
+        List<Map<String, Object>> response = reportService.getMonthlySummary(user, startDate, endDate).stream()
+                .map(row -> converter.convert(row, LocalDate.parse((String) row.get("date")), "amount"))
+                .toList();
 
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Totals over a range of months ({@code yyyy-MM}, inclusive; the last 12
+     * months by default) per day, week, month or category, optionally next to
+     * the previous period ({@code compare=previous}) or the same months a year
+     * earlier ({@code compare=year}). Amounts are in XAF unless
+     * {@code currency} names another; daily buckets use each day's rate.
+     */
+    @GetMapping("/range")
+    public ResponseEntity<Map<String, Object>> getRangeReport(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(defaultValue = "month") String granularity,
+            @RequestParam(defaultValue = "none") String compare,
+            @RequestParam(required = false) String currency) {
+
+        YearMonth toMonth = to != null ? parseMonth(to) : YearMonth.now();
+        YearMonth fromMonth = from != null ? parseMonth(from) : toMonth.minusMonths(11);
+        if (fromMonth.isAfter(toMonth)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must not be after to");
+        }
+        if (fromMonth.until(toMonth, ChronoUnit.MONTHS) >= RangeReportService.MAX_MONTHS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Range must not exceed " + RangeReportService.MAX_MONTHS + " months");
+        }
+        RangeReportService.Granularity g = parseOption(RangeReportService.Granularity.class, granularity,
+                "granularity");
+        RangeReportService.Comparison c = parseOption(RangeReportService.Comparison.class, compare, "compare");
+        DisplayCurrencyService.Converter converter = converter(currency);
+
+        User user = userService.findByUsername(userDetails.getUsername());
+        Map<String, Object> report = rangeReportService.getRangeReport(user, fromMonth, toMonth, g, c);
+        if (converter.isIdentity()) {
+            return ResponseEntity.ok(report);
+        }
+        boolean daily = g == RangeReportService.Granularity.DAY;
+        Map<String, Object> converted = convertPeriod(report, converter, daily);
+        if (report.get("comparison") instanceof Map<?, ?> comparison) {
+            converted.put("comparison", convertPeriod(castMap(comparison), converter, daily));
+        }
+        converted.put("currency", converter.currency());
+        return ResponseEntity.ok(converted);
+    }
+
+    /** A range period with its bucket and total amounts converted; percentages stay as they are. */
+    private Map<String, Object> convertPeriod(Map<String, Object> period, DisplayCurrencyService.Converter converter,
+            boolean daily) {
+        Map<String, Object> converted = new LinkedHashMap<>(period);
+        List<Map<String, Object>> buckets = new ArrayList<>();
+        for (Object bucket : (List<?>) period.get("buckets")) {
+            Map<String, Object> row = castMap((Map<?, ?>) bucket);
+            LocalDate date = daily ? LocalDate.parse((String) row.get("period")) : null;
+            buckets.add(converter.convert(row, date, "credits", "debits", "net", "closingBalance"));
+        }
+        converted.put("buckets", buckets);
+        converted.put("totals", converter.convert(castMap((Map<?, ?>) period.get("totals")), null,
+                "credits", "debits", "net"));
+        return converted;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> castMap(Map<?, ?> map) {
+        return (Map<String, Object>) map;
+    }
+
+    private DisplayCurrencyService.Converter converter(String currency) {
+        return displayCurrencyService.converterFor(currency)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Unsupported currency: " + currency));
+    }
+
+    /**
+     * A finalized month's stored report. It can still be rendered again if a
+     * back-dated transaction in the month is finalized later, so this URL is
+     * revalidated; {@code Content-Location} names the immutable copy.
+     */
+    @GetMapping("/finalized/{month}")
+    public ResponseEntity<byte[]> getFinalizedReport(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @PathVariable String month) {
+
+        User user = userService.findByUsername(userDetails.getUsername());
+        FinalizedReportService.Report report = finalizedReportService.getReport(user, parseMonth(month))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Month not finalized"));
+        return ResponseEntity.ok()
+                .eTag(report.contentHash())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .header(HttpHeaders.CONTENT_LOCATION,
+                        "/api/reports/finalized/" + month + "/" + report.contentHash())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(report.body());
+    }
+
+    /**
+     * The report with the given content hash, which never changes: clients
+     * may keep it for good. A hash that is no longer current is a 404.
+     */
+    @GetMapping("/finalized/{month}/{hash}")
+    public ResponseEntity<byte[]> getFinalizedReportByHash(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @PathVariable String month,
+            @PathVariable String hash) {
+
+        User user = userService.findByUsername(userDetails.getUsername());
+        FinalizedReportService.Report report = finalizedReportService.getReport(user, parseMonth(month))
+                .filter(found -> found.contentHash().equals(hash))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Report not found"));
+        return ResponseEntity.ok()
+                .eTag(report.contentHash())
+                .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(report.body());
+    }
+
+    private YearMonth parseMonth(String value) {
+        YearMonth month;
+        try {
+            month = YearMonth.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Months must be given as yyyy-MM");
+        }
+        if (month.getYear() < 2000 || month.getYear() > 3000) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Year must be between 2000 and 3000");
+        }
+        return month;
+    }
+
+    private <E extends Enum<E>> E parseOption(Class<E> type, String value, String name) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown " + name + ": " + value);
+        }
+    }
+
     private LocalDate getStartDate(Integer month, Integer year) {
         LocalDate now = LocalDate.now();
         int y = year != null ? year : now.getYear();
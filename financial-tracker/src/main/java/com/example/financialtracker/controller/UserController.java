@@ -1,9 +1,13 @@
 package com.example.financialtracker.controller;
 
+import com.example.financialtracker.model.AccountDeletionJob;
 import com.example.financialtracker.model.User;
 import com.example.financialtracker.repository.UserRepository;
+import com.example.financialtracker.service.AccountDeletionService;
 import com.example.financialtracker.service.EmailService;
+import com.example.financialtracker.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -26,6 +30,12 @@ public class UserController {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AccountDeletionService accountDeletionService;
+
     @GetMapping("/me")
     public ResponseEntity<?> getCurrentUser(@AuthenticationPrincipal UserDetails userDetails) {
         User user = userRepository.findByUsername(userDetails.getUsername())
@@ -76,14 +86,22 @@ public class UserController {
     }
 
     @DeleteMapping("/me")
-    public ResponseEntity<?> deleteAccount(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> deleteAccount(@AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(defaultValue = "false") boolean async) {
         User user = userRepository.findByUsername(userDetails.getUsername())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        if (user != null) {
-            userRepository.delete(user);
+        if (async) {
+            // Large histories: delete in the background and let the client poll; the job sends the email
+            AccountDeletionJob job = accountDeletionService.start(user);
+            String statusUrl = "/api/users/deletions/" + job.getId();
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .header("Location", statusUrl)
+                    .body(Map.of("message", "Account deletion started", "jobId", job.getId(), "status", statusUrl));
         }
 
+        userService.deleteUser(user);
+
         // Send a final farewell email
         emailService.sendSimpleMessage(user.getEmail(), "FinanceFlow: Account Deleted",
                 "Hello " + user.getUsername()
@@ -91,4 +109,13 @@ public class UserController {
 
         return ResponseEntity.ok(Map.of("message", "Account deleted successfully"));
     }
+
+    // Reachable without a login: the account, and with it the caller's credentials, is gone by the
+    // time the job completes. The random job id is the only handle.
+    @GetMapping("/deletions/{jobId}")
+    public ResponseEntity<AccountDeletionJob> getDeletionStatus(@PathVariable String jobId) {
+        return accountDeletionService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
 }
@@ -0,0 +1,114 @@
+package com.example.financialtracker.filter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limiter whose limit follows observed latency (AIMD): every
+ * completion slower than the target cuts the limit multiplicatively, and
+ * completions under the target while the limiter is busy raise it by one.
+ * Callers that cannot get a permit within the queue timeout are rejected.
+ */
+public class AdaptiveLimiter {
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+    private final double backoffRatio;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitReleased = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private long rejected;
+
+    public AdaptiveLimiter(String name, int initialLimit, int minLimit, int maxLimit, long latencyTargetMillis,
+            double backoffRatio) {
+        if (minLimit < 1 || minLimit > maxLimit) {
+            throw new IllegalArgumentException("Invalid limits for " + name + ": " + minLimit + ".." + maxLimit);
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTargetNanos = TimeUnit.MILLISECONDS.toNanos(latencyTargetMillis);
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Waits up to {@code timeoutMillis} for a permit.
+     *
+     * @return {@code true} if a permit was acquired and must be released with
+     *         {@link #release(long, boolean)}
+     */
+    public boolean tryAcquire(long timeoutMillis) throws InterruptedException {
+        long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        lock.lock();
+        try {
+            while (inFlight >= (int) limit) {
+                if (remaining <= 0L) {
+                    rejected++;
+                    return false;
+                }
+                remaining = permitReleased.awaitNanos(remaining);
+            }
+            inFlight++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a permit and feeds the call's latency into the limit. Failed
+     * calls count as slow so an erroring dependency also sheds load.
+     */
+    public void release(long latencyNanos, boolean success) {
+        lock.lock();
+        try {
+            boolean wasSaturated = inFlight >= (int) limit / 2;
+            inFlight--;
+            if (!success || latencyNanos > latencyTargetNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else if (wasSaturated) {
+                limit = Math.min(maxLimit, limit + 1);
+            }
+            permitReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getRejected() {
+        lock.lock();
+        try {
+            return rejected;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
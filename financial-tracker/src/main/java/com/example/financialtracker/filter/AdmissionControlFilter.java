@@ -0,0 +1,97 @@
+package com.example.financialtracker.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Runs each {@link EndpointCost} class in its own adaptive bulkhead and sheds
+ * load with 503 + Retry-After once a class is saturated, instead of letting
+ * every request queue on Tomcat threads and Hikari connections.
+ */
+@Component
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(AdmissionControlFilter.class);
+
+    private final Map<EndpointCost, AdaptiveLimiter> limiters = new EnumMap<>(EndpointCost.class);
+    private final Map<EndpointCost, Long> queueTimeouts = new EnumMap<>(EndpointCost.class);
+    private final long retryAfterSeconds;
+
+    public AdmissionControlFilter(
+            @Value("${app.admission.heavy.max-concurrency:8}") int heavyMax,
+            @Value("${app.admission.heavy.latency-target-ms:2000}") long heavyTarget,
+            @Value("${app.admission.heavy.queue-timeout-ms:200}") long heavyQueue,
+            @Value("${app.admission.medium.max-concurrency:32}") int mediumMax,
+            @Value("${app.admission.medium.latency-target-ms:500}") long mediumTarget,
+            @Value("${app.admission.medium.queue-timeout-ms:500}") long mediumQueue,
+            @Value("${app.admission.light.max-concurrency:150}") int lightMax,
+            @Value("${app.admission.light.latency-target-ms:200}") long lightTarget,
+            @Value("${app.admission.light.queue-timeout-ms:1000}") long lightQueue,
+            @Value("${app.admission.retry-after-seconds:2}") long retryAfterSeconds) {
+        register(EndpointCost.HEAVY, heavyMax, heavyTarget, heavyQueue);
+        register(EndpointCost.MEDIUM, mediumMax, mediumTarget, mediumQueue);
+        register(EndpointCost.LIGHT, lightMax, lightTarget, lightQueue);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    private void register(EndpointCost cost, int maxConcurrency, long latencyTargetMillis, long queueTimeoutMillis) {
+        int minLimit = Math.max(1, maxConcurrency / 8);
+        limiters.put(cost, new AdaptiveLimiter(cost.name(), maxConcurrency / 2, minLimit, maxConcurrency,
+                latencyTargetMillis, 0.9));
+        queueTimeouts.put(cost, queueTimeoutMillis);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/") || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        EndpointCost cost = EndpointCost.classify(request.getMethod(), request.getRequestURI());
+        AdaptiveLimiter limiter = limiters.get(cost);
+
+        boolean acquired;
+        try {
+            acquired = limiter.tryAcquire(queueTimeouts.get(cost));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            log.warn("Shedding {} {} ({} limit {} reached)", request.getMethod(), request.getRequestURI(), cost,
+                    limiter.getLimit());
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+            response.setContentType("application/json");
+            response.getWriter().write("{\"error\": \"Server is busy. Please try again shortly.\"}");
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            filterChain.doFilter(request, response);
+            success = response.getStatus() < 500;
+        } finally {
+            limiter.release(System.nanoTime() - start, success);
+        }
+    }
+
+    public AdaptiveLimiter getLimiter(EndpointCost cost) {
+        return limiters.get(cost);
+    }
+}
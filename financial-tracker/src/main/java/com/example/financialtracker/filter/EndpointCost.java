@@ -0,0 +1,35 @@
+package com.example.financialtracker.filter;
+
+/**
+ * Cost classes used for admission control. Each class gets its own bulkhead
+ * so a burst of heavy calls cannot take the threads and connections that
+ * cheap reads need.
+ */
+public enum EndpointCost {
+    /** Full-history scans: advisor insights, month finalization, account deletion. */
+    HEAVY,
+    /** Aggregations, balance-recalculating writes and password hashing. */
+    MEDIUM,
+    /** Single-row reads and static lookups such as the supported currencies. */
+    LIGHT;
+
+    public static EndpointCost classify(String method, String uri) {
+        if (uri.startsWith("/api/advisor")
+                || uri.startsWith("/api/transactions/finalize-month")
+                || ("DELETE".equals(method) && uri.startsWith("/api/users/me"))
+                || uri.startsWith("/api/auth/delete-account")) {
+            return HEAVY;
+        }
+        if (uri.startsWith("/api/reports")
+                || uri.startsWith("/api/dashboard")
+                || uri.startsWith("/api/budgets")
+                || uri.startsWith("/api/transactions/history")
+                || (uri.startsWith("/api/transactions") && !"GET".equals(method))
+                || uri.startsWith("/api/auth/login")
+                || uri.startsWith("/api/auth/register")
+                || uri.startsWith("/api/auth/reset-password")) {
+            return MEDIUM;
+        }
+        return LIGHT;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.financialtracker.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Status of a background account deletion, polled by id. Kept in the database
+ * so a poll answered by any instance sees the job, and not tied to the user
+ * row, which the job deletes.
+ */
+@Entity
+@Table(name = "account_deletion_jobs")
+public class AccountDeletionJob {
+    public enum State {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    public static final String FAILED_MESSAGE = "Account deletion failed. Please request it again.";
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private State state = State.QUEUED;
+
+    @Column(name = "rows_deleted", nullable = false)
+    private long rowsDeleted;
+
+    @Column(name = "submitted_at", nullable = false)
+    private Instant submittedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    private String error;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public void setState(State state) {
+        this.state = state;
+    }
+
+    public long getRowsDeleted() {
+        return rowsDeleted;
+    }
+
+    public void setRowsDeleted(long rowsDeleted) {
+        this.rowsDeleted = rowsDeleted;
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(Instant submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
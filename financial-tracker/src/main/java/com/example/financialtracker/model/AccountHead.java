@@ -0,0 +1,72 @@
+package com.example.financialtracker.model;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Materialized state of one user's journal: the running balance after every
+ * entry posted so far. It is also the row the ledger lock is taken on, so all
+ * writes for a user are serialized through it.
+ */
+@Entity
+@Table(name = "account_heads")
+public class AccountHead {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Version
+    private Integer version;
+
+    @Column(nullable = false)
+    private BigDecimal balance = BigDecimal.ZERO;
+
+    @Column(name = "entry_count", nullable = false)
+    private long entryCount;
+
+    // Date of the newest checkpoint, so a back-dated entry knows whether any need invalidating
+    @Column(name = "checkpoint_date")
+    private LocalDate checkpointDate;
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public void setBalance(BigDecimal balance) {
+        this.balance = balance;
+    }
+
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    public void setEntryCount(long entryCount) {
+        this.entryCount = entryCount;
+    }
+
+    public LocalDate getCheckpointDate() {
+        return checkpointDate;
+    }
+
+    public void setCheckpointDate(LocalDate checkpointDate) {
+        this.checkpointDate = checkpointDate;
+    }
+}
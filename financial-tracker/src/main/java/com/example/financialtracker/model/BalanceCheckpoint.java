@@ -0,0 +1,74 @@
+package com.example.financialtracker.model;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * The balance at the end of {@code asOfDate}, i.e. the sum of all entries with
+ * an entry date on or before it. Historical balances start from the nearest
+ * checkpoint instead of the beginning of the journal.
+ */
+@Entity
+@Table(name = "balance_checkpoints", uniqueConstraints = @UniqueConstraint(name = "uk_balance_checkpoints_user_date",
+        columnNames = { "user_id", "as_of_date" }))
+public class BalanceCheckpoint {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "balance_checkpoints_seq")
+    @SequenceGenerator(name = "balance_checkpoints_seq", sequenceName = "balance_checkpoints_id_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "as_of_date", nullable = false)
+    private LocalDate asOfDate;
+
+    @Column(nullable = false)
+    private BigDecimal balance;
+
+    @Column(name = "entry_count", nullable = false)
+    private long entryCount;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    public LocalDate getAsOfDate() {
+        return asOfDate;
+    }
+
+    public void setAsOfDate(LocalDate asOfDate) {
+        this.asOfDate = asOfDate;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public void setBalance(BigDecimal balance) {
+        this.balance = balance;
+    }
+
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    public void setEntryCount(long entryCount) {
+        this.entryCount = entryCount;
+    }
+}
@@ -10,7 +10,8 @@ import java.math.BigDecimal;
 })
 public class Budget {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "budgets_seq")
+    @SequenceGenerator(name = "budgets_seq", sequenceName = "budgets_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -7,7 +7,8 @@ import java.math.BigDecimal;
 @Entity
 public class FinalizationLog {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "finalization_log_seq")
+    @SequenceGenerator(name = "finalization_log_seq", sequenceName = "finalization_log_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "finalization_date", nullable = false)
@@ -0,0 +1,85 @@
+package com.example.financialtracker.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * A finalized month's report (credit and debit totals, category totals and
+ * daily series) rendered once at finalization. {@code contentHash} addresses
+ * the body, so a URL that carries it always returns the same bytes.
+ */
+@Entity
+@Table(name = "finalized_month_reports",
+        uniqueConstraints = @UniqueConstraint(name = "uk_finalized_month_reports_user_month",
+                columnNames = { "user_id", "month_year" }))
+public class FinalizedMonthReport {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "finalized_month_reports_seq")
+    @SequenceGenerator(name = "finalized_month_reports_seq", sequenceName = "finalized_month_reports_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "month_year", nullable = false)
+    private YearMonth monthYear;
+
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    @Column(nullable = false, length = 1048576)
+    private String body;
+
+    @Column(name = "finalized_at", nullable = false)
+    private LocalDateTime finalizedAt;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public YearMonth getMonthYear() {
+        return monthYear;
+    }
+
+    public void setMonthYear(YearMonth monthYear) {
+        this.monthYear = monthYear;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public void setBody(String body) {
+        this.body = body;
+    }
+
+    public LocalDateTime getFinalizedAt() {
+        return finalizedAt;
+    }
+
+    public void setFinalizedAt(LocalDateTime finalizedAt) {
+        this.finalizedAt = finalizedAt;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+}
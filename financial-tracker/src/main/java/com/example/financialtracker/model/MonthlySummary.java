@@ -2,28 +2,52 @@ package com.example.financialtracker.model;
 
 import jakarta.persistence.*;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.YearMonth;
 
 @Entity
-@Table(name = "monthly_summaries")
+@Table(name = "monthly_summaries",
+        uniqueConstraints = @UniqueConstraint(name = "uk_monthly_summaries_user_month",
+                columnNames = { "user_id", "month_year" }))
 public class MonthlySummary {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "monthly_summaries_seq")
+    @SequenceGenerator(name = "monthly_summaries_seq", sequenceName = "monthly_summaries_id_seq", allocationSize = 50)
     private Long id;
 
-    @Column(nullable = false, unique = true)
+    @Column(name = "month_year", nullable = false)
     private YearMonth monthYear;
 
+    // First day of monthYear, kept in step by setMonthYear. month_year holds a
+    // serialized YearMonth, so this is the column to sort and range over.
+    @Column(name = "month_start", nullable = false)
+    private LocalDate monthStart;
+
     @Column(nullable = false)
     private BigDecimal closingBalance;
 
+    // Month aggregates written at finalization; null on summaries from before they were added
+    private BigDecimal openingBalance;
+
+    private BigDecimal totalCredit;
+
+    private BigDecimal totalDebit;
+
+    private Integer transactionCount;
+
+    // Lowest and highest end-of-day balance within the month
+    private BigDecimal minBalance;
+
+    private BigDecimal maxBalance;
+
+    // Debits per category as a JSON object, largest first
+    @Column(length = 65536)
+    private String categoryTotals;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    // You can add more fields here later if needed, e.g., totalCredit, totalDebit
-    // for the month
-
     public Long getId() {
         return id;
     }
@@ -38,6 +62,11 @@ public class MonthlySummary {
 
     public void setMonthYear(YearMonth monthYear) {
         this.monthYear = monthYear;
+        this.monthStart = monthYear == null ? null : monthYear.atDay(1);
+    }
+
+    public LocalDate getMonthStart() {
+        return monthStart;
     }
 
     public BigDecimal getClosingBalance() {
@@ -48,6 +77,62 @@ public class MonthlySummary {
         this.closingBalance = closingBalance;
     }
 
+    public BigDecimal getOpeningBalance() {
+        return openingBalance;
+    }
+
+    public void setOpeningBalance(BigDecimal openingBalance) {
+        this.openingBalance = openingBalance;
+    }
+
+    public BigDecimal getTotalCredit() {
+        return totalCredit;
+    }
+
+    public void setTotalCredit(BigDecimal totalCredit) {
+        this.totalCredit = totalCredit;
+    }
+
+    public BigDecimal getTotalDebit() {
+        return totalDebit;
+    }
+
+    public void setTotalDebit(BigDecimal totalDebit) {
+        this.totalDebit = totalDebit;
+    }
+
+    public Integer getTransactionCount() {
+        return transactionCount;
+    }
+
+    public void setTransactionCount(Integer transactionCount) {
+        this.transactionCount = transactionCount;
+    }
+
+    public BigDecimal getMinBalance() {
+        return minBalance;
+    }
+
+    public void setMinBalance(BigDecimal minBalance) {
+        this.minBalance = minBalance;
+    }
+
+    public BigDecimal getMaxBalance() {
+        return maxBalance;
+    }
+
+    public void setMaxBalance(BigDecimal maxBalance) {
+        this.maxBalance = maxBalance;
+    }
+
+    public String getCategoryTotals() {
+        return categoryTotals;
+    }
+
+    public void setCategoryTotals(String categoryTotals) {
+        this.categoryTotals = categoryTotals;
+    }
+
     public User getUser() {
         return user;
     }
@@ -8,7 +8,8 @@ import java.time.LocalDate;
 @Table(name = "recurring_transactions")
 public class RecurringTransaction {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recurring_transactions_seq")
+    @SequenceGenerator(name = "recurring_transactions_seq", sequenceName = "recurring_transactions_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
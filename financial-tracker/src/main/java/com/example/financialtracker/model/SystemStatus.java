@@ -6,7 +6,8 @@ import java.time.LocalDateTime;
 @Entity
 public class SystemStatus {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "system_status_seq")
+    @SequenceGenerator(name = "system_status_seq", sequenceName = "system_status_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "last_finalization", nullable = false)
@@ -7,7 +7,8 @@ import java.time.LocalDate;
 @Entity
 public class Transaction {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_seq")
+    @SequenceGenerator(name = "transaction_seq", sequenceName = "transaction_id_seq", allocationSize = 50)
     private Long id;
 
     @Version
@@ -28,7 +29,9 @@ public class Transaction {
     @Column
     private BigDecimal debit;
 
-    @Column(nullable = false)
+    // Running balance after this row, derived from the ledger when the row is
+    // read; the legacy column is no longer written
+    @Transient
     private BigDecimal balance;
 
     @Column(nullable = false)
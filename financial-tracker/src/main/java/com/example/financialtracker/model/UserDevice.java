@@ -8,7 +8,8 @@ import java.time.LocalDateTime;
 public class UserDevice {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_devices_seq")
+    @SequenceGenerator(name = "user_devices_seq", sequenceName = "user_devices_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
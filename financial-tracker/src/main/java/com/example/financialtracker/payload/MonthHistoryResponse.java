@@ -0,0 +1,23 @@
+package com.example.financialtracker.payload;
+
+import com.example.financialtracker.model.MonthlySummary;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.math.BigDecimal;
+
+/**
+ * One finalized month in the history. {@code categoryTotals} is the stored
+ * JSON object, written out as is. Months finalized before the aggregates were
+ * recorded carry only the closing balance.
+ */
+public record MonthHistoryResponse(String month, BigDecimal openingBalance, BigDecimal closingBalance,
+        BigDecimal totalCredit, BigDecimal totalDebit, Integer transactionCount, BigDecimal minBalance,
+        BigDecimal maxBalance, @JsonRawValue String categoryTotals) {
+
+    public static MonthHistoryResponse of(MonthlySummary summary) {
+        return new MonthHistoryResponse(summary.getMonthYear().toString(), summary.getOpeningBalance(),
+                summary.getClosingBalance(), summary.getTotalCredit(), summary.getTotalDebit(),
+                summary.getTransactionCount(), summary.getMinBalance(), summary.getMaxBalance(),
+                summary.getCategoryTotals());
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.financialtracker.repository;
+
+import com.example.financialtracker.model.AccountDeletionJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface AccountDeletionJobRepository extends JpaRepository<AccountDeletionJob, String> {
+
+    @Modifying
+    @Query("DELETE FROM AccountDeletionJob j WHERE j.finishedAt < :cutoff")
+    int deleteFinishedBefore(@Param("cutoff") Instant cutoff);
+}
@@ -0,0 +1,25 @@
+package com.example.financialtracker.repository;
+
+import com.example.financialtracker.model.AccountHead;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface AccountHeadRepository extends JpaRepository<AccountHead, Long> {
+
+    // SELECT ... FOR UPDATE on the head row: the per-user ledger write lock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM AccountHead h WHERE h.userId = :userId")
+    Optional<AccountHead> findByIdForUpdate(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM AccountHead h WHERE h.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,31 @@
+package com.example.financialtracker.repository;
+
+import com.example.financialtracker.model.BalanceCheckpoint;
+import com.example.financialtracker.model.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface BalanceCheckpointRepository extends JpaRepository<BalanceCheckpoint, Long> {
+
+    Optional<BalanceCheckpoint> findTopByUserAndAsOfDateLessThanEqualOrderByAsOfDateDesc(User user, LocalDate asOf);
+
+    Optional<BalanceCheckpoint> findTopByUserOrderByAsOfDateDesc(User user);
+
+    /**
+     * Drops checkpoints a back-dated entry has made stale.
+     */
+    @Modifying
+    @Query("DELETE FROM BalanceCheckpoint c WHERE c.user = :user AND c.asOfDate >= :from")
+    int deleteFrom(@Param("user") User user, @Param("from") LocalDate from);
+
+    @Modifying
+    @Query("DELETE FROM BalanceCheckpoint c WHERE c.user = :user")
+    int deleteAllByUser(@Param("user") User user);
+}
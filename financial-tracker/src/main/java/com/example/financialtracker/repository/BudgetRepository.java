@@ -3,6 +3,9 @@ package com.example.financialtracker.repository;
 import com.example.financialtracker.model.Budget;
 import com.example.financialtracker.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,5 +17,9 @@ public interface BudgetRepository extends JpaRepository<Budget, Long> {
 
     List<Budget> findAllByUser(User user);
 
+    @Modifying
+    @Query("DELETE FROM Budget b WHERE b.user = :user")
+    int deleteAllByUser(@Param("user") User user);
+
     Optional<Budget> findByUserAndCategoryAndMonthAndYear(User user, String category, Integer month, Integer year);
 }
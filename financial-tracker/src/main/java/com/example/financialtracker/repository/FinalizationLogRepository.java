@@ -3,6 +3,9 @@ package com.example.financialtracker.repository;
 import com.example.financialtracker.model.FinalizationLog;
 import com.example.financialtracker.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.List;
 
 public interface FinalizationLogRepository extends JpaRepository<FinalizationLog, Long> {
@@ -11,4 +14,8 @@ public interface FinalizationLogRepository extends JpaRepository<FinalizationLog
     List<FinalizationLog> findAllByUserOrderByFinalizationDateDesc(User user);
 
     List<FinalizationLog> findAllByUser(User user);
+
+    @Modifying
+    @Query("DELETE FROM FinalizationLog f WHERE f.user = :user")
+    int deleteAllByUser(@Param("user") User user);
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.example.financialtracker.repository;
+
+import com.example.financialtracker.model.FinalizedMonthReport;
+import com.example.financialtracker.model.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface FinalizedMonthReportRepository extends JpaRepository<FinalizedMonthReport, Long> {
+    Optional<FinalizedMonthReport> findByUserAndMonthYear(User user, YearMonth monthYear);
+
+    List<FinalizedMonthReport> findAllByUserAndMonthYearIn(User user, Collection<YearMonth> months);
+
+    @Modifying
+    @Query("DELETE FROM FinalizedMonthReport r WHERE r.user = :user")
+    int deleteAllByUser(@Param("user") User user);
+}
@@ -0,0 +1,53 @@
+package com.example.financialtracker.repository;
+
+import com.example.financialtracker.model.LedgerEntry;
+import com.example.financialtracker.model.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+
+    // The entry currently standing for a transaction: not itself a reversal and not reversed yet. Ids
+    // come in per-node blocks, so the newest entry is not necessarily the highest id.
+    @Query("SELECT e FROM LedgerEntry e WHERE e.user = :user AND e.transactionId = :transactionId "
+            + "AND e.reversalOf IS NULL AND NOT EXISTS (SELECT r.id FROM LedgerEntry r "
+            + "WHERE r.transactionId = e.transactionId AND r.reversalOf = e.id)")
+    Optional<LedgerEntry> findStanding(@Param("user") User user, @Param("transactionId") Long transactionId);
+
+    @Query("SELECT COALESCE(SUM(e.amount), 0) FROM LedgerEntry e WHERE e.user = :user AND e.entryDate <= :asOf")
+    BigDecimal sumUpTo(@Param("user") User user, @Param("asOf") LocalDate asOf);
+
+    @Query("SELECT COALESCE(SUM(e.amount), 0) FROM LedgerEntry e WHERE e.user = :user AND e.entryDate > :after AND e.entryDate <= :asOf")
+    BigDecimal sumBetween(@Param("user") User user, @Param("after") LocalDate after, @Param("asOf") LocalDate asOf);
+
+    @Query("SELECT COALESCE(SUM(e.amount), 0) FROM LedgerEntry e WHERE e.user = :user AND e.entryDate = :date AND e.transactionId <= :transactionId")
+    BigDecimal sumOnDateUpTo(@Param("user") User user, @Param("date") LocalDate date,
+            @Param("transactionId") Long transactionId);
+
+    @Modifying
+    @Query("DELETE FROM LedgerEntry e WHERE e.user = :user")
+    int deleteAllByUser(@Param("user") User user);
+
+    // Bounded slices of a user's journal, so a large history is removed in short transactions. Ids come
+    // in per-node blocks and say nothing about which entry references which, so all reversals go
+    // before the entries they reference.
+    @Modifying
+    @Query(value = "DELETE FROM ledger_entries WHERE id IN "
+            + "(SELECT id FROM ledger_entries WHERE user_id = :userId AND reversal_of IS NOT NULL LIMIT :limit)",
+            nativeQuery = true)
+    int deleteReversalChunkByUserId(@Param("userId") Long userId, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM ledger_entries WHERE id IN "
+            + "(SELECT id FROM ledger_entries WHERE user_id = :userId AND reversal_of IS NULL LIMIT :limit)",
+            nativeQuery = true)
+    int deleteChunkByUserId(@Param("userId") Long userId, @Param("limit") int limit);
+}
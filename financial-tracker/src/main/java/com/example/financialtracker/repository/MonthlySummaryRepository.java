@@ -2,21 +2,35 @@ package com.example.financialtracker.repository;
 
 import com.example.financialtracker.model.MonthlySummary;
 import com.example.financialtracker.model.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.YearMonth;
+import java.util.Collection;
 import java.util.Optional;
 
 @Repository
 public interface MonthlySummaryRepository extends JpaRepository<MonthlySummary, Long> {
     Optional<MonthlySummary> findByMonthYear(YearMonth monthYear);
 
-    Optional<MonthlySummary> findTopByOrderByMonthYearDesc();
+    Optional<MonthlySummary> findTopByOrderByMonthStartDesc();
 
     Optional<MonthlySummary> findByMonthYearAndUser(YearMonth monthYear, User user);
 
-    Optional<MonthlySummary> findTopByUserOrderByMonthYearDesc(User user);
+    Optional<MonthlySummary> findTopByUserOrderByMonthStartDesc(User user);
 
     java.util.List<MonthlySummary> findByUser(User user);
+
+    java.util.List<MonthlySummary> findAllByUserAndMonthYearIn(User user, Collection<YearMonth> months);
+
+    Page<MonthlySummary> findAllByUserOrderByMonthStartDesc(User user, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM MonthlySummary m WHERE m.user = :user")
+    int deleteAllByUser(@Param("user") User user);
 }
\ No newline at end of file
@@ -2,7 +2,11 @@ package com.example.financialtracker.repository;
 
 import com.example.financialtracker.model.RecurringTransaction;
 import com.example.financialtracker.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
@@ -12,7 +16,13 @@ import java.util.List;
 public interface RecurringTransactionRepository extends JpaRepository<RecurringTransaction, Long> {
     List<RecurringTransaction> findAllByUser(User user);
 
+    @Modifying
+    @Query("DELETE FROM RecurringTransaction r WHERE r.user = :user")
+    int deleteAllByUser(@Param("user") User user);
+
     List<RecurringTransaction> findAllByUserAndActive(User user, boolean active);
 
+    // Users are fetched up front: each occurrence is created in its own transaction
+    @EntityGraph(attributePaths = "user")
     List<RecurringTransaction> findAllByActiveAndNextRunDateLessThanEqual(boolean active, LocalDate date);
 }
@@ -4,16 +4,56 @@ import com.example.financialtracker.model.RefreshToken;
 import com.example.financialtracker.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.Optional;
 
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
-    Optional<RefreshToken> findByToken(String token);
+
+    @Query("SELECT r FROM RefreshToken r JOIN FETCH r.user WHERE r.tokenHash = :tokenHash")
+    Optional<RefreshToken> findByTokenHash(@Param("tokenHash") String tokenHash);
+
+    /**
+     * Issues or replaces the token for one (user, device) pair in a single
+     * statement.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO refresh_tokens (user_id, device, token_hash, expiry_date) "
+            + "VALUES (:userId, :device, :tokenHash, :expiryDate) "
+            + "ON CONFLICT (user_id, device) DO UPDATE "
+            + "SET token_hash = EXCLUDED.token_hash, expiry_date = EXCLUDED.expiry_date", nativeQuery = true)
+    int upsert(@Param("userId") Long userId, @Param("device") String device, @Param("tokenHash") String tokenHash,
+            @Param("expiryDate") Instant expiryDate);
+
+    /**
+     * Swaps an unexpired token for a new one. Returns 0 when the old token was
+     * already rotated or expired, so a replayed token cannot be rotated twice.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE RefreshToken r SET r.tokenHash = :newHash, r.expiryDate = :expiryDate "
+            + "WHERE r.tokenHash = :oldHash AND r.expiryDate > :now")
+    int rotate(@Param("oldHash") String oldHash, @Param("newHash") String newHash,
+            @Param("expiryDate") Instant expiryDate, @Param("now") Instant now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshToken r WHERE r.tokenHash = :tokenHash")
+    int deleteByTokenHash(@Param("tokenHash") String tokenHash);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshToken r WHERE r.user = :user")
+    int deleteByUser(@Param("user") User user);
 
     @Modifying
     @Transactional
-    void deleteByUser(User user);
+    @Query("DELETE FROM RefreshToken r WHERE r.expiryDate < :now")
+    int deleteExpired(@Param("now") Instant now);
 }
@@ -12,24 +12,49 @@ import org.springframework.data.repository.query.Param;
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
 
-        @org.springframework.data.jpa.repository.Query("SELECT COALESCE(t.category, 'Others'), SUM(t.debit) FROM Transaction t WHERE t.user = :user AND t.debit > 0 AND t.date BETWEEN :startDate AND :endDate GROUP BY COALESCE(t.category, 'Others')")
-        List<Object[]> findExpensesByCategory(@Param("user") User user,
+        // Credits, debits and row counts per day and category, for summarizing finalized months in one pass
+        @org.springframework.data.jpa.repository.Query("SELECT t.date, COALESCE(t.category, 'Others'), SUM(t.credit), SUM(t.debit), COUNT(t) FROM Transaction t WHERE t.user = :user AND t.date BETWEEN :startDate AND :endDate GROUP BY t.date, COALESCE(t.category, 'Others') ORDER BY t.date ASC")
+        List<Object[]> findDailyTotalsByCategory(@Param("user") User user,
                         @Param("startDate") java.time.LocalDate startDate,
                         @Param("endDate") java.time.LocalDate endDate);
 
-        @org.springframework.data.jpa.repository.Query("SELECT t.date, SUM(t.debit) FROM Transaction t WHERE t.user = :user AND t.debit > 0 AND t.date BETWEEN :startDate AND :endDate GROUP BY t.date ORDER BY t.date ASC")
-        List<Object[]> findDailyExpenses(@Param("user") User user, @Param("startDate") java.time.LocalDate startDate,
-                        @Param("endDate") java.time.LocalDate endDate);
-
         List<Transaction> findAllByUserOrderByDateAscIdAsc(User user);
 
         List<Transaction> findAllByUserAndFinalizedOrderByDateAscIdAsc(User user, boolean finalized);
 
         Optional<Transaction> findTopByUserAndFinalizedOrderByDateDescIdDesc(User user, boolean finalized);
 
+        Optional<Transaction> findTopByUserAndFinalizedOrderByDateAscIdAsc(User user, boolean finalized);
+
         Optional<Transaction> findByIdAndUser(Long id, User user);
 
+        /**
+         * Net amount of the open rows that sort after (date, id); the running
+         * balance of that row is the account balance minus this.
+         */
+        @org.springframework.data.jpa.repository.Query("SELECT COALESCE(SUM(COALESCE(t.credit, 0) - COALESCE(t.debit, 0)), 0) FROM Transaction t WHERE t.user = :user AND t.finalized = false AND (t.date > :date OR (t.date = :date AND t.id > :id))")
+        java.math.BigDecimal sumOpenAfter(@Param("user") User user, @Param("date") java.time.LocalDate date,
+                        @Param("id") Long id);
+
         void deleteByIdAndUser(Long id, User user);
 
         void deleteAllByUserAndFinalized(User user, boolean finalized);
+
+        @org.springframework.data.jpa.repository.Modifying
+        @org.springframework.data.jpa.repository.Query("DELETE FROM Transaction t WHERE t.user = :user")
+        int deleteAllByUser(@Param("user") User user);
+
+        // One bounded slice of a user's rows, so a large history is removed in short transactions
+        @org.springframework.data.jpa.repository.Modifying
+        @org.springframework.data.jpa.repository.Query(value = "DELETE FROM transaction WHERE user_id = :userId AND id IN "
+                        + "(SELECT id FROM transaction WHERE user_id = :userId LIMIT :limit)", nativeQuery = true)
+        int deleteChunkByUserId(@Param("userId") Long userId, @Param("limit") int limit);
+
+        /**
+         * Finalizes every open row in one statement; on PostgreSQL this moves
+         * them from the open partition into the archive.
+         */
+        @org.springframework.data.jpa.repository.Modifying(flushAutomatically = true, clearAutomatically = true)
+        @org.springframework.data.jpa.repository.Query("UPDATE Transaction t SET t.finalized = true, t.version = COALESCE(t.version, 0) + 1 WHERE t.user = :user AND t.finalized = false")
+        int archiveOpenTransactions(@Param("user") User user);
 }
\ No newline at end of file
@@ -3,6 +3,9 @@ package com.example.financialtracker.repository;
 import com.example.financialtracker.model.User;
 import com.example.financialtracker.model.UserDevice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -12,4 +15,8 @@ public interface UserDeviceRepository extends JpaRepository<UserDevice, Long> {
     Optional<UserDevice> findByUserAndDeviceHash(User user, String deviceHash);
 
     java.util.List<UserDevice> findAllByUser(User user);
+
+    @Modifying
+    @Query("DELETE FROM UserDevice d WHERE d.user = :user")
+    int deleteAllByUser(@Param("user") User user);
 }
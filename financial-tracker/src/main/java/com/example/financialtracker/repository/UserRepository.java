@@ -1,7 +1,12 @@
 package com.example.financialtracker.repository;
 
 import com.example.financialtracker.model.User;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -11,4 +16,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
 
     Optional<User> findByEmail(String email);
+
+    // SELECT ... FOR UPDATE on the user row: the per-user ledger write lock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id = :id")
+    Optional<User> findByIdForUpdate(@Param("id") Long id);
+
+    // Deletes the row without loading it first; the caller removes everything that references it
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.id = :id")
+    int deleteByIdInBulk(@Param("id") Long id);
 }
\ No newline at end of file
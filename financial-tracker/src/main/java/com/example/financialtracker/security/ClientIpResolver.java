@@ -0,0 +1,95 @@
+package com.example.financialtracker.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resolves the client address behind trusted reverse proxies.
+ *
+ * {@code X-Forwarded-For} is only honoured when the direct peer is a trusted
+ * proxy, and the chain is read right to left so a client cannot pick its own
+ * address by prepending entries.
+ */
+@Component
+public class ClientIpResolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClientIpResolver.class);
+
+    private final List<IpAddressMatcher> trustedProxies = new ArrayList<>();
+
+    public ClientIpResolver(@Value("${app.ratelimit.trusted-proxies:}") String trustedProxies) {
+        for (String entry : trustedProxies.split(",")) {
+            if (!entry.isBlank()) {
+                this.trustedProxies.add(new IpAddressMatcher(entry.trim()));
+            }
+        }
+        if (this.trustedProxies.isEmpty()) {
+            // Behind a load balancer every client would share the proxy's per-IP buckets
+            logger.warn("app.ratelimit.trusted-proxies (TRUSTED_PROXIES) is empty: X-Forwarded-For is ignored "
+                    + "and clients are rate limited by the direct peer address");
+        }
+    }
+
+    public String resolve(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        if (trustedProxies.isEmpty() || !isTrusted(remoteAddr)) {
+            return remoteAddr;
+        }
+
+        String xff = request.getHeader("X-Forwarded-For");
+        if (xff == null || xff.isEmpty()) {
+            return remoteAddr;
+        }
+
+        String[] hops = xff.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (!hop.isEmpty() && !isTrusted(hop)) {
+                return hop;
+            }
+        }
+        // Every hop is a trusted proxy; the left-most one is the closest we get to the client
+        return hops[0].trim();
+    }
+
+    private boolean isTrusted(String address) {
+        // Header values are client-controlled: never hand a host name to InetAddress,
+        // which would resolve it through DNS
+        if (!isIpLiteral(address)) {
+            return false;
+        }
+        for (IpAddressMatcher matcher : trustedProxies) {
+            try {
+                if (matcher.matches(address)) {
+                    return true;
+                }
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isIpLiteral(String address) {
+        if (address.indexOf(':') >= 0) {
+            return true;
+        }
+        int dots = 0;
+        for (int i = 0; i < address.length(); i++) {
+            char c = address.charAt(i);
+            if (c == '.') {
+                dots++;
+            } else if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return dots == 3;
+    }
+}
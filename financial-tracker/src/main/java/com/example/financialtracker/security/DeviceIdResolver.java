@@ -0,0 +1,41 @@
+package com.example.financialtracker.security;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.regex.Pattern;
+
+/**
+ * Resolves the key a refresh token is stored under for the calling device.
+ *
+ * Clients generate a random ID once per install and send it as
+ * {@code X-Device-Id} (or a {@code device_id} cookie), so two devices running
+ * the same browser keep separate sessions. Without one the User-Agent is used,
+ * which is what older clients were keyed by.
+ */
+@Component
+public class DeviceIdResolver {
+
+    public static final String HEADER = "X-Device-Id";
+    public static final String COOKIE = "device_id";
+
+    private static final Pattern VALID_ID = Pattern.compile("[A-Za-z0-9_-]{16,64}");
+
+    public String resolve(HttpServletRequest request) {
+        String deviceId = request.getHeader(HEADER);
+        if (deviceId == null && request.getCookies() != null) {
+            for (Cookie cookie : request.getCookies()) {
+                if (COOKIE.equals(cookie.getName())) {
+                    deviceId = cookie.getValue();
+                }
+            }
+        }
+        if (deviceId != null && VALID_ID.matcher(deviceId).matches()) {
+            // Prefixed so an ID can never collide with a User-Agent string
+            return "id:" + deviceId;
+        }
+        String userAgent = request.getHeader("User-Agent");
+        return userAgent != null ? userAgent : "Unknown Device";
+    }
+}
@@ -28,6 +28,9 @@ public class OAuth2LoginSuccessHandler extends SimpleUrlAuthenticationSuccessHan
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private DeviceIdResolver deviceIdResolver;
+
     @Value("${app.oauth2.redirectUri:http://localhost:5173/oauth2/callback}")
     private String oauth2RedirectUri;
 
@@ -60,7 +63,7 @@ public class OAuth2LoginSuccessHandler extends SimpleUrlAuthenticationSuccessHan
         });
 
         String token = jwtUtil.generateToken(user.getUsername());
-        String refreshToken = refreshTokenService.createRefreshToken(user.getUsername()).getToken();
+        String refreshToken = refreshTokenService.createRefreshToken(user, deviceIdResolver.resolve(request)).getToken();
 
         // Redirect back to frontend with tokens
         // Use fragment (#) instead of query (?) for better security
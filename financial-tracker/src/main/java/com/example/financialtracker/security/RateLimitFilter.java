@@ -1,7 +1,6 @@
 package com.example.financialtracker.security;
 
 import com.example.financialtracker.service.RateLimitingService;
-import io.github.bucket4j.Bucket;
 import io.github.bucket4j.ConsumptionProbe;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -9,10 +8,14 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class RateLimitFilter extends OncePerRequestFilter {
@@ -20,31 +23,40 @@ public class RateLimitFilter extends OncePerRequestFilter {
     @Autowired
     private RateLimitingService rateLimitingService;
 
+    @Autowired
+    private ClientIpResolver clientIpResolver;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
-        if (request.getRequestURI().startsWith("/api/auth")) {
-            String ip = getClientIp(request);
-            Bucket bucket = rateLimitingService.resolveBucket(ip);
-            ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
+        RateLimitPolicy policy = RateLimitPolicy.forRequest(request.getMethod(), request.getRequestURI());
+        if (policy != null && !"OPTIONS".equals(request.getMethod())) {
+            ConsumptionProbe probe = rateLimitingService.tryConsume(policy, resolveKey(policy, request));
 
             if (!probe.isConsumed()) {
+                long retryAfterSeconds = Math.max(1,
+                        TimeUnit.NANOSECONDS.toSeconds(probe.getNanosToWaitForRefill()));
                 response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
                 response.setContentType("application/json");
-                response.getWriter().write("{\"error\": \"Too many login attempts. Please try again later.\"}");
+                response.getWriter().write("{\"error\": \"" + policy.getMessage() + "\"}");
                 return;
             }
+            response.setHeader("X-RateLimit-Remaining", String.valueOf(probe.getRemainingTokens()));
         }
 
         filterChain.doFilter(request, response);
     }
 
-    private String getClientIp(HttpServletRequest request) {
-        String xff = request.getHeader("X-Forwarded-For");
-        if (xff != null && !xff.isEmpty()) {
-            return xff.split(",")[0].trim();
+    private String resolveKey(RateLimitPolicy policy, HttpServletRequest request) {
+        if (policy.isPerUser()) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.isAuthenticated()
+                    && !(authentication instanceof AnonymousAuthenticationToken)) {
+                return "user:" + authentication.getName();
+            }
         }
-        return request.getRemoteAddr();
+        return "ip:" + clientIpResolver.resolve(request);
     }
 }
@@ -0,0 +1,51 @@
+package com.example.financialtracker.security;
+
+/**
+ * Route classes with their own request budget. Auth routes are limited per
+ * client IP, with token refresh kept apart from login so that routine
+ * refreshes never use up the login budget; everything else is limited per
+ * authenticated user, falling back to the client IP for anonymous calls.
+ */
+public enum RateLimitPolicy {
+    AUTH(false, "Too many login attempts. Please try again later."),
+    REFRESH(false, "Too many session refreshes. Please try again later."),
+    EXPENSIVE(true, "Too many requests. Please try again later."),
+    API(true, "Too many requests. Please try again later.");
+
+    private final boolean perUser;
+    private final String message;
+
+    RateLimitPolicy(boolean perUser, String message) {
+        this.perUser = perUser;
+        this.message = message;
+    }
+
+    public boolean isPerUser() {
+        return perUser;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Maps a request to its policy, or {@code null} for routes that are not
+     * limited. Only prefix checks, so it stays cheap on every request.
+     */
+    public static RateLimitPolicy forRequest(String method, String uri) {
+        if (!uri.startsWith("/api/")) {
+            return null;
+        }
+        if (uri.startsWith("/api/auth/refresh")) {
+            return REFRESH;
+        }
+        if (uri.startsWith("/api/auth")) {
+            return AUTH;
+        }
+        if (uri.startsWith("/api/advisor") || uri.startsWith("/api/reports")
+                || ("POST".equals(method) && uri.startsWith("/api/transactions/finalize-month"))) {
+            return EXPENSIVE;
+        }
+        return API;
+    }
+}
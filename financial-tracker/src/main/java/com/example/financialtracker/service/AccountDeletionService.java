@@ -0,0 +1,244 @@
+package com.example.financialtracker.service;
+
+import com.example.financialtracker.config.BatchWorkload;
+import com.example.financialtracker.config.WorkloadRoutingDataSource;
+import com.example.financialtracker.model.AccountDeletionJob;
+import com.example.financialtracker.model.User;
+import com.example.financialtracker.repository.AccountDeletionJobRepository;
+import com.example.financialtracker.repository.AccountHeadRepository;
+import com.example.financialtracker.repository.BalanceCheckpointRepository;
+import com.example.financialtracker.repository.BudgetRepository;
+import com.example.financialtracker.repository.FinalizationLogRepository;
+import com.example.financialtracker.repository.FinalizedMonthReportRepository;
+import com.example.financialtracker.repository.LedgerEntryRepository;
+import com.example.financialtracker.repository.MonthlySummaryRepository;
+import com.example.financialtracker.repository.RecurringTransactionRepository;
+import com.example.financialtracker.repository.RefreshTokenRepository;
+import com.example.financialtracker.repository.TransactionRepository;
+import com.example.financialtracker.repository.UserDeviceRepository;
+import com.example.financialtracker.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+
+/**
+ * Removes an account and everything that belongs to it with set-based
+ * {@code DELETE ... WHERE user_id = ?} statements, so the statement count does
+ * not depend on how much history the user has. The two tables that grow with
+ * history (transactions and the ledger journal) are deleted in chunks, each in
+ * its own short transaction, also when the caller has one open; the user row
+ * goes last, so a run that fails halfway can simply be started again.
+ *
+ * Deletions can also run as a background job whose status is polled by id.
+ * Jobs run one at a time on the batch pool of the instance that accepted them;
+ * their status is kept in the database, so any instance can answer a poll.
+ */
+@Service
+public class AccountDeletionService {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountDeletionService.class);
+
+    private final UserRepository userRepository;
+    private final TransactionRepository transactionRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final AccountHeadRepository accountHeadRepository;
+    private final BalanceCheckpointRepository balanceCheckpointRepository;
+    private final RecurringTransactionRepository recurringTransactionRepository;
+    private final BudgetRepository budgetRepository;
+    private final MonthlySummaryRepository monthlySummaryRepository;
+    private final FinalizationLogRepository finalizationLogRepository;
+    private final FinalizedMonthReportRepository finalizedMonthReportRepository;
+    private final UserDeviceRepository userDeviceRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final LedgerSnapshotService ledgerSnapshotService;
+    private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final long statusRetentionMillis;
+    private final ThreadPoolExecutor executor;
+    private final AccountDeletionJobRepository jobRepository;
+
+    public AccountDeletionService(UserRepository userRepository, TransactionRepository transactionRepository,
+            LedgerEntryRepository ledgerEntryRepository, AccountHeadRepository accountHeadRepository,
+            BalanceCheckpointRepository balanceCheckpointRepository,
+            RecurringTransactionRepository recurringTransactionRepository, BudgetRepository budgetRepository,
+            MonthlySummaryRepository monthlySummaryRepository, FinalizationLogRepository finalizationLogRepository,
+            FinalizedMonthReportRepository finalizedMonthReportRepository,
+            UserDeviceRepository userDeviceRepository, RefreshTokenRepository refreshTokenRepository,
+            AccountDeletionJobRepository jobRepository, LedgerSnapshotService ledgerSnapshotService, EmailService emailService,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.account-deletion.chunk-size:5000}") int chunkSize,
+            @Value("${app.account-deletion.status-retention-minutes:60}") long statusRetentionMinutes,
+            @Value("${app.account-deletion.max-queued:20}") int maxQueued) {
+        this.userRepository = userRepository;
+        this.transactionRepository = transactionRepository;
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.accountHeadRepository = accountHeadRepository;
+        this.balanceCheckpointRepository = balanceCheckpointRepository;
+        this.recurringTransactionRepository = recurringTransactionRepository;
+        this.budgetRepository = budgetRepository;
+        this.monthlySummaryRepository = monthlySummaryRepository;
+        this.finalizationLogRepository = finalizationLogRepository;
+        this.finalizedMonthReportRepository = finalizedMonthReportRepository;
+        this.userDeviceRepository = userDeviceRepository;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.jobRepository = jobRepository;
+        this.ledgerSnapshotService = ledgerSnapshotService;
+        this.emailService = emailService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Never join a caller's transaction, which would turn the chunks back into one
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.chunkSize = chunkSize;
+        this.statusRetentionMillis = TimeUnit.MINUTES.toMillis(statusRetentionMinutes);
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxQueued), runnable -> {
+                    Thread thread = new Thread(runnable, "account-deletion");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Deletes the account now, on the calling thread. Returns the number of rows
+     * removed.
+     */
+    @BatchWorkload
+    public long deleteAccount(User user) {
+        return deleteAccount(user, new AtomicLong(), () -> {
+        });
+    }
+
+    private long deleteAccount(User user, AtomicLong rowsDeleted, Runnable afterEachStep) {
+        Long userId = user.getId();
+
+        // Sessions first, so the account cannot keep writing while it is removed
+        inTransaction(rowsDeleted, afterEachStep, () -> refreshTokenRepository.deleteByUser(user)
+                + userDeviceRepository.deleteAllByUser(user)
+                + recurringTransactionRepository.deleteAllByUser(user)
+                + budgetRepository.deleteAllByUser(user)
+                + monthlySummaryRepository.deleteAllByUser(user)
+                + finalizationLogRepository.deleteAllByUser(user)
+                + finalizedMonthReportRepository.deleteAllByUser(user)
+                + balanceCheckpointRepository.deleteAllByUser(user));
+
+        // Reversals first: nothing references them, and once they are gone nothing references the rest
+        deleteInChunks(rowsDeleted, afterEachStep,
+                () -> ledgerEntryRepository.deleteReversalChunkByUserId(userId, chunkSize));
+        deleteInChunks(rowsDeleted, afterEachStep,
+                () -> ledgerEntryRepository.deleteChunkByUserId(userId, chunkSize));
+        deleteInChunks(rowsDeleted, afterEachStep,
+                () -> transactionRepository.deleteChunkByUserId(userId, chunkSize));
+
+        // Anything written since the chunks ran goes with the account head and the user row
+        inTransaction(rowsDeleted, afterEachStep, () -> ledgerEntryRepository.deleteAllByUser(user)
+                + transactionRepository.deleteAllByUser(user)
+                + accountHeadRepository.deleteByUserId(userId)
+                + userRepository.deleteByIdInBulk(userId));
+
+        ledgerSnapshotService.invalidate(user);
+        log.info("Deleted account {} ({} rows)", userId, rowsDeleted.get());
+        return rowsDeleted.get();
+    }
+
+    private void deleteInChunks(AtomicLong rowsDeleted, Runnable afterEachStep, IntSupplier chunk) {
+        int deleted;
+        do {
+            deleted = inTransaction(rowsDeleted, afterEachStep, chunk);
+        } while (deleted >= chunkSize);
+    }
+
+    private int inTransaction(AtomicLong rowsDeleted, Runnable afterEachStep, IntSupplier statements) {
+        Integer deleted = transactionTemplate.execute(status -> statements.getAsInt());
+        int count = deleted != null ? deleted : 0;
+        rowsDeleted.addAndGet(count);
+        afterEachStep.run();
+        return count;
+    }
+
+    /**
+     * Queues the deletion and returns its job for status polling. The farewell
+     * email is sent once the job has finished.
+     */
+    public AccountDeletionJob start(User user) {
+        purgeFinishedJobs();
+        AccountDeletionJob job = new AccountDeletionJob();
+        job.setId(UUID.randomUUID().toString());
+        job.setSubmittedAt(Instant.now());
+        jobRepository.save(job);
+        try {
+            executor.execute(() -> run(job.getId(), user));
+        } catch (RejectedExecutionException e) {
+            jobRepository.deleteById(job.getId());
+            throw new RuntimeException("Too many account deletions in progress, please try again later");
+        }
+        return job;
+    }
+
+    private void run(String jobId, User user) {
+        AtomicLong rowsDeleted = new AtomicLong();
+        // Called on the job thread, not through the proxy, so switch pools here
+        WorkloadRoutingDataSource.Workload previous = WorkloadRoutingDataSource
+                .enter(WorkloadRoutingDataSource.Workload.BATCH);
+        try {
+            updateJob(jobId, job -> job.setState(AccountDeletionJob.State.RUNNING));
+            deleteAccount(user, rowsDeleted,
+                    () -> updateJob(jobId, job -> job.setRowsDeleted(rowsDeleted.get())));
+            updateJob(jobId, job -> finish(job, AccountDeletionJob.State.COMPLETED, rowsDeleted.get(), null));
+        } catch (Exception e) {
+            log.error("Account deletion {} for user {} failed: {}", jobId, user.getId(), e.getMessage(), e);
+            // Status is polled without authentication, so no exception text goes in it
+            updateJob(jobId, job -> finish(job, AccountDeletionJob.State.FAILED, rowsDeleted.get(),
+                    AccountDeletionJob.FAILED_MESSAGE));
+            return;
+        } finally {
+            WorkloadRoutingDataSource.restore(previous);
+        }
+        try {
+            emailService.sendSimpleMessage(user.getEmail(), "FinanceFlow: Account Deleted",
+                    "Hello " + user.getUsername()
+                            + ",\n\nYour account and all associated data have been permanently deleted as requested. We're sorry to see you go!");
+        } catch (Exception e) {
+            log.warn("Failed to send deletion email for user {}: {}", user.getId(), e.getMessage());
+        }
+    }
+
+    private static void finish(AccountDeletionJob job, AccountDeletionJob.State state, long rowsDeleted,
+            String error) {
+        job.setState(state);
+        job.setRowsDeleted(rowsDeleted);
+        job.setError(error);
+        job.setFinishedAt(Instant.now());
+    }
+
+    private void updateJob(String jobId, Consumer<AccountDeletionJob> change) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> jobRepository.findById(jobId).ifPresent(change));
+        } catch (Exception e) {
+            log.warn("Failed to record status of account deletion {}: {}", jobId, e.getMessage());
+        }
+    }
+
+    public Optional<AccountDeletionJob> getJob(String id) {
+        return jobRepository.findById(id);
+    }
+
+    private void purgeFinishedJobs() {
+        Instant cutoff = Instant.now().minusMillis(statusRetentionMillis);
+        transactionTemplate.executeWithoutResult(status -> jobRepository.deleteFinishedBefore(cutoff));
+    }
+}
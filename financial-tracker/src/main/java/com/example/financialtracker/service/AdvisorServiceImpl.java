@@ -1,15 +1,18 @@
 package com.example.financialtracker.service;
 
 import com.example.financialtracker.model.RecurringTransaction;
-import com.example.financialtracker.model.Transaction;
 import com.example.financialtracker.model.User;
 import com.example.financialtracker.payload.AdvisorInsightsResponse;
 import com.example.financialtracker.repository.RecurringTransactionRepository;
-import com.example.financialtracker.repository.TransactionRepository;
+import com.example.financialtracker.util.Money;
 import org.apache.commons.math3.stat.regression.SimpleRegression;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -17,39 +20,55 @@ import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
-public class AdvisorServiceImpl implements AdvisorService {
+@Order(3)
+public class AdvisorServiceImpl implements AdvisorService, DomainEventListener {
 
     @Autowired
-    private TransactionRepository transactionRepository;
+    private LedgerSnapshotService ledgerSnapshotService;
 
     @Autowired
     private RecurringTransactionRepository recurringTransactionRepository;
 
+    @Autowired
+    private CacheManager cacheManager;
+
     @Override
     @Cacheable(value = "reports", key = "#user.username + '-advisor'")
+    @Transactional(readOnly = true)
     public AdvisorInsightsResponse getInsights(User user) {
-        List<Transaction> transactions = transactionRepository.findAllByUserOrderByDateAscIdAsc(user);
+        LedgerSnapshot ledger = ledgerSnapshotService.getSnapshot(user);
 
         // 1. Calculate Forecast
-        List<AdvisorInsightsResponse.ForecastDataPoint> forecast = calculateForecast(user, transactions);
+        List<AdvisorInsightsResponse.ForecastDataPoint> forecast = calculateForecast(user, ledger);
 
         // 2. Anomaly Detection & Advice
-        List<String> advice = generateAdvice(user, transactions);
+        List<String> advice = generateAdvice(ledger);
 
         // 3. Stats
-        AdvisorInsightsResponse.SummaryStats stats = calculateStats(forecast, transactions);
+        AdvisorInsightsResponse.SummaryStats stats = calculateStats(forecast, ledger);
 
         return new AdvisorInsightsResponse(forecast, advice, stats);
     }
 
-    private List<AdvisorInsightsResponse.ForecastDataPoint> calculateForecast(User user,
-            List<Transaction> transactions) {
+    @Override
+    public String consumerName() {
+        return "advisor";
+    }
+
+    // The forecast and advice are recomputed from the patched snapshot on the next request
+    @Override
+    public void onEvent(DomainEvent event) {
+        Cache cache = cacheManager.getCache("reports");
+        if (cache != null && event.changesLedger()) {
+            cache.evict(event.user().getUsername() + "-advisor");
+        }
+    }
+
+    private List<AdvisorInsightsResponse.ForecastDataPoint> calculateForecast(User user, LedgerSnapshot ledger) {
         List<AdvisorInsightsResponse.ForecastDataPoint> result = new ArrayList<>();
-        if (transactions.isEmpty())
+        if (ledger.isEmpty())
             return result;
 
         LocalDate today = LocalDate.now();
@@ -57,20 +76,19 @@ public class AdvisorServiceImpl implements AdvisorService {
         // Use historical data for the regression (last 60 days)
         SimpleRegression regression = new SimpleRegression();
         LocalDate sixtyDaysAgo = today.minusDays(60);
+        int sixtyDaysAgoDay = (int) sixtyDaysAgo.toEpochDay();
 
-        for (Transaction t : transactions) {
-            if (t.getDate().isAfter(sixtyDaysAgo) && t.getBalance() != null) {
-                regression.addData(ChronoUnit.DAYS.between(sixtyDaysAgo, t.getDate()), t.getBalance().doubleValue());
-            }
+        for (int i = ledger.lowerBound(sixtyDaysAgoDay + 1); i < ledger.size(); i++) {
+            regression.addData(ledger.epochDay(i) - sixtyDaysAgoDay, ledger.balance(i) / 100.0);
         }
 
         // Project next 30 days
-        BigDecimal lastBalance = transactions.get(transactions.size() - 1).getBalance();
+        double lastBalance = ledger.lastBalance() / 100.0;
 
         // Add last 5 days of history for context in the chart
         for (int i = 5; i >= 0; i--) {
             LocalDate d = today.minusDays(i);
-            BigDecimal b = findBalanceOnDate(transactions, d);
+            BigDecimal b = Money.fromMinorUnits(ledger.balanceOn((int) d.toEpochDay()));
             result.add(new AdvisorInsightsResponse.ForecastDataPoint(d.toString(), b, false));
         }
 
@@ -83,7 +101,7 @@ public class AdvisorServiceImpl implements AdvisorService {
 
             double predictedValue = regression.predict(daysFromStart);
             if (Double.isNaN(predictedValue))
-                predictedValue = lastBalance.doubleValue();
+                predictedValue = lastBalance;
 
             // Recurring transaction logic removed as per PR feedback (dead code)
             BigDecimal adjustedValue = new BigDecimal(predictedValue);
@@ -97,38 +115,36 @@ public class AdvisorServiceImpl implements AdvisorService {
         return result;
     }
 
-    private List<String> generateAdvice(User user, List<Transaction> transactions) {
+    private List<String> generateAdvice(LedgerSnapshot ledger) {
         List<String> advice = new ArrayList<>();
         LocalDate today = LocalDate.now();
         LocalDate startOfMonth = today.withDayOfMonth(1);
-
-        // Category Analysis
-        Map<String, BigDecimal> currentMonthSpending = transactions.stream()
-                .filter(t -> !t.getDate().isBefore(startOfMonth) && t.getDebit() != null)
-                .collect(Collectors.groupingBy(
-                        t -> t.getCategory() != null ? t.getCategory() : "Others",
-                        Collectors.reducing(BigDecimal.ZERO, Transaction::getDebit, BigDecimal::add)));
+        int startOfMonthDay = (int) startOfMonth.toEpochDay();
 
         // 3-Month Average (Simple version)
         LocalDate threeMonthsAgo = today.minusMonths(3).withDayOfMonth(1);
-        Map<String, BigDecimal> historicSpending = transactions.stream()
-                .filter(t -> t.getDate().isAfter(threeMonthsAgo) && t.getDate().isBefore(startOfMonth)
-                        && t.getDebit() != null)
-                .collect(Collectors.groupingBy(
-                        t -> t.getCategory() != null ? t.getCategory() : "Others",
-                        Collectors.reducing(BigDecimal.ZERO, Transaction::getDebit, BigDecimal::add)));
-
-        for (Map.Entry<String, BigDecimal> entry : currentMonthSpending.entrySet()) {
-            String category = entry.getKey();
-            BigDecimal current = entry.getValue();
-            BigDecimal historicAvg = historicSpending.getOrDefault(category, BigDecimal.ZERO)
-                    .divide(new BigDecimal("3"), 2, RoundingMode.HALF_UP);
-
-            if (historicAvg.compareTo(BigDecimal.ZERO) > 0) {
-                if (current.compareTo(historicAvg.multiply(new BigDecimal("1.3"))) > 0) {
+
+        // Category Analysis: two range scans, indexed by category id
+        long[] currentMonthSpending = ledger.debitsByCategory(startOfMonthDay, Integer.MAX_VALUE);
+        boolean[] debitedThisMonth = ledger.categoriesWithDebits(startOfMonthDay, Integer.MAX_VALUE);
+        long[] historicSpending = ledger.debitsByCategory((int) threeMonthsAgo.toEpochDay() + 1,
+                startOfMonthDay - 1);
+
+        // Every category with a debit row this month, zero amounts included
+        for (int c = 0; c < currentMonthSpending.length; c++) {
+            if (!debitedThisMonth[c]) {
+                continue;
+            }
+            long current = currentMonthSpending[c];
+            String category = ledger.category(c);
+            long historicAvg = Money.divideHalfUp(historicSpending[c], 3);
+
+            if (historicAvg > 0) {
+                // current > avg * 1.3 and current < avg * 0.7, kept in integer arithmetic
+                if (Money.compareScaled(current, 10, historicAvg, 13) > 0) {
                     advice.add("Warning: Your '" + category
                             + "' spending is significantly higher than your average. Consider slowing down!");
-                } else if (current.compareTo(historicAvg.multiply(new BigDecimal("0.7"))) < 0) {
+                } else if (Money.compareScaled(current, 10, historicAvg, 7) < 0) {
                     advice.add("Great job! You've saved quite a bit on '" + category + "' this month.");
                 }
             }
@@ -142,35 +158,26 @@ public class AdvisorServiceImpl implements AdvisorService {
     }
 
     private AdvisorInsightsResponse.SummaryStats calculateStats(
-            List<AdvisorInsightsResponse.ForecastDataPoint> forecast, List<Transaction> transactions) {
+            List<AdvisorInsightsResponse.ForecastDataPoint> forecast, LedgerSnapshot ledger) {
         BigDecimal endBalance = forecast.isEmpty() ? BigDecimal.ZERO : forecast.get(forecast.size() - 1).getBalance();
 
         // Calculate average daily spending in the last 30 days
-        LocalDate thirtyDaysAgo = LocalDate.now().minusDays(30);
-        BigDecimal totalSpent = transactions.stream()
-                .filter(t -> t.getDate().isAfter(thirtyDaysAgo) && t.getDebit() != null)
-                .map(Transaction::getDebit)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        int thirtyDaysAgo = (int) LocalDate.now().minusDays(30).toEpochDay();
+        long totalSpent = ledger.sumDebits(thirtyDaysAgo + 1, Integer.MAX_VALUE);
 
-        BigDecimal avgDaily = totalSpent.divide(new BigDecimal("30"), 2, RoundingMode.HALF_UP);
+        BigDecimal avgDaily = Money.fromMinorUnits(Money.divideHalfUp(totalSpent, 30));
 
         String trend = "STABLE";
         if (!forecast.isEmpty()) {
-            BigDecimal start = forecast.get(0).getBalance();
-            if (endBalance.compareTo(start.multiply(new BigDecimal("1.05"))) > 0)
+            long start = Money.toMinorUnits(forecast.get(0).getBalance());
+            long end = Money.toMinorUnits(endBalance);
+            // end > start * 1.05 and end < start * 0.95
+            if (Money.compareScaled(end, 100, start, 105) > 0)
                 trend = "UP";
-            else if (endBalance.compareTo(start.multiply(new BigDecimal("0.95"))) < 0)
+            else if (Money.compareScaled(end, 100, start, 95) < 0)
                 trend = "DOWN";
         }
 
         return new AdvisorInsightsResponse.SummaryStats(endBalance, avgDaily, trend);
     }
-
-    private BigDecimal findBalanceOnDate(List<Transaction> transactions, LocalDate date) {
-        return transactions.stream()
-                .filter(t -> !t.getDate().isAfter(date))
-                .reduce((first, second) -> second) // Get last transaction on or before date
-                .map(Transaction::getBalance)
-                .orElse(BigDecimal.ZERO);
-    }
 }
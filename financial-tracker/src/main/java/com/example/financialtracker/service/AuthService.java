@@ -144,7 +144,8 @@ public class AuthService {
     private com.example.financialtracker.repository.UserDeviceRepository userDeviceRepository;
 
     @Transactional
-    public AuthResponse authenticateUser(AuthRequest authRequest, String deviceDetails, String ipAddress) {
+    public AuthResponse authenticateUser(AuthRequest authRequest, String deviceDetails, String deviceId,
+            String ipAddress) {
         String loginIdentifier = authRequest.getUsername(); // This could be username or email
 
         // 1. User lookup outside the try-catch for authentication
@@ -209,7 +210,7 @@ public class AuthService {
         String jwt = jwtUtil.generateToken(user.getUsername());
 
         // 5. Create Refresh Token
-        String refreshToken = refreshTokenService.createRefreshToken(user.getUsername()).getToken();
+        String refreshToken = refreshTokenService.createRefreshToken(user, deviceId).getToken();
 
         // 6. Device Tracking & Alerting
         try {
@@ -260,7 +261,8 @@ public class AuthService {
         }
     }
 
-    @Transactional
+    // Not transactional: AccountDeletionService commits each chunk on its own,
+    // and an outer transaction would only hold a connection while it runs
     public void deleteAccount(String username, String code, String password) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -1,5 +1,6 @@
 package com.example.financialtracker.service;
 
+import com.example.financialtracker.config.BatchWorkload;
 import com.example.financialtracker.model.SystemStatus;
 import com.example.financialtracker.model.FinalizationLog;
 import com.example.financialtracker.repository.SystemStatusRepository;
@@ -33,6 +34,7 @@ public class AutoFinalizationService {
 
     @Scheduled(cron = "0 0 0 * * ?") // Run at midnight every day
     @Transactional
+    @BatchWorkload
     public void checkAndFinalizeMonth() {
         SystemStatus status = getOrCreateSystemStatus();
         LocalDateTime now = LocalDateTime.now();
@@ -3,28 +3,34 @@ package com.example.financialtracker.service;
 import com.example.financialtracker.model.Budget;
 import com.example.financialtracker.model.User;
 import com.example.financialtracker.repository.BudgetRepository;
-import com.example.financialtracker.repository.TransactionRepository;
+import com.example.financialtracker.util.Money;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
-public class BudgetServiceImpl implements BudgetService {
+@Order(5)
+public class BudgetServiceImpl implements BudgetService, DomainEventListener {
 
     private final BudgetRepository budgetRepository;
-    private final TransactionRepository transactionRepository;
     private final EmailService emailService;
+    private final LedgerSnapshotService ledgerSnapshotService;
+    private final LiveUpdateService liveUpdateService;
+    private final DomainEventBus domainEventBus;
 
-    public BudgetServiceImpl(BudgetRepository budgetRepository, TransactionRepository transactionRepository,
-            EmailService emailService) {
+    public BudgetServiceImpl(BudgetRepository budgetRepository, EmailService emailService,
+            LedgerSnapshotService ledgerSnapshotService, LiveUpdateService liveUpdateService,
+            DomainEventBus domainEventBus) {
         this.budgetRepository = budgetRepository;
-        this.transactionRepository = transactionRepository;
         this.emailService = emailService;
+        this.ledgerSnapshotService = ledgerSnapshotService;
+        this.liveUpdateService = liveUpdateService;
+        this.domainEventBus = domainEventBus;
     }
 
     @Override
@@ -39,39 +45,37 @@ public class BudgetServiceImpl implements BudgetService {
         budget.setMonth(month);
         budget.setYear(year);
 
-        return budgetRepository.save(budget);
+        Budget saved = budgetRepository.save(budget);
+        LocalDate startDate = LocalDate.of(year, month, 1);
+        long actualMinor = ledgerSnapshotService.getSnapshot(user)
+                .debitsByCategory(startDate, startDate.plusMonths(1).minusDays(1))
+                .getOrDefault(category, 0L);
+        publishBudget(user, saved, actualMinor);
+        domainEventBus.publishAfterCommit(new DomainEvent.BudgetChanged(user, saved.getId()));
+        return saved;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Map<String, Object>> getBudgetStatus(User user, Integer month, Integer year) {
         List<Budget> budgets = budgetRepository.findAllByUserAndMonthAndYear(user, month, year);
 
-        // Use repo method for monthly summary or aggregate here
-        // For simplicity and since we have findExpensesByCategory in
-        // TransactionRepository,
-        // we'll need to fetch the total for each budgeted category.
-
+        // Month totals per category come from the user's ledger snapshot
         LocalDate startDate = LocalDate.of(year, month, 1);
         LocalDate endDate = startDate.plusMonths(1).minusDays(1);
 
-        List<Object[]> expenseData = transactionRepository.findExpensesByCategory(user, startDate, endDate);
-        Map<String, BigDecimal> categoryExpenses = expenseData.stream()
-                .collect(Collectors.toMap(
-                        row -> (String) row[0],
-                        row -> (BigDecimal) row[1],
-                        BigDecimal::add));
+        Map<String, Long> categoryExpenses = ledgerSnapshotService.getSnapshot(user)
+                .debitsByCategory(startDate, endDate);
 
         return budgets.stream().map(b -> {
             Map<String, Object> status = new HashMap<>();
-            BigDecimal actualSpent = categoryExpenses.getOrDefault(b.getCategory(), BigDecimal.ZERO);
+            long actualMinor = categoryExpenses.getOrDefault(b.getCategory(), 0L);
+            BigDecimal actualSpent = actualMinor != 0 ? Money.fromMinorUnits(actualMinor) : BigDecimal.ZERO;
             status.put("category", b.getCategory());
             status.put("budgeted", b.getAmount());
             status.put("actual", actualSpent);
 
-            BigDecimal percent = b.getAmount().compareTo(BigDecimal.ZERO) > 0
-                    ? actualSpent.multiply(new BigDecimal("100")).divide(b.getAmount(), 2, RoundingMode.HALF_UP)
-                    : BigDecimal.ZERO;
-            status.put("percent", percent);
+            status.put("percent", percent(actualMinor, b.getAmount()));
 
             return status;
         }).collect(Collectors.toList());
@@ -82,16 +86,17 @@ public class BudgetServiceImpl implements BudgetService {
         LocalDate now = LocalDate.now();
         budgetRepository.findByUserAndCategoryAndMonthAndYear(user, category, now.getMonthValue(), now.getYear())
                 .ifPresent(budget -> {
-                    // Check if new transaction puts them over
+                    // Check if new transaction puts them over. This runs after commit, once
+                    // the snapshot consumer has patched the new row into the user's snapshot
                     LocalDate startDate = now.withDayOfMonth(1);
                     LocalDate endDate = now.withDayOfMonth(now.lengthOfMonth());
 
-                    List<Object[]> expenseData = transactionRepository.findExpensesByCategory(user, startDate, endDate);
-                    BigDecimal currentSpent = expenseData.stream()
-                            .filter(row -> row[0].equals(category))
-                            .map(row -> (BigDecimal) row[1])
-                            .findFirst()
-                            .orElse(BigDecimal.ZERO);
+                    long spentMinor = ledgerSnapshotService.getSnapshot(user).debitsByCategory(startDate, endDate)
+                            .getOrDefault(category, 0L);
+                    BigDecimal currentSpent = Money.fromMinorUnits(spentMinor);
+
+                    // Pushed to the user's live streams
+                    publishBudget(user, budget, spentMinor);
 
                     if (currentSpent.compareTo(budget.getAmount()) > 0) {
                         emailService.sendBudgetExceededAlert(
@@ -102,4 +107,43 @@ public class BudgetServiceImpl implements BudgetService {
                     }
                 });
     }
+
+    @Override
+    public String consumerName() {
+        return "budgets";
+    }
+
+    // Read-write so the queries go to the primary, which has the committed expense
+    @Override
+    @Transactional
+    public void onEvent(DomainEvent event) {
+        // Only a new expense can push a category over its budget
+        if (event instanceof DomainEvent.TransactionCreated created) {
+            DomainEvent.TransactionSnapshot transaction = created.transaction();
+            if (transaction.debit() != null && transaction.debit().compareTo(BigDecimal.ZERO) > 0) {
+                String category = transaction.category() != null ? transaction.category() : "Others";
+                checkBudgetAlert(event.user(), category, transaction.debit());
+            }
+        }
+    }
+
+    // Percent in hundredths: (actual * 100 / budget) at scale 2 == actualMinor * 10000 / budgetMinor
+    private static BigDecimal percent(long actualMinor, BigDecimal budgeted) {
+        long budgetedMinor = Money.toMinorUnits(budgeted);
+        return budgetedMinor > 0
+                ? Money.fromMinorUnits(Money.divideHalfUp(Math.multiplyExact(actualMinor, 10_000L), budgetedMinor))
+                : BigDecimal.ZERO;
+    }
+
+    private void publishBudget(User user, Budget budget, long actualMinor) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("category", budget.getCategory());
+        data.put("month", budget.getMonth());
+        data.put("year", budget.getYear());
+        data.put("budgeted", budget.getAmount());
+        data.put("actual", Money.fromMinorUnits(actualMinor));
+        data.put("percent", percent(actualMinor, budget.getAmount()));
+        liveUpdateService.publishAfterCommit(user, "budget",
+                "budget:" + budget.getCategory() + ":" + budget.getYear() + "-" + budget.getMonth(), data);
+    }
 }
@@ -1,6 +1,10 @@
 package com.example.financialtracker.service;
 
+import com.example.financialtracker.util.Money;
+
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
 
 public interface CurrencyService {
@@ -9,4 +13,22 @@ public interface CurrencyService {
     Map<String, String> getSupportedCurrencies();
 
     BigDecimal convert(BigDecimal amount, String from, String to);
+
+    /**
+     * Rate and conversion as of {@code date}: that day's rate for a past
+     * date, the latest for today, a future date or null.
+     */
+    BigDecimal getExchangeRate(String from, String to, LocalDate date);
+
+    BigDecimal convert(BigDecimal amount, String from, String to, LocalDate date);
+
+    /**
+     * Converts every amount to {@code to}, in order, rounding each exactly as
+     * {@link #convert} does. Rates are resolved once per distinct currency and
+     * at most one remote request is made for the whole list.
+     */
+    List<Money> convertAll(List<Money> amounts, String to);
+
+    /** {@link #convertAll(List, String)} at the rates of {@code date}. */
+    List<Money> convertAll(List<Money> amounts, String to, LocalDate date);
 }
@@ -1,7 +1,9 @@
 package com.example.financialtracker.service;
 
+import com.example.financialtracker.util.Money;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
@@ -11,63 +13,67 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.math.BigDecimal;
+import java.math.MathContext;
 import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class CurrencyServiceImpl implements CurrencyService {
 
     private static final Logger logger = LoggerFactory.getLogger(CurrencyServiceImpl.class);
 
+    // XAF (FCFA) is pegged to EUR (1 EUR = 655.957 XAF)
+    private static final BigDecimal EUR_TO_XAF = new BigDecimal("655.957");
+
     @Value("${app.currency.api-url:https://api.frankfurter.app}")
     private String apiUrl;
 
     private final RestTemplate restTemplate;
 
+    // Units of each currency per 1 EUR. The provider quotes everything against
+    // EUR, so one table gives every cross rate and a batch needs at most one
+    // request for the currencies it has not seen yet.
+    private final Cache<String, BigDecimal> eurRates;
+
+    // Past dates convert at that day's rate
+    private final ExchangeRateHistory history;
+
     @Autowired
-    public CurrencyServiceImpl(RestTemplate restTemplate) {
+    public CurrencyServiceImpl(RestTemplate restTemplate, ExchangeRateHistory history,
+            @Value("${app.currency.rates-ttl-minutes:10}") long ratesTtlMinutes) {
         this.restTemplate = restTemplate;
+        this.history = history;
+        this.eurRates = Caffeine.newBuilder()
+                .expireAfterWrite(ratesTtlMinutes, TimeUnit.MINUTES)
+                .maximumSize(500)
+                .build();
     }
 
     @Override
-    @Cacheable(value = "rates", key = "#from + '-' + #to")
     public BigDecimal getExchangeRate(String from, String to) {
         if (from.equals(to)) {
             return BigDecimal.ONE;
         }
+        Map<String, BigDecimal> rates = eurRates(Set.of(from, to));
+        return crossRate(rates, from, to);
+    }
 
-        // Handle XAF (FCFA) which is pegged to EUR (1 EUR = 655.957 XAF)
-        if ("XAF".equals(from)) {
-            // XAF -> TO = (XAF -> EUR) * (EUR -> TO)
-            // XAF -> EUR = 1 / 655.957
-            BigDecimal xafToEur = BigDecimal.ONE.divide(BigDecimal.valueOf(655.957), 10, RoundingMode.HALF_UP);
-            if ("EUR".equals(to))
-                return xafToEur;
-            return xafToEur.multiply(getExchangeRate("EUR", to));
-        }
-
-        if ("XAF".equals(to)) {
-            // FROM -> XAF = (FROM -> EUR) * (EUR -> XAF)
-            BigDecimal eurToXaf = BigDecimal.valueOf(655.957);
-            if ("EUR".equals(from))
-                return eurToXaf;
-            return getExchangeRate(from, "EUR").multiply(eurToXaf);
-        }
-
-        String url = String.format("%s/latest?from=%s&to=%s", apiUrl, from, to);
-        try {
-            JsonNode response = restTemplate.getForObject(url, JsonNode.class);
-            if (response != null && response.has("rates")) {
-                // Use new BigDecimal(String) to avoid precision loss from double
-                return new BigDecimal(response.get("rates").get(to).asText());
-            }
-        } catch (Exception e) {
-            logger.error("Error fetching exchange rate from {} to {}: {}", from, to, e.getMessage());
+    @Override
+    public BigDecimal getExchangeRate(String from, String to, LocalDate date) {
+        if (from.equals(to)) {
+            return BigDecimal.ONE;
         }
-        throw new RuntimeException("Unable to fetch exchange rate for " + from + " to " + to);
+        return crossRate(eurRates(Set.of(from, to), date), from, to);
     }
 
     @Override
@@ -108,4 +114,133 @@ public class CurrencyServiceImpl implements CurrencyService {
         BigDecimal rate = getExchangeRate(from, to);
         return amount.multiply(rate).setScale(2, RoundingMode.HALF_UP);
     }
+
+    @Override
+    public BigDecimal convert(BigDecimal amount, String from, String to, LocalDate date) {
+        if (amount == null)
+            return BigDecimal.ZERO;
+        BigDecimal rate = getExchangeRate(from, to, date);
+        return amount.multiply(rate).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    @Override
+    public List<Money> convertAll(List<Money> amounts, String to) {
+        return convertAll(amounts, to, null);
+    }
+
+    @Override
+    public List<Money> convertAll(List<Money> amounts, String to, LocalDate date) {
+        Set<String> currencies = new HashSet<>();
+        currencies.add(to);
+        for (Money amount : amounts) {
+            currencies.add(amount.getCurrency());
+        }
+        Map<String, BigDecimal> eur = eurRates(currencies, date);
+        Map<String, BigDecimal> rates = new HashMap<>();
+        for (String currency : currencies) {
+            rates.put(currency, currency.equals(to) ? BigDecimal.ONE : crossRate(eur, currency, to));
+        }
+
+        List<Money> converted = new ArrayList<>(amounts.size());
+        for (Money amount : amounts) {
+            if (amount.getCurrency().equals(to)) {
+                converted.add(amount);
+            } else {
+                // Same arithmetic as convert(), so a batch and single calls agree to the cent
+                BigDecimal value = amount.toBigDecimal().multiply(rates.get(amount.getCurrency()))
+                        .setScale(Money.SCALE, RoundingMode.HALF_UP);
+                converted.add(Money.of(value, to));
+            }
+        }
+        return converted;
+    }
+
+    private static BigDecimal crossRate(Map<String, BigDecimal> eur, String from, String to) {
+        if (from.equals(to)) {
+            return BigDecimal.ONE;
+        }
+        if ("EUR".equals(from)) {
+            return eur.get(to);
+        }
+        return eur.get(to).divide(eur.get(from), MathContext.DECIMAL128);
+    }
+
+    /**
+     * EUR rates of the given currencies on {@code date}: the latest ones for
+     * today, a future date or none, otherwise the day's rates from the
+     * history, falling back to the latest for currencies it has nothing for.
+     */
+    private Map<String, BigDecimal> eurRates(Set<String> currencies, LocalDate date) {
+        if (date == null || !date.isBefore(LocalDate.now())) {
+            return eurRates(currencies);
+        }
+        Map<String, BigDecimal> rates = new HashMap<>();
+        Set<String> quoted = new HashSet<>();
+        for (String currency : currencies) {
+            if ("EUR".equals(currency)) {
+                rates.put(currency, BigDecimal.ONE);
+            } else if ("XAF".equals(currency)) {
+                rates.put(currency, EUR_TO_XAF);
+            } else {
+                quoted.add(currency);
+            }
+        }
+        if (!quoted.isEmpty()) {
+            rates.putAll(history.eurRates(quoted, date));
+            quoted.removeAll(rates.keySet());
+            if (!quoted.isEmpty()) {
+                logger.warn("No EUR exchange rate for {} on {}, using the latest", quoted, date);
+                rates.putAll(eurRates(quoted));
+            }
+        }
+        return rates;
+    }
+
+    /**
+     * Latest EUR rates of the given currencies. Whatever is not cached is fetched in
+     * a single request naming all of them.
+     */
+    private Map<String, BigDecimal> eurRates(Set<String> currencies) {
+        Map<String, BigDecimal> rates = new HashMap<>(eurRates.getAllPresent(currencies));
+        List<String> missing = new ArrayList<>();
+        for (String currency : currencies) {
+            if ("EUR".equals(currency)) {
+                rates.put(currency, BigDecimal.ONE);
+            } else if ("XAF".equals(currency)) {
+                // XAF (FCFA) is pegged to EUR (1 EUR = 655.957 XAF)
+                rates.put(currency, EUR_TO_XAF);
+            } else if (!rates.containsKey(currency)) {
+                missing.add(currency);
+            }
+        }
+        if (missing.isEmpty()) {
+            return rates;
+        }
+
+        Collections.sort(missing);
+        String symbols = String.join(",", missing);
+        String url = String.format("%s/latest?from=EUR&to=%s", apiUrl, symbols);
+        try {
+            JsonNode response = restTemplate.getForObject(url, JsonNode.class);
+            if (response != null && response.has("rates")) {
+                JsonNode quoted = response.get("rates");
+                for (String currency : missing) {
+                    if (quoted.has(currency)) {
+                        // Use new BigDecimal(String) to avoid precision loss from double
+                        BigDecimal rate = new BigDecimal(quoted.get(currency).asText());
+                        eurRates.put(currency, rate);
+                        rates.put(currency, rate);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Error fetching EUR exchange rates for {}: {}", symbols, e.getMessage());
+        }
+        for (String currency : missing) {
+            if (!rates.containsKey(currency)) {
+                throw new RuntimeException("Unable to fetch exchange rate for " + currency);
+            }
+        }
+        return rates;
+    }
 }
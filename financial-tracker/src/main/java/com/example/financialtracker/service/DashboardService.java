@@ -0,0 +1,128 @@
+package com.example.financialtracker.service;
+
+import com.example.financialtracker.model.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves the dashboard (balance, this month's category totals and daily
+ * series, budget status and the advisor forecast) as one pre-rendered JSON
+ * document per user.
+ *
+ * A user's dashboard is built on first request and kept until the day
+ * changes. Domain events rebuild a cached dashboard in the background, after
+ * the ledger snapshot and report caches have caught up, so a request after a
+ * write still finds it ready. The version is a hash of the content: clients
+ * send it back as {@code If-None-Match} and get a 304 while nothing changed.
+ */
+@Service
+@Order(7)
+public class DashboardService implements DomainEventListener {
+
+    private final LedgerService ledgerService;
+    private final ReportService reportService;
+    private final BudgetService budgetService;
+    private final AdvisorService advisorService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readTemplate;
+    private final TransactionTemplate primaryTemplate;
+    private final Cache<Long, Dashboard> dashboards;
+
+    public DashboardService(LedgerService ledgerService, ReportService reportService, BudgetService budgetService,
+            AdvisorService advisorService, ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+            @Value("${app.dashboard.max-entries:10000}") long maxEntries,
+            @Value("${app.dashboard.expire-minutes:10}") long expireMinutes) {
+        this.ledgerService = ledgerService;
+        this.reportService = reportService;
+        this.budgetService = budgetService;
+        this.advisorService = advisorService;
+        this.objectMapper = objectMapper;
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        readTemplate.setReadOnly(true);
+        // Rebuilds after a write read from the primary, which has the commit
+        this.primaryTemplate = new TransactionTemplate(transactionManager);
+        // Expiry bounds staleness for writes committed by other replicas
+        this.dashboards = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(expireMinutes, TimeUnit.MINUTES)
+                .build();
+    }
+
+    public Dashboard getDashboard(User user) {
+        LocalDate today = LocalDate.now();
+        Dashboard cached = dashboards.getIfPresent(user.getId());
+        if (cached != null && cached.builtOn().equals(today)) {
+            return cached;
+        }
+        // Built under the entry's lock, so a rebuild after a write waits for
+        // (and then replaces) a dashboard that was being built before it
+        return dashboards.asMap().compute(user.getId(), (id, current) -> current != null
+                && current.builtOn().equals(today) ? current : readTemplate.execute(status -> build(user, today)));
+    }
+
+    @Override
+    public String consumerName() {
+        return "dashboard";
+    }
+
+    @Override
+    public void onEvent(DomainEvent event) {
+        User user = event.user();
+        dashboards.asMap().computeIfPresent(user.getId(),
+                (id, current) -> primaryTemplate.execute(status -> build(user, LocalDate.now())));
+    }
+
+    private Dashboard build(User user, LocalDate today) {
+        YearMonth month = YearMonth.from(today);
+        LocalDate start = month.atDay(1);
+        LocalDate end = month.atEndOfMonth();
+
+        Map<String, Object> content = new LinkedHashMap<>();
+        content.put("month", month.toString());
+        content.put("balance", ledgerService.currentBalance(user));
+        content.put("categoryTotals", reportService.getExpensesByCategory(user, start, end));
+        content.put("dailySeries", reportService.getMonthlySummary(user, start, end));
+        content.put("budgets", budgetService.getBudgetStatus(user, month.getMonthValue(), month.getYear()));
+        content.put("insights", advisorService.getInsights(user));
+
+        try {
+            String version = hash(objectMapper.writeValueAsBytes(content));
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("version", version);
+            body.putAll(content);
+            return new Dashboard(version, objectMapper.writeValueAsBytes(body), today);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to render dashboard", e);
+        }
+    }
+
+    private static String hash(byte[] content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            // 64 bits is plenty to tell one user's successive dashboards apart
+            return HexFormat.of().formatHex(digest.digest(content), 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /** A rendered dashboard; {@code body} is the JSON served as is. */
+    public record Dashboard(String version, byte[] body, LocalDate builtOn) {
+    }
+}
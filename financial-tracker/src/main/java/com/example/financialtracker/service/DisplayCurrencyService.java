@@ -0,0 +1,109 @@
+package com.example.financialtracker.service;
+
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Shows aggregated XAF results in another currency. Reports, budgets and
+ * insights are computed and cached in XAF as before; a {@link Converter} made
+ * once per response converts only the handful of totals in the result, with
+ * the latest rate for totals and each day's rate for per-day series. Both come
+ * from the rates {@link CurrencyService} already holds in memory, and amounts
+ * are rounded exactly as {@link CurrencyService#convert} rounds them.
+ */
+@Service
+public class DisplayCurrencyService {
+
+    private static final String BASE_CURRENCY = "XAF";
+
+    private final CurrencyService currencyService;
+
+    public DisplayCurrencyService(CurrencyService currencyService) {
+        this.currencyService = currencyService;
+    }
+
+    /**
+     * A converter to {@code currency}, which returns amounts unchanged when it
+     * is blank or XAF. Empty if the currency is not supported.
+     */
+    public Optional<Converter> converterFor(String currency) {
+        if (currency == null || currency.isBlank() || BASE_CURRENCY.equalsIgnoreCase(currency.trim())) {
+            return Optional.of(new Converter(BASE_CURRENCY, null));
+        }
+        String code = currency.trim().toUpperCase(Locale.ROOT);
+        if (!currencyService.getSupportedCurrencies().containsKey(code)) {
+            return Optional.empty();
+        }
+        return Optional.of(new Converter(code, currencyService.getExchangeRate(BASE_CURRENCY, code)));
+    }
+
+    /** Converts XAF amounts for one response; not thread-safe. */
+    public final class Converter {
+
+        private final String currency;
+        // XAF -> currency; null when nothing is converted
+        private final BigDecimal rate;
+        private final Map<LocalDate, BigDecimal> dailyRates = new HashMap<>();
+
+        private Converter(String currency, BigDecimal rate) {
+            this.currency = currency;
+            this.rate = rate;
+        }
+
+        public String currency() {
+            return currency;
+        }
+
+        public boolean isIdentity() {
+            return rate == null;
+        }
+
+        /** {@code amount} at the latest rate. */
+        public BigDecimal convert(BigDecimal amount) {
+            return apply(amount, rate);
+        }
+
+        /** {@code amount} at the rate of {@code date}; the latest for today or later. */
+        public BigDecimal convert(BigDecimal amount, LocalDate date) {
+            if (rate == null || amount == null || date == null || !date.isBefore(LocalDate.now())) {
+                return convert(amount);
+            }
+            BigDecimal dailyRate = dailyRates.computeIfAbsent(date,
+                    d -> currencyService.getExchangeRate(BASE_CURRENCY, currency, d));
+            return apply(amount, dailyRate);
+        }
+
+        /**
+         * A copy of {@code row} with the amounts under {@code keys} converted
+         * at the rate of {@code date} (the latest when null). Results may come
+         * from a cache, so the row itself is left alone.
+         */
+        public Map<String, Object> convert(Map<String, Object> row, LocalDate date, String... keys) {
+            if (rate == null) {
+                return row;
+            }
+            Map<String, Object> converted = new LinkedHashMap<>(row);
+            for (String key : keys) {
+                if (converted.get(key) instanceof BigDecimal amount) {
+                    converted.put(key, convert(amount, date));
+                }
+            }
+            return converted;
+        }
+
+        private BigDecimal apply(BigDecimal amount, BigDecimal appliedRate) {
+            if (appliedRate == null || amount == null) {
+                return amount;
+            }
+            return amount.multiply(appliedRate).setScale(2, RoundingMode.HALF_UP);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.financialtracker.service;
+
+import com.example.financialtracker.model.Transaction;
+import com.example.financialtracker.model.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Something that happened to a user's ledger or budgets, published by the
+ * write path once its transaction commits and handled by the
+ * {@link DomainEventListener}s through the {@link DomainEventBus}. Events
+ * carry values as of the commit (a {@link TransactionSnapshot}, never the
+ * entity the write path keeps using) and the acting user, from which listeners
+ * read only the id, username and email.
+ */
+public sealed interface DomainEvent {
+
+    User user();
+
+    /** Whether the user's ledger rows or balance changed; only budget edits leave them alone. */
+    default boolean changesLedger() {
+        return true;
+    }
+
+    record TransactionCreated(User user, TransactionSnapshot transaction, BigDecimal balanceBefore,
+            BigDecimal balanceAfter) implements DomainEvent {
+    }
+
+    record TransactionUpdated(User user, TransactionSnapshot transaction, BigDecimal balanceBefore,
+            BigDecimal balanceAfter) implements DomainEvent {
+    }
+
+    record TransactionDeleted(User user, Long transactionId, BigDecimal balanceBefore,
+            BigDecimal balanceAfter) implements DomainEvent {
+    }
+
+    record MonthFinalized(User user, YearMonth month, BigDecimal closingBalance) implements DomainEvent {
+    }
+
+    record BudgetChanged(User user, Long budgetId) implements DomainEvent {
+        @Override
+        public boolean changesLedger() {
+            return false;
+        }
+    }
+
+    /** The fields of a transaction as committed; amounts are in XAF. */
+    record TransactionSnapshot(Long id, LocalDate date, String usedFor, String category, BigDecimal credit,
+            BigDecimal debit) {
+
+        static TransactionSnapshot of(Transaction transaction) {
+            return new TransactionSnapshot(transaction.getId(), transaction.getDate(), transaction.getUsedFor(),
+                    transaction.getCategory(), transaction.getCredit(), transaction.getDebit());
+        }
+    }
+}
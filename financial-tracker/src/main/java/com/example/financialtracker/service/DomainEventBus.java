@@ -0,0 +1,215 @@
+package com.example.financialtracker.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Delivers {@link DomainEvent}s to the {@link DomainEventListener}s after the
+ * publishing transaction commits, so the write path returns as soon as its
+ * rows are durable and the side effects (snapshot rollups, cache eviction,
+ * budget checks, live updates, alert emails) follow asynchronously.
+ *
+ * Users are spread over a fixed number of stripes, each with one delivery
+ * thread. An event takes its place in its stripe's queue just before the
+ * commit, while the writer still holds the user's ledger lock, and is handed
+ * to the listeners once the commit has completed (or dropped on rollback).
+ * A user's events are therefore delivered in commit order, one at a time; a
+ * commit that is slow to complete briefly holds back the rest of its stripe.
+ *
+ * Delivery is in-process and at most once: events still queued when the node
+ * stops are lost, as the after-commit hooks they replace were.
+ *
+ * Metrics: {@code app.domain-events.lag} (commit to handled, per consumer),
+ * {@code app.domain-events.pending} and {@code app.domain-events.failed}.
+ */
+@Service
+public class DomainEventBus {
+
+    private static final Logger log = LoggerFactory.getLogger(DomainEventBus.class);
+
+    private final ObjectProvider<DomainEventListener> listenerProvider;
+    private final MeterRegistry registry;
+    private final Stripe[] stripes;
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile List<Consumer> consumers;
+
+    public DomainEventBus(ObjectProvider<DomainEventListener> listenerProvider,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${app.domain-events.stripes:4}") int stripeCount) {
+        // Listeners are resolved on first delivery: several of them depend on
+        // services that publish through this bus
+        this.listenerProvider = listenerProvider;
+        this.registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        registry.gauge("app.domain-events.pending", pending);
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(i);
+        }
+    }
+
+    /**
+     * Queues the event for delivery once the current transaction commits
+     * (immediately when there is none). Nothing is delivered on rollback.
+     */
+    public void publishAfterCommit(DomainEvent event) {
+        Stripe stripe = stripes[Math.floorMod(event.user().getId(), stripes.length)];
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            stripe.resolve(stripe.reserve(event), true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private Slot slot;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                slot = stripe.reserve(event);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (slot != null) {
+                    stripe.resolve(slot, status == STATUS_COMMITTED);
+                }
+            }
+        });
+    }
+
+    private List<Consumer> consumers() {
+        List<Consumer> resolved = consumers;
+        if (resolved == null) {
+            resolved = listenerProvider.orderedStream().map(Consumer::new).toList();
+            consumers = resolved;
+        }
+        return resolved;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Stripe stripe : stripes) {
+            stripe.executor.shutdown();
+        }
+        for (Stripe stripe : stripes) {
+            try {
+                stripe.executor.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private enum State {
+        PENDING, COMMITTED, DROPPED
+    }
+
+    private static final class Slot {
+        private final DomainEvent event;
+        private State state = State.PENDING;
+        private long committedAt;
+
+        private Slot(DomainEvent event) {
+            this.event = event;
+        }
+    }
+
+    private final class Stripe {
+        private final ArrayDeque<Slot> slots = new ArrayDeque<>();
+        private final ExecutorService executor;
+
+        private Stripe(int index) {
+            this.executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "domain-events-" + index);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        private synchronized Slot reserve(DomainEvent event) {
+            Slot slot = new Slot(event);
+            slots.add(slot);
+            pending.incrementAndGet();
+            return slot;
+        }
+
+        private void resolve(Slot slot, boolean committed) {
+            synchronized (this) {
+                slot.state = committed ? State.COMMITTED : State.DROPPED;
+                slot.committedAt = System.nanoTime();
+            }
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                log.warn("Dropping {} for user {}: event bus is shut down",
+                        slot.event.getClass().getSimpleName(), slot.event.user().getId());
+            }
+        }
+
+        // Runs on the stripe's thread only; stops at the first event whose
+        // transaction has not completed yet
+        private void drain() {
+            while (true) {
+                Slot head;
+                synchronized (this) {
+                    head = slots.peekFirst();
+                    if (head == null || head.state == State.PENDING) {
+                        return;
+                    }
+                    slots.pollFirst();
+                }
+                pending.decrementAndGet();
+                if (head.state == State.COMMITTED) {
+                    deliver(head);
+                }
+            }
+        }
+
+        private void deliver(Slot slot) {
+            for (Consumer consumer : consumers()) {
+                try {
+                    consumer.listener.onEvent(slot.event);
+                } catch (Exception e) {
+                    consumer.failed.increment();
+                    log.error("Consumer {} failed on {} for user {}: {}", consumer.listener.consumerName(),
+                            slot.event.getClass().getSimpleName(), slot.event.user().getId(), e.getMessage(), e);
+                }
+                consumer.lag.record(System.nanoTime() - slot.committedAt, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private final class Consumer {
+        private final DomainEventListener listener;
+        private final Timer lag;
+        private final Counter failed;
+
+        private Consumer(DomainEventListener listener) {
+            this.listener = listener;
+            this.lag = Timer.builder("app.domain-events.lag")
+                    .description("Time from commit until the consumer has handled the event")
+                    .tag("consumer", listener.consumerName())
+                    .register(registry);
+            this.failed = Counter.builder("app.domain-events.failed")
+                    .description("Events a consumer failed to handle")
+                    .tag("consumer", listener.consumerName())
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.financialtracker.service;
+
+/**
+ * Handles committed {@link DomainEvent}s off the request thread. A user's
+ * events arrive one at a time in commit order; events of different users may
+ * be handled concurrently. Listeners run in {@code @Order} order, so one that
+ * reads state another maintains (a report reading the ledger snapshot) should
+ * come after it.
+ */
+public interface DomainEventListener {
+
+    /** Short name used in logs and as the {@code consumer} tag of the bus metrics. */
+    String consumerName();
+
+    void onEvent(DomainEvent event);
+}
@@ -0,0 +1,20 @@
+package com.example.financialtracker.service;
+
+import java.util.function.Consumer;
+
+/**
+ * Fans live updates out to every replica, since a user's stream may be held
+ * by a different instance than the one that served the write. The in-memory
+ * broker only reaches this node; the Redis broker uses pub/sub so every
+ * replica receives every update, its own included.
+ */
+public interface EventBroker {
+
+    void publish(LiveUpdate update);
+
+    /**
+     * Registers a listener for updates published by any replica. Listeners run
+     * on the broker's delivery thread and must not block.
+     */
+    void subscribe(Consumer<LiveUpdate> listener);
+}
@@ -0,0 +1,243 @@
+package com.example.financialtracker.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Daily EUR exchange rates by date, held in memory. Each currency is a pair of
+ * parallel arrays, epoch days ascending and rates as longs scaled by
+ * {@value #RATE_SCALE} decimals, so a lookup is a binary search for the latest
+ * quote on or before the date (the provider publishes none on weekends and
+ * holidays).
+ *
+ * Series are filled from a file in the provider's time-series format (set
+ * {@code app.currency.history-file}, or call {@link #load}) and from the
+ * provider's time-series endpoint, one request per calendar year for all the
+ * currencies missing a date. Series are immutable and replaced on merge, so
+ * readers never lock.
+ */
+@Service
+public class ExchangeRateHistory {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExchangeRateHistory.class);
+
+    static final int RATE_SCALE = 6;
+    // Longest run of days without a quote (Easter) is four; past this the
+    // quote is from another period and the year is fetched instead
+    private static final int MAX_GAP_DAYS = 7;
+
+    private final RestTemplate restTemplate;
+    private final String apiUrl;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, RateSeries> series = new ConcurrentHashMap<>();
+    // "CUR:year" the provider has answered for, so gaps it cannot fill are not
+    // asked again; in the current year, which is still being quoted, "CUR:date".
+    // Failed requests are not recorded and are retried on the next lookup.
+    private final Set<String> fetchedYears = ConcurrentHashMap.newKeySet();
+
+    public ExchangeRateHistory(RestTemplate restTemplate,
+            @Value("${app.currency.api-url:https://api.frankfurter.app}") String apiUrl,
+            @Value("${app.currency.history-file:}") String historyFile) {
+        this.restTemplate = restTemplate;
+        this.apiUrl = apiUrl;
+        if (!historyFile.isBlank()) {
+            try (InputStream in = Files.newInputStream(Path.of(historyFile))) {
+                load(in);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read exchange rate history " + historyFile, e);
+            }
+        }
+    }
+
+    /** The EUR rate of {@code currency} on {@code date}, from memory only. */
+    public Optional<BigDecimal> eurRate(String currency, LocalDate date) {
+        RateSeries rates = series.get(currency);
+        if (rates == null) {
+            return Optional.empty();
+        }
+        long scaled = rates.rateOn((int) date.toEpochDay());
+        return scaled < 0 ? Optional.empty() : Optional.of(BigDecimal.valueOf(scaled, RATE_SCALE));
+    }
+
+    /**
+     * EUR rates of the given currencies on {@code date}. Currencies with no
+     * quote near the date are backfilled for the date's year in one request;
+     * those the provider has nothing for are left out of the result.
+     */
+    public Map<String, BigDecimal> eurRates(Collection<String> currencies, LocalDate date) {
+        Map<String, BigDecimal> rates = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        String key = fetchKey(date);
+        for (String currency : currencies) {
+            Optional<BigDecimal> rate = eurRate(currency, date);
+            if (rate.isPresent()) {
+                rates.put(currency, rate.get());
+            } else if (!fetchedYears.contains(currency + ":" + key)) {
+                missing.add(currency);
+            }
+        }
+        if (!missing.isEmpty()) {
+            LocalDate start = date.withDayOfYear(1);
+            LocalDate end = date.withDayOfYear(date.lengthOfYear());
+            LocalDate yesterday = LocalDate.now().minusDays(1);
+            if (backfill(start, end.isAfter(yesterday) ? yesterday : end, missing)) {
+                missing.forEach(currency -> fetchedYears.add(currency + ":" + key));
+            }
+            for (String currency : missing) {
+                eurRate(currency, date).ifPresent(rate -> rates.put(currency, rate));
+            }
+        }
+        return rates;
+    }
+
+    private static String fetchKey(LocalDate date) {
+        return date.getYear() < LocalDate.now().getYear() ? String.valueOf(date.getYear()) : date.toString();
+    }
+
+    /**
+     * Fetches the daily EUR rates of {@code currencies} from {@code start} to
+     * {@code end} in a single time-series request and merges them in. Returns
+     * whether the provider answered; failures are logged, and callers see them
+     * as missing rates.
+     */
+    public boolean backfill(LocalDate start, LocalDate end, Collection<String> currencies) {
+        String symbols = String.join(",", new TreeSet<>(currencies));
+        String url = String.format("%s/%s..%s?from=EUR&to=%s", apiUrl, start, end, symbols);
+        try {
+            JsonNode response = restTemplate.getForObject(url, JsonNode.class);
+            if (response == null) {
+                return false;
+            }
+            merge(response);
+            return true;
+        } catch (Exception e) {
+            logger.error("Error fetching EUR exchange rates for {} from {} to {}: {}", symbols, start, end,
+                    e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Merges rates in the provider's time-series format,
+     * {@code {"rates":{"2024-03-01":{"USD":1.0842,...},...}}}.
+     */
+    public void load(InputStream in) {
+        try {
+            merge(objectMapper.readTree(in));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot parse exchange rate history", e);
+        }
+    }
+
+    private void merge(JsonNode timeSeries) {
+        JsonNode byDate = timeSeries.get("rates");
+        if (byDate == null) {
+            return;
+        }
+        Map<String, SeriesBuilder> quotes = new HashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> days = byDate.fields();
+        while (days.hasNext()) {
+            Map.Entry<String, JsonNode> day = days.next();
+            int epochDay = (int) LocalDate.parse(day.getKey()).toEpochDay();
+            Iterator<Map.Entry<String, JsonNode>> rates = day.getValue().fields();
+            while (rates.hasNext()) {
+                Map.Entry<String, JsonNode> rate = rates.next();
+                // new BigDecimal(String) to avoid precision loss from double
+                long scaled = new BigDecimal(rate.getValue().asText()).setScale(RATE_SCALE, RoundingMode.HALF_UP)
+                        .unscaledValue().longValueExact();
+                quotes.computeIfAbsent(rate.getKey(), c -> new SeriesBuilder()).put(epochDay, scaled);
+            }
+        }
+        quotes.forEach((currency, builder) -> series.merge(currency, builder.build(), RateSeries::merge));
+    }
+
+    /** Sorted epoch days with the rate quoted on each, scaled by {@link #RATE_SCALE}. */
+    static final class RateSeries {
+        private final int[] epochDays;
+        private final long[] rates;
+
+        RateSeries(int[] epochDays, long[] rates) {
+            this.epochDays = epochDays;
+            this.rates = rates;
+        }
+
+        /** The latest rate on or before {@code epochDay}, or -1 if none is close enough. */
+        long rateOn(int epochDay) {
+            int index = Arrays.binarySearch(epochDays, epochDay);
+            if (index < 0) {
+                index = -index - 2;
+            }
+            if (index < 0 || epochDay - epochDays[index] > MAX_GAP_DAYS) {
+                return -1;
+            }
+            return rates[index];
+        }
+
+        /** Both series combined; on a shared day {@code newer}'s rate wins. */
+        static RateSeries merge(RateSeries older, RateSeries newer) {
+            int[] days = new int[older.epochDays.length + newer.epochDays.length];
+            long[] values = new long[days.length];
+            int i = 0, j = 0, n = 0;
+            while (i < older.epochDays.length || j < newer.epochDays.length) {
+                if (j == newer.epochDays.length
+                        || (i < older.epochDays.length && older.epochDays[i] < newer.epochDays[j])) {
+                    days[n] = older.epochDays[i];
+                    values[n++] = older.rates[i++];
+                } else {
+                    if (i < older.epochDays.length && older.epochDays[i] == newer.epochDays[j]) {
+                        i++;
+                    }
+                    days[n] = newer.epochDays[j];
+                    values[n++] = newer.rates[j++];
+                }
+            }
+            return new RateSeries(Arrays.copyOf(days, n), Arrays.copyOf(values, n));
+        }
+    }
+
+    /** Collects one currency's quotes from a response, in any order. */
+    private static final class SeriesBuilder {
+        private final TreeMap<Integer, Long> quotes = new TreeMap<>();
+
+        void put(int epochDay, long rate) {
+            quotes.put(epochDay, rate);
+        }
+
+        RateSeries build() {
+            int[] days = new int[quotes.size()];
+            long[] values = new long[quotes.size()];
+            int n = 0;
+            for (Map.Entry<Integer, Long> quote : quotes.entrySet()) {
+                days[n] = quote.getKey();
+                values[n++] = quote.getValue();
+            }
+            return new RateSeries(days, values);
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.example.financialtracker.service;
+
+import com.example.financialtracker.model.FinalizedMonthReport;
+import com.example.financialtracker.model.MonthlySummary;
+import com.example.financialtracker.model.User;
+import com.example.financialtracker.repository.FinalizedMonthReportRepository;
+import com.example.financialtracker.repository.MonthlySummaryRepository;
+import com.example.financialtracker.repository.TransactionRepository;
+import com.example.financialtracker.util.Money;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * What finalization records per month: the {@link MonthlySummary} aggregates
+ * and the rendered report (credit and debit totals, category totals and daily
+ * series) stored in {@code finalized_month_reports}. Both come from one grouped
+ * query over the months whose rows were archived.
+ *
+ * Finalized rows cannot be updated or deleted, so a stored report only changes
+ * if a back-dated transaction lands in the month and is finalized later; that
+ * finalization renders the month again under a new content hash. Reads are
+ * served from memory after the first, and the controller hands out URLs that
+ * carry the hash, which clients may cache indefinitely.
+ */
+@Service
+public class FinalizedReportService {
+
+    private final FinalizedMonthReportRepository reportRepository;
+    private final MonthlySummaryRepository monthlySummaryRepository;
+    private final TransactionRepository transactionRepository;
+    private final LedgerService ledgerService;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Cache<ReportKey, Report> reports;
+
+    public FinalizedReportService(FinalizedMonthReportRepository reportRepository,
+            MonthlySummaryRepository monthlySummaryRepository, TransactionRepository transactionRepository,
+            LedgerService ledgerService,
+            @Value("${app.reports.finalized.max-entries:50000}") long maxEntries) {
+        this.reportRepository = reportRepository;
+        this.monthlySummaryRepository = monthlySummaryRepository;
+        this.transactionRepository = transactionRepository;
+        this.ledgerService = ledgerService;
+        this.reports = Caffeine.newBuilder().maximumSize(maxEntries).build();
+    }
+
+    /**
+     * Summarizes and renders every month from {@code first} to {@code last}
+     * that has transactions, replacing what earlier finalizations stored for
+     * them, and returns the summary of {@code last} (null if it has no
+     * transactions). Runs inside the
+     * finalization transaction, after the open rows were archived.
+     */
+    @Transactional
+    public MonthlySummary finalizeMonths(User user, YearMonth first, YearMonth last) {
+        Map<YearMonth, MonthTotals> totals = new TreeMap<>();
+        for (Object[] row : transactionRepository.findDailyTotalsByCategory(user, first.atDay(1),
+                last.atEndOfMonth())) {
+            LocalDate date = (LocalDate) row[0];
+            totals.computeIfAbsent(YearMonth.from(date), month -> new MonthTotals())
+                    .add(date, (String) row[1], (BigDecimal) row[2], (BigDecimal) row[3], (Long) row[4]);
+        }
+
+        Map<YearMonth, MonthlySummary> summaries = new HashMap<>();
+        Map<YearMonth, FinalizedMonthReport> existing = new HashMap<>();
+        if (!totals.isEmpty()) {
+            for (MonthlySummary summary : monthlySummaryRepository.findAllByUserAndMonthYearIn(user,
+                    totals.keySet())) {
+                summaries.put(summary.getMonthYear(), summary);
+            }
+            for (FinalizedMonthReport report : reportRepository.findAllByUserAndMonthYearIn(user, totals.keySet())) {
+                existing.put(report.getMonthYear(), report);
+            }
+        }
+
+        // Each month opens at the previous one's close
+        long balance = Money.toMinorUnits(ledgerService.balanceAsOf(user, first.atDay(1).minusDays(1)));
+        List<FinalizedMonthReport> changed = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<YearMonth, MonthTotals> entry : totals.entrySet()) {
+            YearMonth month = entry.getKey();
+            MonthTotals monthTotals = entry.getValue();
+            MonthlySummary summary = summaries.computeIfAbsent(month, m -> {
+                MonthlySummary created = new MonthlySummary();
+                created.setUser(user);
+                created.setMonthYear(m);
+                return created;
+            });
+            balance = summarize(summary, month, monthTotals, balance);
+
+            String body = render(month, monthTotals);
+            String hash = hash(body);
+            FinalizedMonthReport report = existing.get(month);
+            if (report != null && report.getContentHash().equals(hash)) {
+                continue;
+            }
+            if (report == null) {
+                report = new FinalizedMonthReport();
+                report.setUser(user);
+                report.setMonthYear(month);
+            }
+            report.setBody(body);
+            report.setContentHash(hash);
+            report.setFinalizedAt(now);
+            changed.add(report);
+        }
+
+        monthlySummaryRepository.saveAll(summaries.values());
+        reportRepository.saveAll(changed);
+
+        List<ReportKey> keys = changed.stream().map(report -> new ReportKey(user.getId(), report.getMonthYear()))
+                .toList();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reports.invalidateAll(keys);
+        } else {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reports.invalidateAll(keys);
+                }
+            });
+        }
+        return summaries.get(last);
+    }
+
+    /** Fills in the month's aggregates and returns its closing balance. */
+    private long summarize(MonthlySummary summary, YearMonth month, MonthTotals totals, long opening) {
+        long balance = opening;
+        // Days before the first with activity close at the opening balance
+        long min = totals.byDay.firstKey().getDayOfMonth() > 1 ? opening : Long.MAX_VALUE;
+        long max = totals.byDay.firstKey().getDayOfMonth() > 1 ? opening : Long.MIN_VALUE;
+        for (long[] day : totals.byDay.values()) {
+            balance = Math.subtractExact(Math.addExact(balance, day[0]), day[1]);
+            min = Math.min(min, balance);
+            max = Math.max(max, balance);
+        }
+
+        Map<String, Object> categories = new LinkedHashMap<>();
+        sortedCategories(totals).forEach(e -> categories.put(e.getKey(), Money.fromMinorUnits(e.getValue())));
+        try {
+            summary.setCategoryTotals(objectMapper.writeValueAsString(categories));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to render category totals for " + month, e);
+        }
+        summary.setOpeningBalance(Money.fromMinorUnits(opening));
+        summary.setClosingBalance(Money.fromMinorUnits(balance));
+        summary.setTotalCredit(Money.fromMinorUnits(totals.credits));
+        summary.setTotalDebit(Money.fromMinorUnits(totals.debits));
+        summary.setTransactionCount(Math.toIntExact(totals.count));
+        summary.setMinBalance(Money.fromMinorUnits(min));
+        summary.setMaxBalance(Money.fromMinorUnits(max));
+        return balance;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Report> getReport(User user, YearMonth month) {
+        ReportKey key = new ReportKey(user.getId(), month);
+        Report cached = reports.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<Report> report = reportRepository.findByUserAndMonthYear(user, month)
+                .map(stored -> new Report(stored.getContentHash(), stored.getBody().getBytes(StandardCharsets.UTF_8)));
+        report.ifPresent(found -> reports.put(key, found));
+        return report;
+    }
+
+    private String render(YearMonth month, MonthTotals totals) {
+        List<Map<String, Object>> categoryTotals = new ArrayList<>();
+        sortedCategories(totals).forEach(entry -> {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("name", entry.getKey());
+            item.put("value", Money.fromMinorUnits(entry.getValue()));
+            categoryTotals.add(item);
+        });
+
+        List<Map<String, Object>> dailySeries = new ArrayList<>();
+        totals.byDay.forEach((date, amounts) -> {
+            if (amounts[1] > 0) {
+                Map<String, Object> item = new LinkedHashMap<>();
+                item.put("date", date.toString());
+                item.put("amount", Money.fromMinorUnits(amounts[1]));
+                dailySeries.add(item);
+            }
+        });
+
+        Map<String, Object> content = new LinkedHashMap<>();
+        content.put("month", month.toString());
+        content.put("credits", Money.fromMinorUnits(totals.credits));
+        content.put("debits", Money.fromMinorUnits(totals.debits));
+        content.put("net", Money.fromMinorUnits(totals.credits - totals.debits));
+        content.put("categoryTotals", categoryTotals);
+        content.put("dailySeries", dailySeries);
+        try {
+            return objectMapper.writeValueAsString(content);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to render report for " + month, e);
+        }
+    }
+
+    private static Stream<Map.Entry<String, Long>> sortedCategories(MonthTotals totals) {
+        return totals.debitsByCategory.entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()));
+    }
+
+    private static String hash(String body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            // 128 bits: the hash names the content in a URL that is cached for good
+            return HexFormat.of().formatHex(digest.digest(body.getBytes(StandardCharsets.UTF_8)), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record ReportKey(Long userId, YearMonth month) {
+    }
+
+    /** A stored report; {@code body} is the JSON served as is. */
+    public record Report(String contentHash, byte[] body) {
+    }
+
+    private static final class MonthTotals {
+        private long credits;
+        private long debits;
+        private long count;
+        private final Map<String, Long> debitsByCategory = new HashMap<>();
+        // Credits and debits per day
+        private final TreeMap<LocalDate, long[]> byDay = new TreeMap<>();
+
+        void add(LocalDate date, String category, BigDecimal credit, BigDecimal debit, long rows) {
+            long creditUnits = Money.toMinorUnits(credit);
+            long debitUnits = Money.toMinorUnits(debit);
+            credits = Math.addExact(credits, creditUnits);
+            debits = Math.addExact(debits, debitUnits);
+            count += rows;
+            debitsByCategory.merge(category, debitUnits, Math::addExact);
+            long[] day = byDay.computeIfAbsent(date, d -> new long[2]);
+            day[0] = Math.addExact(day[0], creditUnits);
+            day[1] = Math.addExact(day[1], debitUnits);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.financialtracker.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+@Service
+@ConditionalOnProperty(name = "app.live-updates.broker", havingValue = "memory", matchIfMissing = true)
+public class InMemoryEventBroker implements EventBroker {
+
+    private final List<Consumer<LiveUpdate>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(LiveUpdate update) {
+        for (Consumer<LiveUpdate> listener : listeners) {
+            listener.accept(update);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<LiveUpdate> listener) {
+        listeners.add(listener);
+    }
+}
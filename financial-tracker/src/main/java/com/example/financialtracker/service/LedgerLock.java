@@ -0,0 +1,76 @@
+package com.example.financialtracker.service;
+
+import com.example.financialtracker.model.AccountHead;
+import com.example.financialtracker.model.User;
+import com.example.financialtracker.repository.AccountHeadRepository;
+import com.example.financialtracker.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serializes ledger writes per user by locking the user's {@link AccountHead}
+ * row for the rest of the current transaction. Every write moves the head
+ * balance, so two concurrent writes for the same user would otherwise conflict
+ * on its version; with the lock the second one waits for the first to commit
+ * and then sees its entries.
+ *
+ * Publishes {@code app.ledger.lock.wait} (time to acquire) and
+ * {@code app.ledger.lock.waiting} (threads currently queued).
+ */
+@Component
+public class LedgerLock {
+
+    private final AccountHeadRepository accountHeadRepository;
+    private final UserRepository userRepository;
+    private final Timer waitTimer;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    public LedgerLock(AccountHeadRepository accountHeadRepository, UserRepository userRepository,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        this.accountHeadRepository = accountHeadRepository;
+        this.userRepository = userRepository;
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        this.waitTimer = Timer.builder("app.ledger.lock.wait")
+                .description("Time spent waiting for the per-user ledger lock")
+                .register(registry);
+        registry.gauge("app.ledger.lock.waiting", waiting);
+    }
+
+    /**
+     * Blocks until no other transaction holds the user's ledger lock and
+     * returns the locked head, creating it on the user's first write. Must be
+     * called inside a transaction, before the first read of the rows it
+     * protects.
+     */
+    public AccountHead acquire(User user) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Ledger lock requires an active transaction");
+        }
+        waiting.incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            return accountHeadRepository.findByIdForUpdate(user.getId()).orElseGet(() -> createHead(user));
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            waiting.decrementAndGet();
+        }
+    }
+
+    private AccountHead createHead(User user) {
+        // Nothing to lock yet; the user row keeps two first writes from both inserting
+        userRepository.findByIdForUpdate(user.getId())
+                .orElseThrow(() -> new RuntimeException("User not found: " + user.getId()));
+        return accountHeadRepository.findByIdForUpdate(user.getId()).orElseGet(() -> {
+            AccountHead head = new AccountHead();
+            head.setUserId(user.getId());
+            return accountHeadRepository.saveAndFlush(head);
+        });
+    }
+}
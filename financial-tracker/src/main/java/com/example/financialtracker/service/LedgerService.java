@@ -0,0 +1,188 @@
+package com.example.financialtracker.service;
+
+import com.example.financialtracker.config.BatchWorkload;
+import com.example.financialtracker.model.AccountHead;
+import com.example.financialtracker.model.BalanceCheckpoint;
+import com.example.financialtracker.model.LedgerEntry;
+import com.example.financialtracker.model.Transaction;
+import com.example.financialtracker.model.User;
+import com.example.financialtracker.repository.AccountHeadRepository;
+import com.example.financialtracker.repository.BalanceCheckpointRepository;
+import com.example.financialtracker.repository.LedgerEntryRepository;
+import com.example.financialtracker.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Append-only single-entry journal behind the transaction endpoints. Each user
+ * has one account, so an entry is the signed effect on its balance; the other
+ * side of a transaction (income or expense category) is not an account here
+ * and is not posted. Every change to a transaction posts entries instead of
+ * rewriting balances: a new transaction posts one entry, an edit posts a
+ * reversal of the standing entry plus a replacement, and a delete posts only
+ * the reversal. A reversal and the entry it cancels sum to zero, and all of a
+ * user's entries sum to the balance their {@link AccountHead} carries, so a
+ * write costs O(1) regardless of how many rows follow it.
+ *
+ * Historical balances are rebuilt from the nearest {@link BalanceCheckpoint}
+ * plus the entries since, i.e. O(entries since checkpoint). Checkpoints are
+ * written nightly and dropped when a back-dated entry lands on or before them.
+ *
+ * Posting methods must run under the caller's {@link LedgerLock}.
+ */
+@Service
+public class LedgerService {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerService.class);
+
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final AccountHeadRepository accountHeadRepository;
+    private final BalanceCheckpointRepository balanceCheckpointRepository;
+    private final UserRepository userRepository;
+    private final LedgerLock ledgerLock;
+    private final TransactionTemplate transactionTemplate;
+
+    public LedgerService(LedgerEntryRepository ledgerEntryRepository, AccountHeadRepository accountHeadRepository,
+            BalanceCheckpointRepository balanceCheckpointRepository, UserRepository userRepository,
+            LedgerLock ledgerLock, PlatformTransactionManager transactionManager) {
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.accountHeadRepository = accountHeadRepository;
+        this.balanceCheckpointRepository = balanceCheckpointRepository;
+        this.userRepository = userRepository;
+        this.ledgerLock = ledgerLock;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Posts the entry for a newly saved (or corrected) transaction and moves the
+     * head balance by its net amount.
+     */
+    public LedgerEntry post(AccountHead head, Transaction transaction) {
+        return append(head, transaction.getUser(), transaction.getId(), transaction.getDate(),
+                netAmount(transaction), null);
+    }
+
+    /**
+     * Cancels the entry currently standing for {@code transactionId} with an
+     * equal and opposite one on the same entry date, so balances on and after
+     * that date are corrected as well. Returns empty when the transaction has no
+     * standing entry.
+     */
+    public Optional<LedgerEntry> reverse(AccountHead head, User user, Long transactionId) {
+        return ledgerEntryRepository.findStanding(user, transactionId)
+                .map(original -> append(head, user, transactionId, original.getEntryDate(),
+                        original.getAmount().negate(), original.getId()));
+    }
+
+    private LedgerEntry append(AccountHead head, User user, Long transactionId, LocalDate entryDate,
+            BigDecimal amount, Long reversalOf) {
+        LedgerEntry entry = new LedgerEntry();
+        entry.setUser(user);
+        entry.setTransactionId(transactionId);
+        entry.setEntryDate(entryDate);
+        entry.setAmount(amount);
+        entry.setReversalOf(reversalOf);
+        entry.setPostedAt(Instant.now());
+        LedgerEntry saved = ledgerEntryRepository.save(entry);
+
+        head.setBalance(head.getBalance().add(amount));
+        head.setEntryCount(head.getEntryCount() + 1);
+        if (head.getCheckpointDate() != null && !entryDate.isAfter(head.getCheckpointDate())) {
+            balanceCheckpointRepository.deleteFrom(user, entryDate);
+            // Only an upper bound from here on; the next back-dated entry may issue an empty delete
+            head.setCheckpointDate(entryDate.minusDays(1));
+        }
+        return saved;
+    }
+
+    public static BigDecimal netAmount(Transaction transaction) {
+        BigDecimal credit = transaction.getCredit() != null ? transaction.getCredit() : BigDecimal.ZERO;
+        BigDecimal debit = transaction.getDebit() != null ? transaction.getDebit() : BigDecimal.ZERO;
+        return credit.subtract(debit);
+    }
+
+    @Transactional(readOnly = true)
+    public BigDecimal currentBalance(User user) {
+        return accountHeadRepository.findById(user.getId())
+                .map(AccountHead::getBalance)
+                .orElse(BigDecimal.ZERO);
+    }
+
+    /**
+     * Balance at the end of {@code asOf}: the nearest checkpoint on or before it
+     * plus the entries dated after the checkpoint.
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal balanceAsOf(User user, LocalDate asOf) {
+        return balanceCheckpointRepository.findTopByUserAndAsOfDateLessThanEqualOrderByAsOfDateDesc(user, asOf)
+                .map(checkpoint -> checkpoint.getAsOfDate().isEqual(asOf)
+                        ? checkpoint.getBalance()
+                        : checkpoint.getBalance()
+                                .add(ledgerEntryRepository.sumBetween(user, checkpoint.getAsOfDate(), asOf)))
+                .orElseGet(() -> ledgerEntryRepository.sumUpTo(user, asOf));
+    }
+
+    /**
+     * Running balance right after transaction {@code transactionId} dated
+     * {@code date}, in (date, id) order.
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal balanceAt(User user, LocalDate date, Long transactionId) {
+        return balanceAsOf(user, date.minusDays(1))
+                .add(ledgerEntryRepository.sumOnDateUpTo(user, date, transactionId));
+    }
+
+    /**
+     * Writes a checkpoint as of yesterday for every account with entries since
+     * its last one. Each account is checkpointed in its own short transaction
+     * under the ledger lock, so a concurrent back-dated write cannot leave a
+     * stale checkpoint behind.
+     */
+    @Scheduled(cron = "${app.ledger.checkpoint-cron:0 30 1 * * *}")
+    @BatchWorkload
+    public void writeCheckpoints() {
+        LocalDate asOf = LocalDate.now().minusDays(1);
+        List<Long> userIds = accountHeadRepository.findAll().stream().map(AccountHead::getUserId).toList();
+        int written = 0;
+        for (Long userId : userIds) {
+            try {
+                Boolean created = transactionTemplate.execute(status -> checkpoint(userId, asOf));
+                if (Boolean.TRUE.equals(created)) {
+                    written++;
+                }
+            } catch (Exception e) {
+                log.error("Failed to checkpoint ledger for user {}: {}", userId, e.getMessage(), e);
+            }
+        }
+        log.info("Wrote {} balance checkpoints as of {}", written, asOf);
+    }
+
+    private boolean checkpoint(Long userId, LocalDate asOf) {
+        User user = userRepository.getReferenceById(userId);
+        AccountHead head = ledgerLock.acquire(user);
+        Optional<BalanceCheckpoint> latest = balanceCheckpointRepository.findTopByUserOrderByAsOfDateDesc(user);
+        if (latest.isPresent() && (!latest.get().getAsOfDate().isBefore(asOf)
+                || latest.get().getEntryCount() == head.getEntryCount())) {
+            return false;
+        }
+        BalanceCheckpoint checkpoint = new BalanceCheckpoint();
+        checkpoint.setUser(user);
+        checkpoint.setAsOfDate(asOf);
+        checkpoint.setBalance(balanceAsOf(user, asOf));
+        checkpoint.setEntryCount(head.getEntryCount());
+        balanceCheckpointRepository.save(checkpoint);
+        head.setCheckpointDate(asOf);
+        return true;
+    }
+}
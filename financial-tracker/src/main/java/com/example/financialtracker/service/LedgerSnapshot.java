@@ -0,0 +1,387 @@
+package com.example.financialtracker.service;
+
+import com.example.financialtracker.model.Transaction;
+import com.example.financialtracker.util.Money;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-optimized, immutable copy of one user's ledger laid out as parallel
+ * primitive arrays ordered by (date, id). Amounts are minor units, dates are
+ * epoch days and categories are ids into a per-snapshot dictionary, so the
+ * analytic queries are plain loops over contiguous arrays.
+ *
+ * Balances are the running sum of credits minus debits in that order, the same
+ * value the ledger journal gives for each row; nothing is read from the
+ * transactions' own balance field.
+ */
+public final class LedgerSnapshot {
+
+    static final String DEFAULT_CATEGORY = "Others";
+
+    // id + epochDay + credit + debit + debitRecorded + balance + categoryId + finalized
+    private static final int BYTES_PER_ROW = 8 + 4 + 8 + 8 + 1 + 8 + 4 + 1;
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final int OBJECT_OVERHEAD_BYTES = 128;
+
+    private final long stamp;
+    private final int size;
+    private final long[] ids;
+    private final int[] epochDays;
+    private final long[] credits;
+    private final long[] debits;
+    // Whether the row has a debit at all (possibly zero), as opposed to none
+    private final boolean[] debitRecorded;
+    private final long[] balances;
+    private final int[] categoryIds;
+    private final boolean[] finalized;
+    private final String[] categories;
+    private final int finalizedCount;
+    // Indexes of the open rows, in row order; usually just the current month
+    private final int[] openRows;
+
+    private LedgerSnapshot(long stamp, int size, long[] ids, int[] epochDays, long[] credits, long[] debits,
+            boolean[] debitRecorded, long[] balances, int[] categoryIds, boolean[] finalized, String[] categories) {
+        this.stamp = stamp;
+        this.size = size;
+        this.ids = ids;
+        this.epochDays = epochDays;
+        this.credits = credits;
+        this.debits = debits;
+        this.debitRecorded = debitRecorded;
+        this.balances = balances;
+        this.categoryIds = categoryIds;
+        this.finalized = finalized;
+        this.categories = categories;
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (finalized[i]) {
+                count++;
+            }
+        }
+        this.finalizedCount = count;
+        this.openRows = new int[size - count];
+        for (int i = 0, open = 0; i < size; i++) {
+            if (!finalized[i]) {
+                openRows[open++] = i;
+            }
+        }
+    }
+
+    /**
+     * Builds a snapshot from transactions already ordered by date then id.
+     */
+    static LedgerSnapshot of(List<Transaction> ordered, long stamp) {
+        Builder builder = new Builder(ordered.size(), new ArrayList<>());
+        for (Transaction t : ordered) {
+            builder.add(t);
+        }
+        return builder.build(stamp);
+    }
+
+    /**
+     * Returns a copy in which every open row is replaced by {@code openRows}
+     * (ordered by date then id). Finalized rows are kept as-is, so a write only
+     * costs a merge of two sorted runs instead of a reload of the full history.
+     */
+    LedgerSnapshot withOpenRows(List<Transaction> openRows, long newStamp) {
+        List<String> dictionary = new ArrayList<>(List.of(categories));
+        Builder builder = new Builder(finalizedCount + openRows.size(), dictionary);
+
+        int i = nextFinalized(0);
+        int j = 0;
+        while (i < size || j < openRows.size()) {
+            boolean takeExisting;
+            if (j >= openRows.size()) {
+                takeExisting = true;
+            } else if (i >= size) {
+                takeExisting = false;
+            } else {
+                Transaction open = openRows.get(j);
+                int openDay = (int) open.getDate().toEpochDay();
+                takeExisting = epochDays[i] < openDay
+                        || (epochDays[i] == openDay && ids[i] <= idOf(open));
+            }
+
+            if (takeExisting) {
+                builder.addRow(ids[i], epochDays[i], credits[i], debits[i], debitRecorded[i], categoryIds[i], true);
+                i = nextFinalized(i + 1);
+            } else {
+                builder.add(openRows.get(j++));
+            }
+        }
+        return builder.build(newStamp);
+    }
+
+    private int nextFinalized(int from) {
+        int i = from;
+        while (i < size && !finalized[i]) {
+            i++;
+        }
+        return i;
+    }
+
+    private static long idOf(Transaction t) {
+        return t.getId() != null ? t.getId() : Long.MAX_VALUE;
+    }
+
+    public long getStamp() {
+        return stamp;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Number of finalized rows. Finalized rows never change or go away, so this
+     * only grows, and only when a month is finalized.
+     */
+    public int finalizedCount() {
+        return finalizedCount;
+    }
+
+    public int epochDay(int row) {
+        return epochDays[row];
+    }
+
+    public long balance(int row) {
+        return balances[row];
+    }
+
+    public int categoryCount() {
+        return categories.length;
+    }
+
+    public String category(int categoryId) {
+        return categories[categoryId];
+    }
+
+    /**
+     * Index of the first row dated on or after {@code epochDay}.
+     */
+    public int lowerBound(int epochDay) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (epochDays[mid] < epochDay) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    public long lastBalance() {
+        return size == 0 ? 0L : balances[size - 1];
+    }
+
+    /**
+     * Balance after the last row dated on or before {@code epochDay}, or zero.
+     */
+    public long balanceOn(int epochDay) {
+        int end = lowerBound(epochDay + 1);
+        return end == 0 ? 0L : balances[end - 1];
+    }
+
+    /**
+     * Total debits dated within [fromDay, toDay].
+     */
+    public long sumDebits(int fromDay, int toDay) {
+        long total = 0L;
+        for (int i = lowerBound(fromDay); i < size && epochDays[i] <= toDay; i++) {
+            total = Math.addExact(total, debits[i]);
+        }
+        return total;
+    }
+
+    /**
+     * Debit totals within [fromDay, toDay], indexed by category id.
+     */
+    public long[] debitsByCategory(int fromDay, int toDay) {
+        long[] totals = new long[categories.length];
+        for (int i = lowerBound(fromDay); i < size && epochDays[i] <= toDay; i++) {
+            if (debits[i] > 0) {
+                totals[categoryIds[i]] = Math.addExact(totals[categoryIds[i]], debits[i]);
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Categories with at least one row carrying a debit (zero included) within
+     * [fromDay, toDay], indexed by category id.
+     */
+    public boolean[] categoriesWithDebits(int fromDay, int toDay) {
+        boolean[] found = new boolean[categories.length];
+        for (int i = lowerBound(fromDay); i < size && epochDays[i] <= toDay; i++) {
+            if (debitRecorded[i]) {
+                found[categoryIds[i]] = true;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Per-category debit totals within the date range, keyed by category name
+     * and limited to categories with spending.
+     */
+    public Map<String, Long> debitsByCategory(LocalDate from, LocalDate to) {
+        long[] totals = debitsByCategory((int) from.toEpochDay(), (int) to.toEpochDay());
+        Map<String, Long> result = new HashMap<>();
+        for (int c = 0; c < totals.length; c++) {
+            if (totals[c] > 0) {
+                result.put(categories[c], totals[c]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Calls {@code consumer} once per day within [fromDay, toDay] that has
+     * debits, in ascending date order.
+     */
+    public void forEachDailyDebit(int fromDay, int toDay, DailyAmountConsumer consumer) {
+        int i = lowerBound(fromDay);
+        while (i < size && epochDays[i] <= toDay) {
+            int day = epochDays[i];
+            long total = 0L;
+            boolean any = false;
+            for (; i < size && epochDays[i] == day; i++) {
+                if (debits[i] > 0) {
+                    total = Math.addExact(total, debits[i]);
+                    any = true;
+                }
+            }
+            if (any) {
+                consumer.accept(day, total);
+            }
+        }
+    }
+
+    /**
+     * Calls {@code consumer} for each finalized row dated within [fromDay, toDay],
+     * in (date, id) order.
+     */
+    public void forEachFinalizedRow(int fromDay, int toDay, RowConsumer consumer) {
+        for (int i = lowerBound(fromDay); i < size && epochDays[i] <= toDay; i++) {
+            if (finalized[i]) {
+                consumer.accept(epochDays[i], credits[i], debits[i], categories[categoryIds[i]]);
+            }
+        }
+    }
+
+    /**
+     * Calls {@code consumer} for each open row dated within [fromDay, toDay], in
+     * (date, id) order. Only the open rows are visited, so months without any
+     * cost a binary search.
+     */
+    public void forEachOpenRow(int fromDay, int toDay, RowConsumer consumer) {
+        int lo = 0;
+        int hi = openRows.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (epochDays[openRows[mid]] < fromDay) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        for (int k = lo; k < openRows.length && epochDays[openRows[k]] <= toDay; k++) {
+            int i = openRows[k];
+            consumer.accept(epochDays[i], credits[i], debits[i], categories[categoryIds[i]]);
+        }
+    }
+
+    public long estimatedBytes() {
+        return estimatedBytesFor(size) + categories.length * 48L;
+    }
+
+    /**
+     * Approximate heap footprint of a snapshot with {@code rows} rows, excluding
+     * the category dictionary.
+     */
+    public static long estimatedBytesFor(int rows) {
+        return OBJECT_OVERHEAD_BYTES + 8L * ARRAY_HEADER_BYTES + (long) rows * BYTES_PER_ROW;
+    }
+
+    @FunctionalInterface
+    public interface DailyAmountConsumer {
+        void accept(int epochDay, long amount);
+    }
+
+    @FunctionalInterface
+    public interface RowConsumer {
+        void accept(int epochDay, long credit, long debit, String category);
+    }
+
+    private static final class Builder {
+        private final long[] ids;
+        private final int[] epochDays;
+        private final long[] credits;
+        private final long[] debits;
+        private final boolean[] debitRecorded;
+        private final long[] balances;
+        private final int[] categoryIds;
+        private final boolean[] finalized;
+        private final List<String> dictionary;
+        private final Map<String, Integer> dictionaryIndex = new HashMap<>();
+        private int size;
+
+        Builder(int capacity, List<String> dictionary) {
+            this.ids = new long[capacity];
+            this.epochDays = new int[capacity];
+            this.credits = new long[capacity];
+            this.debits = new long[capacity];
+            this.debitRecorded = new boolean[capacity];
+            this.balances = new long[capacity];
+            this.categoryIds = new int[capacity];
+            this.finalized = new boolean[capacity];
+            this.dictionary = dictionary;
+            for (int c = 0; c < dictionary.size(); c++) {
+                dictionaryIndex.put(dictionary.get(c), c);
+            }
+        }
+
+        void add(Transaction t) {
+            String category = t.getCategory() != null ? t.getCategory() : DEFAULT_CATEGORY;
+            Integer categoryId = dictionaryIndex.get(category);
+            if (categoryId == null) {
+                categoryId = dictionary.size();
+                dictionary.add(category);
+                dictionaryIndex.put(category, categoryId);
+            }
+            addRow(idOf(t), (int) t.getDate().toEpochDay(), Money.toMinorUnits(t.getCredit()),
+                    Money.toMinorUnits(t.getDebit()), t.getDebit() != null, categoryId, t.isFinalized());
+        }
+
+        void addRow(long id, int epochDay, long credit, long debit, boolean hasDebit, int categoryId,
+                boolean isFinalized) {
+            long previous = size == 0 ? 0L : balances[size - 1];
+            ids[size] = id;
+            epochDays[size] = epochDay;
+            credits[size] = credit;
+            debits[size] = debit;
+            debitRecorded[size] = hasDebit;
+            balances[size] = Math.subtractExact(Math.addExact(previous, credit), debit);
+            categoryIds[size] = categoryId;
+            finalized[size] = isFinalized;
+            size++;
+        }
+
+        LedgerSnapshot build(long stamp) {
+            return new LedgerSnapshot(stamp, size, ids, epochDays, credits, debits, debitRecorded, balances,
+                    categoryIds, finalized, dictionary.toArray(new String[0]));
+        }
+    }
+}
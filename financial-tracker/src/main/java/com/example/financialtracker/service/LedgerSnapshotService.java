@@ -0,0 +1,143 @@
+package com.example.financialtracker.service;
+
+import com.example.financialtracker.model.Transaction;
+import com.example.financialtracker.model.User;
+import com.example.financialtracker.repository.TransactionRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds one {@link LedgerSnapshot} per user for the analytic read paths
+ * (advisor, reports, budget status).
+ *
+ * Snapshots are built lazily on first read, patched from the domain events of
+ * writes that change the open rows, and evicted by total estimated size once
+ * the configured memory budget is reached. Writes that cannot be applied as a
+ * patch (finalization, deletes of history) simply invalidate the entry.
+ */
+@Service
+@Order(1)
+public class LedgerSnapshotService implements DomainEventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerSnapshotService.class);
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<Long, LedgerSnapshot> snapshots;
+    private final AtomicLong stamps = new AtomicLong();
+
+    public LedgerSnapshotService(TransactionRepository transactionRepository, TransactionTemplate transactionTemplate,
+            @Value("${app.ledger.snapshot.max-bytes:67108864}") long maxBytes,
+            @Value("${app.ledger.snapshot.expire-minutes:10}") long expireMinutes) {
+        this.transactionRepository = transactionRepository;
+        this.transactionTemplate = transactionTemplate;
+        // Expiry bounds staleness for writes committed by other replicas
+        this.snapshots = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Long userId, LedgerSnapshot snapshot) -> (int) Math.min(Integer.MAX_VALUE,
+                        snapshot.estimatedBytes()))
+                .expireAfterWrite(expireMinutes, TimeUnit.MINUTES)
+                .build();
+    }
+
+    public LedgerSnapshot getSnapshot(User user) {
+        return snapshots.get(user.getId(), id -> load(user));
+    }
+
+    private LedgerSnapshot load(User user) {
+        long stamp = stamps.incrementAndGet();
+        List<Transaction> transactions = transactionRepository.findAllByUserOrderByDateAscIdAsc(user);
+        LedgerSnapshot snapshot = LedgerSnapshot.of(transactions, stamp);
+        if (log.isDebugEnabled()) {
+            log.debug("Built ledger snapshot for user {}: {} rows, ~{} bytes (~{} KB per 10k rows)", user.getId(),
+                    snapshot.size(), snapshot.estimatedBytes(), LedgerSnapshot.estimatedBytesFor(10_000) / 1024);
+        }
+        return snapshot;
+    }
+
+    @Override
+    public String consumerName() {
+        return "rollups";
+    }
+
+    @Override
+    public void onEvent(DomainEvent event) {
+        if (event instanceof DomainEvent.MonthFinalized) {
+            invalidate(event.user());
+        } else if (event.changesLedger()) {
+            refreshOpenRows(event.user());
+        }
+    }
+
+    /**
+     * Re-reads the user's open rows into their snapshot, if one is cached.
+     * Balances are recomputed from the merged rows.
+     */
+    private void refreshOpenRows(User user) {
+        Long userId = user.getId();
+        if (snapshots.getIfPresent(userId) == null) {
+            // A load still in flight is not visible here and may have read the rows before this commit
+            drop(userId);
+            return;
+        }
+        long stamp = stamps.incrementAndGet();
+        // A read-write transaction keeps the query on the primary, which already
+        // has the commit this event is about
+        List<Transaction> openRows = transactionTemplate.execute(
+                status -> transactionRepository.findAllByUserAndFinalizedOrderByDateAscIdAsc(user, false));
+        patch(userId, openRows, stamp);
+    }
+
+    private void patch(Long userId, List<Transaction> openRows, long stamp) {
+        snapshots.asMap().computeIfPresent(userId, (id, current) -> {
+            // A snapshot loaded after this refresh started may or may not contain it;
+            // drop it rather than risk going backwards
+            if (stamp <= current.getStamp()) {
+                return null;
+            }
+            return current.withOpenRows(openRows, stamp);
+        });
+    }
+
+    /**
+     * Drops the user's snapshot after commit (or immediately outside a
+     * transaction).
+     */
+    public void invalidate(User user) {
+        Long userId = user.getId();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            drop(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                drop(userId);
+            }
+        });
+    }
+
+    // Cache.invalidate leaves a load in flight alone; removing through the map waits for it and
+    // drops what it stored
+    private void drop(Long userId) {
+        snapshots.asMap().remove(userId);
+    }
+
+    public long estimatedBytes() {
+        return snapshots.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.financialtracker.service;
+
+/**
+ * One server-sent event for a user's open streams. {@code type} is the SSE
+ * event name ({@code balance}, {@code budget} or {@code transaction}),
+ * {@code data} the JSON body, rendered once by the publisher. Updates with the
+ * same {@code key} supersede each other, so a slow stream only ever holds the
+ * latest one per key.
+ */
+public record LiveUpdate(Long userId, String type, String key, String data) {
+}
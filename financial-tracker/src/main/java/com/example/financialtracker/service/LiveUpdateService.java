@@ -0,0 +1,342 @@
+package com.example.financialtracker.service;
+
+import com.example.financialtracker.model.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes balance, budget and transaction updates to the user's open
+ * server-sent event streams, so dashboards do not have to poll.
+ *
+ * Ledger writes arrive as {@link DomainEvent}s; other updates are published
+ * after the writing transaction commits. Both go through the
+ * {@link EventBroker}, so a stream held by another replica receives them
+ * too. Each stream has its own pending set, drained by a small pool of sender
+ * threads: a newer update replaces a pending one with the same key, and a
+ * stream whose backlog still exceeds {@code max-pending} distinct keys is
+ * closed. A slow client therefore never holds more than a bounded amount of
+ * memory, and when it reconnects it refetches the current state.
+ *
+ * Metrics: {@code app.live-updates.streams} (open streams on this node),
+ * {@code app.live-updates.coalesced} and {@code app.live-updates.evicted}.
+ */
+@Service
+@Order(4)
+public class LiveUpdateService implements DomainEventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveUpdateService.class);
+    private static final String HEARTBEAT = "heartbeat";
+    private static final int DRAIN_BATCH = 32;
+
+    private final EventBroker broker;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Long, Deque<Stream>> streams = new ConcurrentHashMap<>();
+    private final AtomicInteger openStreams = new AtomicInteger();
+    private final Counter coalesced;
+    private final Counter evicted;
+    private final ExecutorService senders;
+    private final long timeoutMillis;
+    private final int maxStreamsPerUser;
+    private final int maxPending;
+
+    public LiveUpdateService(EventBroker broker, ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${app.live-updates.timeout-minutes:30}") long timeoutMinutes,
+            @Value("${app.live-updates.max-streams-per-user:5}") int maxStreamsPerUser,
+            @Value("${app.live-updates.max-pending:64}") int maxPending,
+            @Value("${app.live-updates.sender-threads:4}") int senderThreads) {
+        this.broker = broker;
+        this.timeoutMillis = timeoutMinutes * 60_000L;
+        this.maxStreamsPerUser = maxStreamsPerUser;
+        this.maxPending = maxPending;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "live-updates-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        registry.gauge("app.live-updates.streams", openStreams);
+        this.coalesced = Counter.builder("app.live-updates.coalesced")
+                .description("Pending updates replaced by a newer one before a slow stream sent them")
+                .register(registry);
+        this.evicted = Counter.builder("app.live-updates.evicted")
+                .description("Streams closed because their backlog exceeded the pending limit")
+                .register(registry);
+        broker.subscribe(this::dispatch);
+    }
+
+    /**
+     * Publishes an update for the user's streams once the current transaction
+     * commits (immediately when there is none). The data is rendered now, so
+     * later changes to the objects it came from are not picked up.
+     */
+    public void publishAfterCommit(User user, String type, String key, Map<String, Object> data) {
+        LiveUpdate update;
+        try {
+            update = new LiveUpdate(user.getId(), type, key, objectMapper.writeValueAsString(data));
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to render {} update for user {}: {}", type, user.getId(), e.getMessage());
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(update);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(update);
+            }
+        });
+    }
+
+    private void publish(LiveUpdate update) {
+        try {
+            broker.publish(update);
+        } catch (Exception e) {
+            log.warn("Failed to publish {} update for user {}: {}", update.type(), update.userId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public String consumerName() {
+        return "live-updates";
+    }
+
+    @Override
+    public void onEvent(DomainEvent event) {
+        User user = event.user();
+        if (event instanceof DomainEvent.TransactionCreated created) {
+            publishAfterCommit(user, "balance", "balance", Map.of("balance", created.balanceAfter()));
+            publishTransaction(user, "created", created.transaction());
+        } else if (event instanceof DomainEvent.TransactionUpdated updated) {
+            publishAfterCommit(user, "balance", "balance", Map.of("balance", updated.balanceAfter()));
+            publishTransaction(user, "updated", updated.transaction());
+        } else if (event instanceof DomainEvent.TransactionDeleted deleted) {
+            publishAfterCommit(user, "balance", "balance", Map.of("balance", deleted.balanceAfter()));
+            publishAfterCommit(user, "transaction", "transaction:" + deleted.transactionId(),
+                    Map.of("action", "deleted", "id", deleted.transactionId()));
+        } else if (event instanceof DomainEvent.MonthFinalized finalized) {
+            publishAfterCommit(user, "month", "month", Map.of("action", "finalized",
+                    "month", finalized.month().toString(),
+                    "closingBalance", finalized.closingBalance()));
+        }
+    }
+
+    private void publishTransaction(User user, String action, DomainEvent.TransactionSnapshot transaction) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("action", action);
+        data.put("id", transaction.id());
+        data.put("date", Objects.toString(transaction.date(), null));
+        data.put("usedFor", transaction.usedFor());
+        data.put("category", transaction.category());
+        data.put("credit", transaction.credit());
+        data.put("debit", transaction.debit());
+        publishAfterCommit(user, "transaction", "transaction:" + transaction.id(), data);
+    }
+
+    /**
+     * Opens a stream for the user. The oldest stream is closed when the user
+     * already has the maximum number open.
+     */
+    public SseEmitter open(User user) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Stream stream = open(user.getId(), new EmitterSink(emitter));
+        emitter.onCompletion(stream::detach);
+        emitter.onTimeout(() -> {
+            stream.detach();
+            emitter.complete();
+        });
+        emitter.onError(error -> stream.detach());
+        return emitter;
+    }
+
+    Stream open(Long userId, Sink sink) {
+        Stream stream = new Stream(userId, sink);
+        Deque<Stream> userStreams = streams.compute(userId, (id, existing) -> {
+            Deque<Stream> deque = existing != null ? existing : new ConcurrentLinkedDeque<>();
+            deque.add(stream);
+            return deque;
+        });
+        openStreams.incrementAndGet();
+        Stream oldest;
+        while (userStreams.size() > maxStreamsPerUser && (oldest = userStreams.peekFirst()) != null) {
+            oldest.close();
+        }
+        return stream;
+    }
+
+    private void dispatch(LiveUpdate update) {
+        Deque<Stream> userStreams = streams.get(update.userId());
+        if (userStreams != null) {
+            userStreams.forEach(stream -> stream.offer(update));
+        }
+    }
+
+    /** Keeps idle streams open through proxies and detects clients that went away. */
+    @Scheduled(fixedDelayString = "${app.live-updates.heartbeat-ms:25000}")
+    public void heartbeat() {
+        streams.forEach((userId, userStreams) -> userStreams
+                .forEach(stream -> stream.offer(new LiveUpdate(userId, HEARTBEAT, HEARTBEAT, null))));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        streams.values().forEach(userStreams -> userStreams.forEach(Stream::close));
+        senders.shutdownNow();
+    }
+
+    /** Where a stream's updates go; the server-sent event emitter in production. */
+    interface Sink {
+        void send(LiveUpdate update) throws IOException;
+
+        void close();
+    }
+
+    final class Stream {
+        private final Long userId;
+        private final Sink sink;
+        private final LinkedHashMap<String, LiveUpdate> pending = new LinkedHashMap<>();
+        private boolean draining;
+        private boolean closed;
+
+        private Stream(Long userId, Sink sink) {
+            this.userId = userId;
+            this.sink = sink;
+        }
+
+        void offer(LiveUpdate update) {
+            boolean overflow = false;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (pending.remove(update.key()) != null) {
+                    coalesced.increment();
+                } else if (pending.size() >= maxPending) {
+                    overflow = true;
+                }
+                if (!overflow) {
+                    pending.put(update.key(), update);
+                    if (draining) {
+                        return;
+                    }
+                    draining = true;
+                }
+            }
+            if (overflow) {
+                evicted.increment();
+                log.info("Closing live update stream of user {}: more than {} updates pending", userId, maxPending);
+                close();
+            } else {
+                schedule();
+            }
+        }
+
+        private void schedule() {
+            try {
+                senders.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                close();
+            }
+        }
+
+        private void drain() {
+            for (int sent = 0; sent < DRAIN_BATCH; sent++) {
+                LiveUpdate next;
+                synchronized (this) {
+                    Iterator<LiveUpdate> it = pending.values().iterator();
+                    if (closed || !it.hasNext()) {
+                        draining = false;
+                        return;
+                    }
+                    next = it.next();
+                    it.remove();
+                }
+                try {
+                    sink.send(next);
+                } catch (Exception e) {
+                    log.debug("Live update stream of user {} failed: {}", userId, e.getMessage());
+                    close();
+                    return;
+                }
+            }
+            // Let other streams use the sender before continuing with this one
+            schedule();
+        }
+
+        /** Closes the stream and completes its response. */
+        void close() {
+            if (detach()) {
+                sink.close();
+            }
+        }
+
+        /** Stops sending to the stream; returns whether it was still registered. */
+        boolean detach() {
+            synchronized (this) {
+                closed = true;
+                pending.clear();
+            }
+            boolean[] removed = new boolean[1];
+            streams.computeIfPresent(userId, (id, userStreams) -> {
+                removed[0] = userStreams.remove(this);
+                return userStreams.isEmpty() ? null : userStreams;
+            });
+            if (removed[0]) {
+                openStreams.decrementAndGet();
+            }
+            return removed[0];
+        }
+    }
+
+    private static final class EmitterSink implements Sink {
+        private final SseEmitter emitter;
+
+        EmitterSink(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void send(LiveUpdate update) throws IOException {
+            if (HEARTBEAT.equals(update.type())) {
+                emitter.send(SseEmitter.event().comment(HEARTBEAT));
+            } else {
+                emitter.send(SseEmitter.event().name(update.type()).data(update.data(), MediaType.APPLICATION_JSON));
+            }
+        }
+
+        @Override
+        public void close() {
+            emitter.complete();
+        }
+    }
+}
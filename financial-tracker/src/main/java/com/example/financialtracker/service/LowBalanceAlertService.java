@@ -0,0 +1,47 @@
+package com.example.financialtracker.service;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+
+/**
+ * Emails the user when a write takes their balance from positive to zero or
+ * below. Only the crossing alerts; further writes below zero do not.
+ */
+@Service
+@Order(6)
+public class LowBalanceAlertService implements DomainEventListener {
+
+    private final EmailService emailService;
+
+    public LowBalanceAlertService(EmailService emailService) {
+        this.emailService = emailService;
+    }
+
+    @Override
+    public String consumerName() {
+        return "emails";
+    }
+
+    @Override
+    public void onEvent(DomainEvent event) {
+        BigDecimal before;
+        BigDecimal after;
+        if (event instanceof DomainEvent.TransactionCreated created) {
+            before = created.balanceBefore();
+            after = created.balanceAfter();
+        } else if (event instanceof DomainEvent.TransactionUpdated updated) {
+            before = updated.balanceBefore();
+            after = updated.balanceAfter();
+        } else if (event instanceof DomainEvent.TransactionDeleted deleted) {
+            before = deleted.balanceBefore();
+            after = deleted.balanceAfter();
+        } else {
+            return;
+        }
+        if (before.signum() > 0 && after.signum() <= 0) {
+            emailService.sendLowBalanceAlert(event.user().getEmail(), after);
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.example.financialtracker.service;
+
+import com.example.financialtracker.util.SqlFingerprint;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregates every JDBC statement by (fingerprint, caller): execution count,
+ * total and max time, and rows returned or affected. The caller is the
+ * innermost controller or service method on the stack, or the handler of the
+ * current request when the statement comes from lazy loading during response
+ * rendering, which is where N+1 fetches show up.
+ *
+ * Statements slower than the threshold get their EXPLAIN plan captured once,
+ * asynchronously on a separate connection. The plan is made with the values
+ * the statement ran with, which are masked in the stored plan's conditions. Everything is readable through the
+ * {@code queries} actuator endpoint and published as {@code app.db.statement}
+ * metrics.
+ */
+@Service
+public class QueryStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryStatsService.class);
+
+    private static final String BASE_PACKAGE = "com.example.financialtracker.";
+    private static final String OVERFLOW = "other";
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private final Map<Key, Stats> stats = new ConcurrentHashMap<>();
+    private final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final long slowThresholdNanos;
+    private final int maxEntries;
+    private final ThreadPoolExecutor explainExecutor;
+
+    public QueryStatsService(ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${app.query-stats.slow-threshold-ms:200}") long slowThresholdMs,
+            @Value("${app.query-stats.max-entries:1000}") int maxEntries) {
+        this.meterRegistry = meterRegistry;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMs);
+        this.maxEntries = maxEntries;
+        // One thread and a short queue: plans are best effort and must never back up the app
+        this.explainExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(16), runnable -> {
+                    Thread thread = new Thread(runnable, "query-explain");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    /**
+     * Records one execution and returns the entry so rows read later from the
+     * result set can be added to it.
+     *
+     * @param explainSource data source for capturing the plan of a slow
+     *                      statement, or {@code null} to skip it
+     */
+    public Stats record(String sql, long elapsedNanos, long rows, List<Object> parameters,
+            DataSource explainSource) {
+        String fingerprint = fingerprints.get(sql);
+        if (fingerprint == null) {
+            fingerprint = SqlFingerprint.normalize(sql);
+            // Statements with inlined literals would grow this without bound
+            if (fingerprints.size() < maxEntries) {
+                fingerprints.put(sql, fingerprint);
+            }
+        }
+        Key key = new Key(fingerprint, caller());
+        Stats entry = stats.get(key);
+        if (entry == null) {
+            if (stats.size() >= maxEntries) {
+                key = new Key(OVERFLOW, OVERFLOW);
+            }
+            entry = stats.computeIfAbsent(key, Stats::new);
+        }
+        entry.record(elapsedNanos, rows);
+
+        if (elapsedNanos >= slowThresholdNanos && explainSource != null && isExplainable(fingerprint)
+                && entry.explainRequested.compareAndSet(false, true)) {
+            List<Object> bound = parameters != null ? new ArrayList<>(parameters) : List.of();
+            Stats target = entry;
+            explainExecutor.execute(() -> target.explainPlan = explain(explainSource, sql, bound));
+        }
+        return entry;
+    }
+
+    public List<Stats> getStats() {
+        List<Stats> result = new ArrayList<>(stats.values());
+        result.sort(Comparator.comparingLong(Stats::getTotalNanos).reversed());
+        return result;
+    }
+
+    public void reset() {
+        stats.values().forEach(Stats::removeMeters);
+        stats.clear();
+        fingerprints.clear();
+    }
+
+    static String caller() {
+        String frame = STACK_WALKER.walk(frames -> frames
+                .filter(f -> f.getClassName().startsWith(BASE_PACKAGE)
+                        && !f.getClassName().contains("$$")
+                        && (f.getClassName().contains(".service.") || f.getClassName().contains(".controller."))
+                        && !f.getClassName().equals(QueryStatsService.class.getName()))
+                .findFirst()
+                .map(f -> simpleName(f.getClassName()) + "." + f.getMethodName())
+                .orElse(null));
+        if (frame != null) {
+            return frame;
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null && attributes.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST) instanceof HandlerMethod handler) {
+            // No application frame left: lazy loading while the response is serialized
+            return handler.getBeanType().getSimpleName() + "." + handler.getMethod().getName() + " (render)";
+        }
+        return OVERFLOW;
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    private static boolean isExplainable(String fingerprint) {
+        return fingerprint.startsWith("select") || fingerprint.startsWith("with");
+    }
+
+    private static String explain(DataSource dataSource, String sql, List<Object> parameters) {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setReadOnly(true);
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 0; i < parameters.size(); i++) {
+                    Object value = parameters.get(i);
+                    if (value == null) {
+                        statement.setNull(i + 1, Types.NULL);
+                    } else {
+                        statement.setObject(i + 1, value);
+                    }
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        if (plan.length() > 0) {
+                            plan.append('\n');
+                        }
+                        plan.append(redact(rs.getString(1)));
+                    }
+                }
+                return plan.toString();
+            } finally {
+                if (!connection.getAutoCommit()) {
+                    connection.rollback();
+                }
+            }
+        } catch (Exception e) {
+            log.debug("Could not capture plan for {}", sql, e);
+            // Database error messages can quote the bound values
+            return "unavailable: " + e.getClass().getSimpleName();
+        }
+    }
+
+    /**
+     * One plan line with the literals in its condition masked, e.g.
+     * {@code Index Cond: (user_id = ?)}. Node lines are kept whole, since their
+     * numbers are costs and row estimates.
+     */
+    static String redact(String planLine) {
+        int cond = planLine.indexOf("Cond: ");
+        int filter = planLine.indexOf("Filter: ");
+        if (cond < 0 && filter < 0) {
+            return planLine;
+        }
+        // The first label: a later one could be inside a literal
+        int label = cond < 0 ? filter : filter < 0 ? cond : Math.min(cond, filter);
+        int start = planLine.indexOf(": ", label) + 2;
+        return planLine.substring(0, start) + SqlFingerprint.maskLiterals(planLine.substring(start));
+    }
+
+    record Key(String fingerprint, String caller) {
+    }
+
+    public final class Stats {
+        private final String fingerprint;
+        private final String caller;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+        private final LongAdder rows = new LongAdder();
+        private final AtomicBoolean explainRequested = new AtomicBoolean();
+        private volatile String explainPlan;
+        private final Timer timer;
+        private final DistributionSummary rowSummary;
+
+        Stats(Key key) {
+            this.fingerprint = key.fingerprint();
+            this.caller = key.caller();
+            MeterRegistry registry = meterRegistry.getIfAvailable();
+            if (registry != null) {
+                String id = SqlFingerprint.id(fingerprint);
+                this.timer = Timer.builder("app.db.statement")
+                        .tag("fingerprint", id)
+                        .tag("caller", caller)
+                        .register(registry);
+                this.rowSummary = DistributionSummary.builder("app.db.statement.rows")
+                        .tag("fingerprint", id)
+                        .tag("caller", caller)
+                        .register(registry);
+            } else {
+                this.timer = null;
+                this.rowSummary = null;
+            }
+        }
+
+        void record(long elapsedNanos, long rowCount) {
+            count.increment();
+            totalNanos.add(elapsedNanos);
+            maxNanos.accumulate(elapsedNanos);
+            if (timer != null) {
+                timer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+            }
+            addRows(rowCount);
+        }
+
+        public void addRows(long rowCount) {
+            if (rowCount > 0) {
+                rows.add(rowCount);
+                if (rowSummary != null) {
+                    rowSummary.record(rowCount);
+                }
+            }
+        }
+
+        private void removeMeters() {
+            MeterRegistry registry = meterRegistry.getIfAvailable();
+            if (registry != null && timer != null) {
+                registry.remove(timer);
+                registry.remove(rowSummary);
+            }
+        }
+
+        public String getId() {
+            return SqlFingerprint.id(fingerprint);
+        }
+
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        public String getCaller() {
+            return caller;
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public double getTotalMs() {
+            return getTotalNanos() / 1_000_000.0;
+        }
+
+        public double getMeanMs() {
+            long n = getCount();
+            return n == 0 ? 0.0 : getTotalMs() / n;
+        }
+
+        public double getMaxMs() {
+            return maxNanos.get() / 1_000_000.0;
+        }
+
+        public long getRows() {
+            return rows.sum();
+        }
+
+        public String getExplainPlan() {
+            return explainPlan;
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package com.example.financialtracker.service;
+
+import com.example.financialtracker.model.User;
+import com.example.financialtracker.util.Money;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Reports over a range of months (trends, year-over-year) in one call.
+ *
+ * The range is assembled from per-month partials: credit and debit totals per
+ * day plus debits per category. The part of a month that comes from finalized
+ * rows never changes, so it is cached with no expiry, keyed by the number of
+ * finalized rows the ledger had; finalizing a month changes that number, and
+ * partials from before simply stop being asked for. Open rows (normally just
+ * the current month) are added on top on every request. Months missing from
+ * the cache are computed in parallel.
+ */
+@Service
+public class RangeReportService {
+
+    public static final int MAX_MONTHS = 120;
+
+    public enum Granularity {
+        DAY, WEEK, MONTH, CATEGORY
+    }
+
+    public enum Comparison {
+        NONE, PREVIOUS, YEAR
+    }
+
+    private final LedgerSnapshotService ledgerSnapshotService;
+    private final Cache<PartialKey, MonthPartial> finalizedPartials;
+    private final ExecutorService fanOut;
+
+    public RangeReportService(LedgerSnapshotService ledgerSnapshotService,
+            @Value("${app.reports.range.max-partials:100000}") long maxPartials,
+            @Value("${app.reports.range.threads:4}") int threads) {
+        this.ledgerSnapshotService = ledgerSnapshotService;
+        this.finalizedPartials = Caffeine.newBuilder().maximumSize(maxPartials).build();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.fanOut = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "report-fan-out-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getRangeReport(User user, YearMonth from, YearMonth to, Granularity granularity,
+            Comparison comparison) {
+        LedgerSnapshot snapshot = ledgerSnapshotService.getSnapshot(user);
+        int months = (int) from.until(to, ChronoUnit.MONTHS) + 1;
+
+        YearMonth compareFrom = null;
+        YearMonth compareTo = null;
+        if (comparison == Comparison.PREVIOUS) {
+            compareFrom = from.minusMonths(months);
+            compareTo = from.minusMonths(1);
+        } else if (comparison == Comparison.YEAR) {
+            compareFrom = from.minusYears(1);
+            compareTo = to.minusYears(1);
+        }
+
+        // One fan-out for both periods
+        List<YearMonth> wanted = new ArrayList<>(monthsBetween(from, to));
+        if (compareFrom != null) {
+            for (YearMonth month : monthsBetween(compareFrom, compareTo)) {
+                if (!wanted.contains(month)) {
+                    wanted.add(month);
+                }
+            }
+        }
+        Map<YearMonth, MonthPartial> partials = partials(user, snapshot, wanted);
+
+        Map<String, Object> report = period(snapshot, partials, from, to, granularity);
+        report.put("granularity", granularity.name().toLowerCase());
+        if (compareFrom != null) {
+            Map<String, Object> previous = period(snapshot, partials, compareFrom, compareTo, granularity);
+            previous.put("change", change(totals(partials, from, to), totals(partials, compareFrom, compareTo)));
+            report.put("comparison", previous);
+        }
+        return report;
+    }
+
+    private Map<YearMonth, MonthPartial> partials(User user, LedgerSnapshot snapshot, List<YearMonth> months) {
+        Map<YearMonth, MonthPartial> finalizedParts = new HashMap<>();
+        List<YearMonth> missing = new ArrayList<>();
+        for (YearMonth month : months) {
+            MonthPartial cached = finalizedPartials.getIfPresent(key(user, snapshot, month));
+            if (cached != null) {
+                finalizedParts.put(month, cached);
+            } else {
+                missing.add(month);
+            }
+        }
+
+        if (missing.size() == 1) {
+            YearMonth month = missing.get(0);
+            finalizedParts.put(month, finalizedPartial(user, snapshot, month));
+        } else if (!missing.isEmpty()) {
+            // The snapshot is immutable, so the months can be summed side by side
+            List<CompletableFuture<MonthPartial>> futures = new ArrayList<>(missing.size());
+            for (YearMonth month : missing) {
+                futures.add(CompletableFuture.supplyAsync(() -> finalizedPartial(user, snapshot, month), fanOut));
+            }
+            for (int i = 0; i < missing.size(); i++) {
+                finalizedParts.put(missing.get(i), futures.get(i).join());
+            }
+        }
+
+        Map<YearMonth, MonthPartial> result = new HashMap<>();
+        for (YearMonth month : months) {
+            MonthPartial open = MonthPartial.sum(month, consumer -> snapshot
+                    .forEachOpenRow(firstDay(month), lastDay(month), consumer));
+            result.put(month, finalizedParts.get(month).plus(open));
+        }
+        return result;
+    }
+
+    private MonthPartial finalizedPartial(User user, LedgerSnapshot snapshot, YearMonth month) {
+        return finalizedPartials.get(key(user, snapshot, month), key -> MonthPartial.sum(month,
+                consumer -> snapshot.forEachFinalizedRow(firstDay(month), lastDay(month), consumer)));
+    }
+
+    private static PartialKey key(User user, LedgerSnapshot snapshot, YearMonth month) {
+        return new PartialKey(user.getId(), snapshot.finalizedCount(), month);
+    }
+
+    private static Map<String, Object> period(LedgerSnapshot snapshot, Map<YearMonth, MonthPartial> partials,
+            YearMonth from, YearMonth to, Granularity granularity) {
+        Map<String, Object> period = new LinkedHashMap<>();
+        period.put("from", from.toString());
+        period.put("to", to.toString());
+        List<Map<String, Object>> buckets = new ArrayList<>();
+
+        if (granularity == Granularity.CATEGORY) {
+            Map<String, Long> byCategory = new HashMap<>();
+            for (YearMonth month : monthsBetween(from, to)) {
+                partials.get(month).debitsByCategory().forEach((name, amount) -> byCategory.merge(name, amount,
+                        Math::addExact));
+            }
+            byCategory.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                    .forEach(entry -> {
+                        Map<String, Object> bucket = new LinkedHashMap<>();
+                        bucket.put("category", entry.getKey());
+                        bucket.put("debits", Money.fromMinorUnits(entry.getValue()));
+                        buckets.add(bucket);
+                    });
+        } else if (granularity == Granularity.MONTH) {
+            for (YearMonth month : monthsBetween(from, to)) {
+                MonthPartial partial = partials.get(month);
+                buckets.add(bucket(month.toString(), partial.credits(), partial.debits(),
+                        snapshot.balanceOn(lastDay(month))));
+            }
+        } else {
+            // Days and weeks, in date order; weeks run Monday to Sunday and are
+            // cut at the ends of the range
+            TreeMap<Integer, long[]> totals = new TreeMap<>();
+            for (YearMonth month : monthsBetween(from, to)) {
+                MonthPartial partial = partials.get(month);
+                for (int d = 0; d < partial.dayCredits().length; d++) {
+                    LocalDate date = month.atDay(d + 1);
+                    int key = granularity == Granularity.DAY ? (int) date.toEpochDay()
+                            : (int) Math.max(date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                                    .toEpochDay(), firstDay(from));
+                    long[] sums = totals.computeIfAbsent(key, k -> new long[2]);
+                    sums[0] = Math.addExact(sums[0], partial.dayCredits()[d]);
+                    sums[1] = Math.addExact(sums[1], partial.dayDebits()[d]);
+                }
+            }
+            int last = lastDay(to);
+            totals.forEach((start, sums) -> {
+                LocalDate date = LocalDate.ofEpochDay(start);
+                if (granularity == Granularity.DAY) {
+                    // Only days with activity, as in the monthly summary
+                    if (sums[0] != 0 || sums[1] != 0) {
+                        buckets.add(bucket(date.toString(), sums[0], sums[1], snapshot.balanceOn(start)));
+                    }
+                } else {
+                    int end = (int) Math.min(date.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY)).toEpochDay(),
+                            last);
+                    String label = String.format("%d-W%02d", date.get(IsoFields.WEEK_BASED_YEAR),
+                            date.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+                    Map<String, Object> bucket = bucket(label, sums[0], sums[1], snapshot.balanceOn(end));
+                    bucket.put("start", date.toString());
+                    bucket.put("end", LocalDate.ofEpochDay(end).toString());
+                    buckets.add(bucket);
+                }
+            });
+        }
+
+        long[] totals = totals(partials, from, to);
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("credits", Money.fromMinorUnits(totals[0]));
+        summary.put("debits", Money.fromMinorUnits(totals[1]));
+        summary.put("net", Money.fromMinorUnits(totals[0] - totals[1]));
+        period.put("buckets", buckets);
+        period.put("totals", summary);
+        return period;
+    }
+
+    private static Map<String, Object> bucket(String period, long credits, long debits, long closingBalance) {
+        Map<String, Object> bucket = new LinkedHashMap<>();
+        bucket.put("period", period);
+        bucket.put("credits", Money.fromMinorUnits(credits));
+        bucket.put("debits", Money.fromMinorUnits(debits));
+        bucket.put("net", Money.fromMinorUnits(credits - debits));
+        bucket.put("closingBalance", Money.fromMinorUnits(closingBalance));
+        return bucket;
+    }
+
+    private static long[] totals(Map<YearMonth, MonthPartial> partials, YearMonth from, YearMonth to) {
+        long credits = 0L;
+        long debits = 0L;
+        for (YearMonth month : monthsBetween(from, to)) {
+            credits = Math.addExact(credits, partials.get(month).credits());
+            debits = Math.addExact(debits, partials.get(month).debits());
+        }
+        return new long[] { credits, debits };
+    }
+
+    /** Percentage change per total against the comparison period; null where that was zero. */
+    private static Map<String, Object> change(long[] current, long[] previous) {
+        Map<String, Object> change = new LinkedHashMap<>();
+        change.put("credits", percentChange(current[0], previous[0]));
+        change.put("debits", percentChange(current[1], previous[1]));
+        change.put("net", percentChange(current[0] - current[1], previous[0] - previous[1]));
+        return change;
+    }
+
+    private static BigDecimal percentChange(long current, long previous) {
+        if (previous == 0) {
+            return null;
+        }
+        return BigDecimal.valueOf(current - previous)
+                .multiply(BigDecimal.valueOf(100))
+                .divide(BigDecimal.valueOf(Math.abs(previous)), 1, RoundingMode.HALF_UP);
+    }
+
+    private static List<YearMonth> monthsBetween(YearMonth from, YearMonth to) {
+        List<YearMonth> months = new ArrayList<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            months.add(month);
+        }
+        return months;
+    }
+
+    private static int firstDay(YearMonth month) {
+        return (int) month.atDay(1).toEpochDay();
+    }
+
+    private static int lastDay(YearMonth month) {
+        return (int) month.atEndOfMonth().toEpochDay();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fanOut.shutdownNow();
+    }
+
+    private record PartialKey(Long userId, int finalizedCount, YearMonth month) {
+    }
+
+    /** One month's totals in minor units; the arrays are indexed by day of month - 1. */
+    record MonthPartial(long[] dayCredits, long[] dayDebits, Map<String, Long> debitsByCategory) {
+
+        static MonthPartial sum(YearMonth month, Consumer<LedgerSnapshot.RowConsumer> rows) {
+            int firstDay = firstDay(month);
+            long[] dayCredits = new long[month.lengthOfMonth()];
+            long[] dayDebits = new long[month.lengthOfMonth()];
+            Map<String, Long> byCategory = new HashMap<>();
+            rows.accept((epochDay, credit, debit, category) -> {
+                int d = epochDay - firstDay;
+                dayCredits[d] = Math.addExact(dayCredits[d], credit);
+                dayDebits[d] = Math.addExact(dayDebits[d], debit);
+                if (debit > 0) {
+                    byCategory.merge(category, debit, Math::addExact);
+                }
+            });
+            return new MonthPartial(dayCredits, dayDebits, Map.copyOf(byCategory));
+        }
+
+        MonthPartial plus(MonthPartial other) {
+            if (other.credits() == 0 && other.debits() == 0) {
+                return this;
+            }
+            long[] credits = dayCredits.clone();
+            long[] debits = dayDebits.clone();
+            for (int d = 0; d < credits.length; d++) {
+                credits[d] = Math.addExact(credits[d], other.dayCredits[d]);
+                debits[d] = Math.addExact(debits[d], other.dayDebits[d]);
+            }
+            Map<String, Long> byCategory = new HashMap<>(debitsByCategory);
+            other.debitsByCategory.forEach((name, amount) -> byCategory.merge(name, amount, Math::addExact));
+            return new MonthPartial(credits, debits, Map.copyOf(byCategory));
+        }
+
+        long credits() {
+            long total = 0L;
+            for (long amount : dayCredits) {
+                total = Math.addExact(total, amount);
+            }
+            return total;
+        }
+
+        long debits() {
+            long total = 0L;
+            for (long amount : dayDebits) {
+                total = Math.addExact(total, amount);
+            }
+            return total;
+        }
+    }
+}
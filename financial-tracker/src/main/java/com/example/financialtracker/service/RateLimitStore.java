@@ -0,0 +1,20 @@
+package com.example.financialtracker.service;
+
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+
+import java.util.function.Supplier;
+
+/**
+ * Backing store for rate-limit buckets. The in-memory store keeps buckets on
+ * this node; the Redis store shares them across replicas so limits do not
+ * multiply with the instance count.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Tries to take one token from the bucket stored under {@code key},
+     * creating it from {@code configuration} on first use.
+     */
+    ConsumptionProbe tryConsume(String key, Supplier<BucketConfiguration> configuration);
+}
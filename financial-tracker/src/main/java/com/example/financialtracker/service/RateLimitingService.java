@@ -1,36 +1,45 @@
 package com.example.financialtracker.service;
 
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
+import com.example.financialtracker.security.RateLimitPolicy;
 import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
-import io.github.bucket4j.Refill;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
-import java.util.concurrent.TimeUnit;
+import java.util.EnumMap;
+import java.util.Map;
 
 @Service
 public class RateLimitingService {
 
-    @Value("${app.ratelimit.requests:5}")
-    private int requestsPerMinute;
+    private final RateLimitStore store;
+    private final Map<RateLimitPolicy, BucketConfiguration> configurations = new EnumMap<>(RateLimitPolicy.class);
 
-    private final Cache<String, Bucket> cache = Caffeine.newBuilder()
-            .expireAfterAccess(10, TimeUnit.MINUTES)
-            .maximumSize(10_000)
-            .build();
+    public RateLimitingService(RateLimitStore store,
+            @Value("${app.ratelimit.requests:5}") int authRequestsPerMinute,
+            @Value("${app.ratelimit.refresh-requests:60}") int refreshRequestsPerMinute,
+            @Value("${app.ratelimit.expensive-requests:30}") int expensiveRequestsPerMinute,
+            @Value("${app.ratelimit.api-requests:300}") int apiRequestsPerMinute) {
+        this.store = store;
+        configurations.put(RateLimitPolicy.AUTH, perMinute(authRequestsPerMinute));
+        configurations.put(RateLimitPolicy.REFRESH, perMinute(refreshRequestsPerMinute));
+        configurations.put(RateLimitPolicy.EXPENSIVE, perMinute(expensiveRequestsPerMinute));
+        configurations.put(RateLimitPolicy.API, perMinute(apiRequestsPerMinute));
+    }
 
-    public Bucket resolveBucket(String key) {
-        return cache.get(key, k -> newBucket(k));
+    public ConsumptionProbe tryConsume(RateLimitPolicy policy, String key) {
+        BucketConfiguration configuration = configurations.get(policy);
+        return store.tryConsume(policy.name() + ":" + key, () -> configuration);
     }
 
-    private Bucket newBucket(String key) {
-        Bandwidth limit = Bandwidth.classic(requestsPerMinute,
-                Refill.intervally(requestsPerMinute, Duration.ofMinutes(1)));
-        return Bucket.builder()
-                .addLimit(limit)
+    private static BucketConfiguration perMinute(int requestsPerMinute) {
+        return BucketConfiguration.builder()
+                .addLimit(Bandwidth.builder()
+                        .capacity(requestsPerMinute)
+                        .refillIntervally(requestsPerMinute, Duration.ofMinutes(1))
+                        .build())
                 .build();
     }
 }
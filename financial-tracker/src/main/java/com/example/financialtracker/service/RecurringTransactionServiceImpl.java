@@ -1,26 +1,36 @@
 package com.example.financialtracker.service;
 
+import com.example.financialtracker.config.BatchWorkload;
 import com.example.financialtracker.model.RecurringTransaction;
 import com.example.financialtracker.model.Transaction;
 import com.example.financialtracker.model.User;
 import com.example.financialtracker.repository.RecurringTransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Objects;
 
 @Service
 public class RecurringTransactionServiceImpl implements RecurringTransactionService {
 
+    private static final Logger logger = LoggerFactory.getLogger(RecurringTransactionServiceImpl.class);
+
     @Autowired
     private RecurringTransactionRepository recurringRepository;
 
     @Autowired
     private TransactionService transactionService;
 
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     @Override
     @Transactional
     public RecurringTransaction createRecurring(RecurringTransaction recurring, User user) {
@@ -52,24 +62,50 @@ public class RecurringTransactionServiceImpl implements RecurringTransactionServ
         recurringRepository.delete(recurring);
     }
 
+    // Not one big transaction: every due occurrence is converted up front with a
+    // single rates lookup (remote call), then each creates its row and advances
+    // the schedule in its own short transaction
     @Override
     @Scheduled(cron = "0 0 0 * * *") // Every day at midnight
-    @Transactional
+    @BatchWorkload
     public void processRecurringTransactions() {
         LocalDate today = LocalDate.now();
         List<RecurringTransaction> dueTransactions = recurringRepository
-                .findAllByActiveAndNextRunDateLessThanEqual(true, today);
+                .findAllByActiveAndNextRunDateLessThanEqual(true, today).stream()
+                .filter(Objects::nonNull)
+                .toList();
+        if (dueTransactions.isEmpty()) {
+            return;
+        }
+
+        List<Transaction> occurrences = dueTransactions.stream().map(this::buildOccurrence).toList();
+        boolean converted = false;
+        try {
+            transactionService.convertAllToBaseCurrency(occurrences);
+            converted = true;
+        } catch (RuntimeException e) {
+            // One bad schedule or missing rate must not hold back the others
+            logger.warn("Batch conversion of {} recurring transactions failed, converting one by one: {}",
+                    occurrences.size(), e.getMessage());
+        }
 
-        for (RecurringTransaction rt : dueTransactions) {
-            if (rt != null) {
-                createTransactionFromRecurring(rt);
-                updateNextRunDate(rt);
-                recurringRepository.save(rt);
+        for (int i = 0; i < dueTransactions.size(); i++) {
+            RecurringTransaction rt = dueTransactions.get(i);
+            try {
+                Transaction occurrence = converted ? occurrences.get(i)
+                        : transactionService.convertToBaseCurrency(buildOccurrence(rt));
+                transactionTemplate.executeWithoutResult(status -> {
+                    transactionService.saveConverted(occurrence, rt.getUser());
+                    updateNextRunDate(rt);
+                    recurringRepository.save(rt);
+                });
+            } catch (RuntimeException e) {
+                logger.error("Failed to process recurring transaction {}: {}", rt.getId(), e.getMessage(), e);
             }
         }
     }
 
-    private void createTransactionFromRecurring(RecurringTransaction rt) {
+    private Transaction buildOccurrence(RecurringTransaction rt) {
         Transaction t = new Transaction();
         t.setUser(rt.getUser());
         t.setDate(LocalDate.now());
@@ -78,8 +114,7 @@ public class RecurringTransactionServiceImpl implements RecurringTransactionServ
         t.setDebit(rt.getAmount());
         t.setCurrency(rt.getCurrency());
         t.setOriginalAmount(rt.getAmount());
-
-        transactionService.createTransaction(t, rt.getUser());
+        return t;
     }
 
     private void updateNextRunDate(RecurringTransaction rt) {
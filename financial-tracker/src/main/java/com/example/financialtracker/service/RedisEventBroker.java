@@ -0,0 +1,87 @@
+package com.example.financialtracker.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Fans updates out through a Redis pub/sub channel. Delivery is at most once:
+ * an update published while a replica is disconnected is lost for its
+ * streams, which is acceptable because every update carries current state
+ * and clients refetch when their stream reconnects.
+ */
+@Service
+@ConditionalOnProperty(name = "app.live-updates.broker", havingValue = "redis")
+public class RedisEventBroker implements EventBroker {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisEventBroker.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Consumer<LiveUpdate>> listeners = new CopyOnWriteArrayList<>();
+    private final RedisClient redisClient;
+    private final StatefulRedisConnection<String, String> publishConnection;
+    private final StatefulRedisPubSubConnection<String, String> subscribeConnection;
+    private final String channel;
+
+    public RedisEventBroker(@Value("${app.live-updates.redis-url:redis://localhost:6379}") String redisUrl,
+            @Value("${app.live-updates.channel:live-updates}") String channel) {
+        this.redisClient = RedisClient.create(redisUrl);
+        this.channel = channel;
+        this.publishConnection = redisClient.connect();
+        this.subscribeConnection = redisClient.connectPubSub();
+        subscribeConnection.addListener(new RedisPubSubAdapter<>() {
+            @Override
+            public void message(String channel, String message) {
+                deliver(message);
+            }
+        });
+        subscribeConnection.sync().subscribe(channel);
+    }
+
+    @Override
+    public void publish(LiveUpdate update) {
+        try {
+            publishConnection.async().publish(channel, objectMapper.writeValueAsString(update));
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to encode live update for user {}: {}", update.userId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<LiveUpdate> listener) {
+        listeners.add(listener);
+    }
+
+    private void deliver(String message) {
+        LiveUpdate update;
+        try {
+            update = objectMapper.readValue(message, LiveUpdate.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Dropping malformed live update: {}", e.getMessage());
+            return;
+        }
+        for (Consumer<LiveUpdate> listener : listeners) {
+            listener.accept(update);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        subscribeConnection.close();
+        publishConnection.close();
+        redisClient.shutdown();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.financialtracker.service;
+
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.distributed.ExpirationAfterWriteStrategy;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.redis.lettuce.Bucket4jLettuce;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Shares buckets across replicas through Redis using bucket4j's
+ * compare-and-swap proxy manager. Keys expire once the bucket would have
+ * refilled, so idle clients do not accumulate in Redis.
+ */
+@Service
+@ConditionalOnProperty(name = "app.ratelimit.store", havingValue = "redis")
+public class RedisRateLimitStore implements RateLimitStore {
+
+    private final RedisClient redisClient;
+    private final StatefulRedisConnection<String, byte[]> connection;
+    private final ProxyManager<String> proxyManager;
+
+    public RedisRateLimitStore(@Value("${app.ratelimit.redis-url:redis://localhost:6379}") String redisUrl) {
+        this.redisClient = RedisClient.create(redisUrl);
+        this.connection = redisClient.connect(RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE));
+        this.proxyManager = Bucket4jLettuce.casBasedBuilder(connection)
+                .expirationAfterWrite(
+                        ExpirationAfterWriteStrategy.basedOnTimeForRefillingBucketUpToMax(Duration.ofMinutes(1)))
+                .build();
+    }
+
+    @Override
+    public ConsumptionProbe tryConsume(String key, Supplier<BucketConfiguration> configuration) {
+        return proxyManager.builder()
+                .build("ratelimit:" + key, configuration)
+                .tryConsumeAndReturnRemaining(1);
+    }
+
+    @PreDestroy
+    public void close() {
+        connection.close();
+        redisClient.shutdown();
+    }
+}
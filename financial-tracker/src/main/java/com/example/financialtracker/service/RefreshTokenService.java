@@ -1,21 +1,31 @@
 package com.example.financialtracker.service;
 
+import com.example.financialtracker.config.BatchWorkload;
 import com.example.financialtracker.model.RefreshToken;
 import com.example.financialtracker.model.User;
 import com.example.financialtracker.repository.RefreshTokenRepository;
 import com.example.financialtracker.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
+import java.util.HexFormat;
 import java.util.Optional;
 import java.util.UUID;
 
 @Service
 public class RefreshTokenService {
 
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
     @Value("${jwt.refreshExpirationMs:86400000}") // Default 24 hours
     private Long refreshTokenDurationMs;
 
@@ -26,30 +36,66 @@ public class RefreshTokenService {
     private UserRepository userRepository;
 
     public Optional<RefreshToken> findByToken(String token) {
-        return refreshTokenRepository.findByToken(token);
+        return refreshTokenRepository.findByTokenHash(hash(token));
     }
 
+    /**
+     * Issues a token for the user on the given device, replacing the previous
+     * token of that device only. Other devices stay signed in.
+     *
+     * @param deviceId the key from {@link com.example.financialtracker.security.DeviceIdResolver}
+     */
     @Transactional
-    public RefreshToken createRefreshToken(String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found with username: " + username));
+    public RefreshToken createRefreshToken(User user, String deviceId) {
+        String rawToken = UUID.randomUUID().toString();
+        String device = hash(deviceId != null ? deviceId : "Unknown Device");
+        Instant expiryDate = Instant.now().plusMillis(refreshTokenDurationMs);
 
-        // Delete existing token if any and flush to database
-        refreshTokenRepository.deleteByUser(user);
-        refreshTokenRepository.flush();
+        refreshTokenRepository.upsert(user.getId(), device, hash(rawToken), expiryDate);
 
         RefreshToken refreshToken = new RefreshToken();
         refreshToken.setUser(user);
-        refreshToken.setExpiryDate(Instant.now().plusMillis(refreshTokenDurationMs));
-        refreshToken.setToken(UUID.randomUUID().toString());
+        refreshToken.setDevice(device);
+        refreshToken.setExpiryDate(expiryDate);
+        refreshToken.setToken(rawToken);
+        return refreshToken;
+    }
+
+    /**
+     * Exchanges a valid refresh token for a new one on the same device. The
+     * lookup and the conditional swap share one transaction, so of two
+     * concurrent rotations of the same token exactly one succeeds.
+     *
+     * @return the new token (with its user), or empty if the token is unknown
+     *         or was already rotated
+     */
+    @Transactional(noRollbackFor = ExpiredTokenException.class)
+    public Optional<RefreshToken> rotate(String rawToken) {
+        Optional<RefreshToken> existing = findByToken(rawToken);
+        if (existing.isEmpty()) {
+            return Optional.empty();
+        }
+        RefreshToken current = verifyExpiration(existing.get());
 
-        return refreshTokenRepository.save(refreshToken);
+        String newRawToken = UUID.randomUUID().toString();
+        Instant expiryDate = Instant.now().plusMillis(refreshTokenDurationMs);
+        if (refreshTokenRepository.rotate(current.getTokenHash(), hash(newRawToken), expiryDate, Instant.now()) == 0) {
+            return Optional.empty();
+        }
+
+        RefreshToken rotated = new RefreshToken();
+        rotated.setId(current.getId());
+        rotated.setUser(current.getUser());
+        rotated.setDevice(current.getDevice());
+        rotated.setExpiryDate(expiryDate);
+        rotated.setToken(newRawToken);
+        return Optional.of(rotated);
     }
 
     public RefreshToken verifyExpiration(RefreshToken token) {
         if (token.getExpiryDate().compareTo(Instant.now()) < 0) {
-            refreshTokenRepository.delete(token);
-            throw new RuntimeException("Refresh token was expired. Please make a new signin request");
+            refreshTokenRepository.deleteByTokenHash(token.getTokenHash());
+            throw new ExpiredTokenException();
         }
         return token;
     }
@@ -61,6 +107,32 @@ public class RefreshTokenService {
 
     @Transactional
     public void deleteByToken(String token) {
-        refreshTokenRepository.findByToken(token).ifPresent(refreshTokenRepository::delete);
+        refreshTokenRepository.deleteByTokenHash(hash(token));
+    }
+
+    @Scheduled(cron = "${app.refresh-token.purge-cron:0 30 3 * * *}")
+    @Transactional
+    @BatchWorkload
+    public void purgeExpiredTokens() {
+        int deleted = refreshTokenRepository.deleteExpired(Instant.now());
+        if (deleted > 0) {
+            log.info("Purged {} expired refresh tokens", deleted);
+        }
+    }
+
+    static String hash(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /** Thrown for an expired token, whose row is deleted; the deletion is kept. */
+    public static class ExpiredTokenException extends RuntimeException {
+        ExpiredTokenException() {
+            super("Refresh token was expired. Please make a new signin request");
+        }
     }
 }
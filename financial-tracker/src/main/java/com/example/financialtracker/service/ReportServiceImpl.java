@@ -1,49 +1,84 @@
 package com.example.financialtracker.service;
 
 import com.example.financialtracker.model.User;
-import com.example.financialtracker.repository.TransactionRepository;
+import com.example.financialtracker.util.Money;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
-public class ReportServiceImpl implements ReportService {
+@Order(2)
+public class ReportServiceImpl implements ReportService, DomainEventListener {
 
     @Autowired
-    private TransactionRepository transactionRepository;
+    private LedgerSnapshotService ledgerSnapshotService;
+
+    @Autowired
+    private CacheManager cacheManager;
 
     @Override
     @Transactional(readOnly = true)
     @Cacheable(value = "reports", key = "#user.username + '-' + #startDate.toString() + '-' + #endDate.toString() + '-category'")
     public List<Map<String, Object>> getExpensesByCategory(User user, LocalDate startDate, LocalDate endDate) {
-        List<Object[]> results = transactionRepository.findExpensesByCategory(user, startDate, endDate);
+        Map<String, Long> totals = ledgerSnapshotService.getSnapshot(user).debitsByCategory(startDate, endDate);
 
-        return results.stream().map(result -> {
+        List<Map<String, Object>> response = new ArrayList<>(totals.size());
+        for (Map.Entry<String, Long> entry : totals.entrySet()) {
             Map<String, Object> map = new HashMap<>();
-            map.put("name", result[0]); // Category name
-            map.put("value", result[1]); // Total amount
-            return map;
-        }).collect(Collectors.toList());
+            map.put("name", entry.getKey()); // Category name
+            map.put("value", Money.fromMinorUnits(entry.getValue())); // Total amount
+            response.add(map);
+        }
+        return response;
     }
 
     @Override
     @Transactional(readOnly = true)
     @Cacheable(value = "reports", key = "#user.username + '-' + #startDate.toString() + '-' + #endDate.toString() + '-monthly'")
     public List<Map<String, Object>> getMonthlySummary(User user, LocalDate startDate, LocalDate endDate) {
-        List<Object[]> results = transactionRepository.findDailyExpenses(user, startDate, endDate);
+        List<Map<String, Object>> response = new ArrayList<>();
+        ledgerSnapshotService.getSnapshot(user).forEachDailyDebit((int) startDate.toEpochDay(),
+                (int) endDate.toEpochDay(), (epochDay, amount) -> {
+                    Map<String, Object> map = new HashMap<>();
+                    map.put("date", LocalDate.ofEpochDay(epochDay).toString()); // Date
+                    map.put("amount", Money.fromMinorUnits(amount)); // Total amount
+                    response.add(map);
+                });
+        return response;
+    }
 
-        return results.stream().map(result -> {
-            Map<String, Object> map = new HashMap<>();
-            map.put("date", result[0] != null ? result[0].toString() : ""); // Date
-            map.put("amount", result[1]); // Total amount
-            return map;
-        }).collect(Collectors.toList());
+    @Override
+    public String consumerName() {
+        return "report-cache";
+    }
+
+    /**
+     * Drops the user's cached reports. Report keys include the date range, so
+     * they are matched by prefix on the underlying Caffeine cache; other users'
+     * reports stay cached.
+     */
+    @Override
+    public void onEvent(DomainEvent event) {
+        Cache cache = cacheManager.getCache("reports");
+        if (cache == null || !event.changesLedger()) {
+            return;
+        }
+        String prefix = event.user().getUsername() + "-";
+        if (cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache) {
+            nativeCache.asMap().keySet().removeIf(key -> key instanceof String k && k.startsWith(prefix)
+                    && (k.endsWith("-category") || k.endsWith("-monthly")));
+        } else {
+            cache.clear();
+        }
     }
 }
@@ -0,0 +1,52 @@
+package com.example.financialtracker.service;
+
+import com.example.financialtracker.config.BatchWorkload;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Year;
+
+/**
+ * Keeps yearly archive partitions of the transaction table ahead of the
+ * calendar (see V7__Partition_Transactions.sql). A year's partition has to
+ * exist before the first month of that year is finalized, otherwise its rows
+ * land in the default partition and the partition can no longer be created.
+ */
+@Service
+public class TransactionPartitionService {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionPartitionService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+
+    public TransactionPartitionService(JdbcTemplate jdbcTemplate,
+            @Value("${app.ledger.partition-maintenance.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 30 0 1 * ?") // First day of every month
+    @BatchWorkload
+    public void ensureArchivePartitions() {
+        if (!enabled) {
+            return;
+        }
+        int currentYear = Year.now().getValue();
+        for (int year = currentYear; year <= currentYear + 1; year++) {
+            try {
+                jdbcTemplate.execute("SELECT create_transaction_archive_partition(" + year + ")");
+            } catch (DataAccessException e) {
+                log.error("Could not create transaction archive partition for {}: {}", year, e.getMessage());
+            }
+        }
+    }
+}
@@ -11,6 +11,24 @@ import java.math.BigDecimal;
 public interface TransactionService {
     List<Transaction> getAllTransactions(User user);
     Transaction createTransaction(Transaction transaction, User user);
+
+    /**
+     * Validates a new transaction and converts its amounts to XAF. May call the
+     * remote rates API, so it must run outside any database transaction.
+     */
+    Transaction convertToBaseCurrency(Transaction transaction);
+
+    /**
+     * {@link #convertToBaseCurrency} for many transactions with a single rates
+     * lookup. Throws if any of them is invalid or a rate is unavailable.
+     */
+    List<Transaction> convertAllToBaseCurrency(List<Transaction> transactions);
+
+    /**
+     * Persists a transaction already passed through
+     * {@link #convertToBaseCurrency}, joining the caller's transaction if any.
+     */
+    Transaction saveConverted(Transaction transaction, User user);
     Optional<Transaction> getTransactionById(Long id, User user);
     Transaction updateTransaction(Long id, Transaction transaction, User user);
     void deleteTransaction(Long id, User user);
@@ -1,5 +1,7 @@
 package com.example.financialtracker.service;
 
+import com.example.financialtracker.config.BatchWorkload;
+import com.example.financialtracker.model.AccountHead;
 import com.example.financialtracker.model.Transaction;
 import com.example.financialtracker.model.MonthlySummary;
 import com.example.financialtracker.model.FinalizationLog;
@@ -7,30 +9,25 @@ import com.example.financialtracker.model.User;
 import com.example.financialtracker.repository.TransactionRepository;
 import com.example.financialtracker.repository.MonthlySummaryRepository;
 import com.example.financialtracker.repository.FinalizationLogRepository;
-import org.springframework.cache.annotation.CacheEvict;
+import com.example.financialtracker.util.Money;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import org.springframework.orm.ObjectOptimisticLockingFailureException;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Retryable;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.transaction.support.TransactionSynchronization;
-import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 public class TransactionServiceImpl implements TransactionService {
 
-    private static final Logger log = LoggerFactory.getLogger(TransactionServiceImpl.class);
-
     @Autowired
     private TransactionRepository transactionRepository;
 
@@ -44,31 +41,122 @@ public class TransactionServiceImpl implements TransactionService {
     private CurrencyService currencyService;
 
     @Autowired
-    private BudgetService budgetService;
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private LedgerLock ledgerLock;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private DomainEventBus domainEventBus;
 
     @Autowired
-    private EmailService emailService;
+    private FinalizedReportService finalizedReportService;
 
     @Override
+    @Transactional(readOnly = true)
     public List<Transaction> getAllTransactions(User user) {
         // Only return current (non-finalized) transactions for the main list
-        return transactionRepository.findAllByUserAndFinalizedOrderByDateAscIdAsc(user, false);
+        List<Transaction> transactions = transactionRepository.findAllByUserAndFinalizedOrderByDateAscIdAsc(user,
+                false);
+        applyRunningBalances(transactions, ledgerService.currentBalance(user));
+        return transactions;
+    }
+
+    /**
+     * Fills in the running balance of the open rows (ordered by date then id).
+     * The head balance includes every open row, so the rows start from the head
+     * minus their own total.
+     */
+    private void applyRunningBalances(List<Transaction> openRows, BigDecimal headBalance) {
+        long balance = Money.toMinorUnits(headBalance);
+        for (Transaction t : openRows) {
+            balance = Math.subtractExact(balance, Money.toMinorUnits(LedgerService.netAmount(t)));
+        }
+        for (Transaction t : openRows) {
+            balance = Math.addExact(balance, Money.toMinorUnits(LedgerService.netAmount(t)));
+            t.setBalance(Money.fromMinorUnits(balance));
+        }
     }
 
+    private Transaction withBalance(Transaction transaction, User user, BigDecimal headBalance) {
+        if (transaction.isFinalized()) {
+            transaction.setBalance(ledgerService.balanceAt(user, transaction.getDate(), transaction.getId()));
+        } else {
+            transaction.setBalance(headBalance.subtract(
+                    transactionRepository.sumOpenAfter(user, transaction.getDate(), transaction.getId())));
+        }
+        return transaction;
+    }
+
+    // Not @Transactional: the currency lookup is remote I/O and must not hold a
+    // connection. Only the writes run in a transaction; everything that follows
+    // from them (budgets, caches, snapshot, alerts) is a DomainEvent consumer.
     @Override
-    @Transactional
-    @Retryable(retryFor = ObjectOptimisticLockingFailureException.class, maxAttempts = 3, backoff = @Backoff(delay = 100))
-    @CacheEvict(value = "reports", allEntries = true)
     public Transaction createTransaction(Transaction transaction, User user) {
+        Transaction converted = convertToBaseCurrency(transaction);
+        return transactionTemplate.execute(status -> persistNew(converted, user));
+    }
+
+    @Override
+    public Transaction convertToBaseCurrency(Transaction transaction) {
+        String currency = prepareForConversion(transaction);
+        if (!"XAF".equalsIgnoreCase(currency)) {
+            // Convert to XAF for storage in credit/debit columns, at the rate of
+            // the transaction's date when it is back-dated
+            LocalDate date = transaction.getDate();
+            if (isPositive(transaction.getCredit())) {
+                transaction.setCredit(currencyService.convert(transaction.getCredit(), currency, "XAF", date));
+            }
+            if (isPositive(transaction.getDebit())) {
+                transaction.setDebit(currencyService.convert(transaction.getDebit(), currency, "XAF", date));
+            }
+        }
+        return transaction;
+    }
+
+    @Override
+    public List<Transaction> convertAllToBaseCurrency(List<Transaction> transactions) {
+        // Collect every foreign amount first so the rates are resolved once per
+        // date (each at that day's rate) rather than once per row
+        Map<LocalDate, List<Transaction>> foreignByDate = new HashMap<>();
+        for (Transaction transaction : transactions) {
+            String currency = prepareForConversion(transaction);
+            if (!"XAF".equalsIgnoreCase(currency)) {
+                foreignByDate.computeIfAbsent(transaction.getDate(), d -> new ArrayList<>()).add(transaction);
+            }
+        }
+
+        foreignByDate.forEach((date, foreign) -> {
+            List<Money> amounts = new ArrayList<>(2 * foreign.size());
+            for (Transaction transaction : foreign) {
+                amounts.add(Money.of(transaction.getCredit(), transaction.getCurrency()));
+                amounts.add(Money.of(transaction.getDebit(), transaction.getCurrency()));
+            }
+            List<Money> converted = currencyService.convertAll(amounts, "XAF", date);
+            for (int i = 0; i < foreign.size(); i++) {
+                Transaction transaction = foreign.get(i);
+                if (isPositive(transaction.getCredit())) {
+                    transaction.setCredit(converted.get(2 * i).toBigDecimal());
+                }
+                if (isPositive(transaction.getDebit())) {
+                    transaction.setDebit(converted.get(2 * i + 1).toBigDecimal());
+                }
+            }
+        });
+        return transactions;
+    }
+
+    /**
+     * Validates the amounts, defaults the currency to XAF and records the
+     * original amount; returns the transaction's currency.
+     */
+    private static String prepareForConversion(Transaction transaction) {
         if (transaction == null) {
             throw new IllegalArgumentException("Transaction cannot be null");
         }
-        transaction.setUser(user);
-        if (transaction.getDate() == null) {
-            transaction.setDate(LocalDate.now());
-        }
-        transaction.setFinalized(false);
-        transaction.setBalance(java.math.BigDecimal.ZERO);
 
         // Validate that at least one of credit or debit is non-zero
         BigDecimal credit = transaction.getCredit() != null ? transaction.getCredit() : BigDecimal.ZERO;
@@ -84,57 +172,64 @@ public class TransactionServiceImpl implements TransactionService {
             currency = "XAF";
             transaction.setCurrency("XAF");
         }
-        final String currentCurrency = currency;
 
         BigDecimal originalAmount = credit.compareTo(BigDecimal.ZERO) > 0 ? credit : debit;
         transaction.setOriginalAmount(originalAmount);
+        return currency;
+    }
 
-        if (!"XAF".equalsIgnoreCase(currentCurrency)) {
-            // Convert to XAF for storage in credit/debit columns
-            if (credit.compareTo(BigDecimal.ZERO) > 0) {
-                transaction.setCredit(currencyService.convert(credit, currentCurrency, "XAF"));
-            }
-            if (debit.compareTo(BigDecimal.ZERO) > 0) {
-                transaction.setDebit(currencyService.convert(debit, currentCurrency, "XAF"));
-            }
+    private static boolean isPositive(BigDecimal amount) {
+        return amount != null && amount.compareTo(BigDecimal.ZERO) > 0;
+    }
+
+    @Override
+    @Transactional
+    public Transaction saveConverted(Transaction transaction, User user) {
+        return persistNew(transaction, user);
+    }
+
+    private Transaction persistNew(Transaction transaction, User user) {
+        AccountHead head = ledgerLock.acquire(user);
+        BigDecimal balanceBefore = head.getBalance();
+        transaction.setUser(user);
+        if (transaction.getDate() == null) {
+            transaction.setDate(LocalDate.now());
         }
+        transaction.setFinalized(false);
 
         // Initial save to get an ID
         Transaction saved = transactionRepository.save(transaction);
 
-        // Recalculate all balances to ensure consistency, especially if adding to a
-        // past date
-        recalculateBalances(user);
-
-        // Check for budget alerts if it's an expense
-        if (transaction.getDebit() != null && transaction.getDebit().compareTo(BigDecimal.ZERO) > 0
-                && budgetService != null) {
-            String category = transaction.getCategory() != null ? transaction.getCategory() : "Others";
-            budgetService.checkBudgetAlert(user, category, transaction.getDebit());
-        }
+        // One journal entry; rows after a back-dated one are not touched
+        ledgerService.post(head, saved);
+        domainEventBus.publishAfterCommit(
+                new DomainEvent.TransactionCreated(user, DomainEvent.TransactionSnapshot.of(saved), balanceBefore,
+                        head.getBalance()));
 
         if (saved == null || saved.getId() == null) {
             throw new RuntimeException("Failed to save transaction: ID is null");
         }
         // Return the updated transaction from DB
-        return transactionRepository.findById(saved.getId())
+        Transaction result = transactionRepository.findById(saved.getId())
                 .orElseThrow(() -> new RuntimeException("Transaction not found after save"));
+        return withBalance(result, user, head.getBalance());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Transaction> getTransactionById(Long id, User user) {
-        return transactionRepository.findByIdAndUser(id, user);
+        return transactionRepository.findByIdAndUser(id, user)
+                .map(t -> withBalance(t, user, ledgerService.currentBalance(user)));
     }
 
+    // Like createTransaction: read and convert first, then write in a short
+    // transaction that re-checks the row
     @Override
-    @Transactional
-    @Retryable(retryFor = ObjectOptimisticLockingFailureException.class, maxAttempts = 3, backoff = @Backoff(delay = 100))
-    @CacheEvict(value = "reports", allEntries = true)
     public Transaction updateTransaction(Long id, Transaction transactionDetails, User user) {
-        Transaction transaction = transactionRepository.findByIdAndUser(id, user)
+        Transaction existing = transactionRepository.findByIdAndUser(id, user)
                 .orElseThrow(() -> new RuntimeException("Transaction not found or does not belong to user"));
 
-        if (transaction.isFinalized()) {
+        if (existing.isFinalized()) {
             throw new RuntimeException("Cannot update a finalized transaction");
         }
 
@@ -148,13 +243,10 @@ public class TransactionServiceImpl implements TransactionService {
         }
 
         // Handle Currency Update
-        if (transactionDetails.getCurrency() != null) {
-            transaction.setCurrency(transactionDetails.getCurrency());
-        }
-        String currency = transaction.getCurrency();
+        String currency = transactionDetails.getCurrency() != null ? transactionDetails.getCurrency()
+                : existing.getCurrency();
         if (currency == null) {
             currency = "XAF";
-            transaction.setCurrency("XAF");
         }
         final String currentCurrency = currency;
 
@@ -164,40 +256,65 @@ public class TransactionServiceImpl implements TransactionService {
         // it in the transaction's currency.
         BigDecimal safeCredit = creditToSet != null ? creditToSet : BigDecimal.ZERO;
         BigDecimal safeDebit = debitToSet != null ? debitToSet : BigDecimal.ZERO;
-        BigDecimal originalAmount = safeCredit.compareTo(BigDecimal.ZERO) > 0 ? safeCredit : safeDebit;
-        transaction.setOriginalAmount(originalAmount);
+        final BigDecimal originalAmount = safeCredit.compareTo(BigDecimal.ZERO) > 0 ? safeCredit : safeDebit;
 
         if (!"XAF".equalsIgnoreCase(currentCurrency)) {
+            LocalDate date = transactionDetails.getDate() != null ? transactionDetails.getDate()
+                    : existing.getDate();
             if (creditToSet != null && creditToSet.compareTo(BigDecimal.ZERO) > 0) {
-                creditToSet = currencyService.convert(creditToSet, currentCurrency, "XAF");
+                creditToSet = currencyService.convert(creditToSet, currentCurrency, "XAF", date);
             }
             if (debitToSet != null && debitToSet.compareTo(BigDecimal.ZERO) > 0) {
-                debitToSet = currencyService.convert(debitToSet, currentCurrency, "XAF");
+                debitToSet = currencyService.convert(debitToSet, currentCurrency, "XAF", date);
             }
         }
+        final BigDecimal convertedCredit = creditToSet;
+        final BigDecimal convertedDebit = debitToSet;
+
+        return transactionTemplate.execute(status -> {
+            AccountHead head = ledgerLock.acquire(user);
+            BigDecimal balanceBefore = head.getBalance();
+            Transaction transaction = transactionRepository.findByIdAndUser(id, user)
+                    .orElseThrow(() -> new RuntimeException("Transaction not found or does not belong to user"));
+            if (transaction.isFinalized()) {
+                throw new RuntimeException("Cannot update a finalized transaction");
+            }
+            BigDecimal previousNet = LedgerService.netAmount(transaction);
+            LocalDate previousDate = transaction.getDate();
 
-        if (transactionDetails.getDate() != null) {
-            transaction.setDate(transactionDetails.getDate());
-        }
-        transaction.setUsedFor(transactionDetails.getUsedFor());
-        transaction.setCategory(transactionDetails.getCategory());
-        transaction.setCredit(creditToSet);
-        transaction.setDebit(debitToSet);
-
-        transactionRepository.save(transaction);
-
-        // Trigger cascading update for all following transactions
-        recalculateBalances(user);
-
-        return transactionRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Transaction not found after save"));
+            transaction.setCurrency(currentCurrency);
+            transaction.setOriginalAmount(originalAmount);
+            if (transactionDetails.getDate() != null) {
+                transaction.setDate(transactionDetails.getDate());
+            }
+            transaction.setUsedFor(transactionDetails.getUsedFor());
+            transaction.setCategory(transactionDetails.getCategory());
+            transaction.setCredit(convertedCredit);
+            transaction.setDebit(convertedDebit);
+
+            transactionRepository.save(transaction);
+
+            // Amount or date changed: reverse the standing entry and post the corrected one
+            if (previousNet.compareTo(LedgerService.netAmount(transaction)) != 0
+                    || !previousDate.equals(transaction.getDate())) {
+                ledgerService.reverse(head, user, id);
+                ledgerService.post(head, transaction);
+            }
+            domainEventBus.publishAfterCommit(
+                    new DomainEvent.TransactionUpdated(user, DomainEvent.TransactionSnapshot.of(transaction),
+                            balanceBefore, head.getBalance()));
+
+            Transaction result = transactionRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Transaction not found after save"));
+            return withBalance(result, user, head.getBalance());
+        });
     }
 
     @Override
     @Transactional
-    @Retryable(retryFor = ObjectOptimisticLockingFailureException.class, maxAttempts = 3, backoff = @Backoff(delay = 100))
-    @CacheEvict(value = "reports", allEntries = true)
     public void deleteTransaction(Long id, User user) {
+        AccountHead head = ledgerLock.acquire(user);
+        BigDecimal balanceBefore = head.getBalance();
         Transaction transaction = transactionRepository.findByIdAndUser(id, user)
                 .orElseThrow(() -> new RuntimeException("Transaction not found or does not belong to user"));
 
@@ -206,100 +323,45 @@ public class TransactionServiceImpl implements TransactionService {
         }
 
         transactionRepository.delete(transaction);
-        recalculateBalances(user);
+        ledgerService.reverse(head, user, id);
+        domainEventBus.publishAfterCommit(
+                new DomainEvent.TransactionDeleted(user, id, balanceBefore, head.getBalance()));
     }
 
     @Override
     @Transactional
-    @CacheEvict(value = "reports", allEntries = true)
+    @BatchWorkload
     public MonthlySummary finalizeMonth(User user) {
-        List<Transaction> activeTransactions = transactionRepository.findAllByUserAndFinalizedOrderByDateAscIdAsc(user,
-                false);
-
-        if (activeTransactions == null || activeTransactions.isEmpty()) {
-            throw new RuntimeException("No active transactions found to finalize for this month");
-        }
-
-        BigDecimal finalBalance = BigDecimal.ZERO;
-        YearMonth summaryMonth = YearMonth.now();
-
-        if (!activeTransactions.isEmpty()) {
-            Transaction lastTransaction = activeTransactions.get(activeTransactions.size() - 1);
-            finalBalance = lastTransaction.getBalance();
-            summaryMonth = YearMonth.from(lastTransaction.getDate());
-
-            // ARCHIVING: Mark all as finalized instead of deleting
-            for (Transaction t : activeTransactions) {
-                t.setFinalized(true);
-            }
-            transactionRepository.saveAll(activeTransactions);
-        }
-
-        MonthlySummary summary = new MonthlySummary();
-        summary.setMonthYear(summaryMonth);
-        summary.setClosingBalance(finalBalance);
-        summary.setUser(user);
-
-        return monthlySummaryRepository.save(summary);
+        ledgerLock.acquire(user);
+        // Only the first and last open rows are needed, for the months they span
+        Transaction lastTransaction = transactionRepository.findTopByUserAndFinalizedOrderByDateDescIdDesc(user, false)
+                .orElseThrow(() -> new RuntimeException("No active transactions found to finalize for this month"));
+
+        // Back-dated rows can reach into earlier months, which are summarized again too
+        Transaction firstTransaction = transactionRepository.findTopByUserAndFinalizedOrderByDateAscIdAsc(user, false)
+                .orElse(lastTransaction);
+
+        YearMonth summaryMonth = YearMonth.from(lastTransaction.getDate());
+
+        // ARCHIVING: Mark all as finalized instead of deleting (moves them to the archive partition)
+        transactionRepository.archiveOpenTransactions(user);
+
+        // Summaries and reports for every month with archived rows; a month finalized
+        // before is summarized again rather than duplicated
+        MonthlySummary saved = finalizedReportService.finalizeMonths(user,
+                YearMonth.from(firstTransaction.getDate()), summaryMonth);
+        domainEventBus.publishAfterCommit(new DomainEvent.MonthFinalized(user, saved.getMonthYear(),
+                saved.getClosingBalance()));
+        return saved;
     }
 
     @Override
     public BigDecimal getCurrentBalance(User user) {
-        // Check last active transaction
-        Optional<Transaction> lastTransaction = transactionRepository
-                .findTopByUserAndFinalizedOrderByDateDescIdDesc(user, false);
-        if (lastTransaction.isPresent()) {
-            return lastTransaction.get().getBalance();
-        }
-
-        // If no active transactions, fall back to last monthly summary
-        return monthlySummaryRepository.findTopByUserOrderByMonthYearDesc(user)
-                .map(MonthlySummary::getClosingBalance)
-                .orElse(BigDecimal.ZERO);
-    }
-
-    @Transactional
-    private void recalculateBalances(User user) {
-        List<Transaction> transactions = transactionRepository.findAllByUserAndFinalizedOrderByDateAscIdAsc(user,
-                false);
-
-        // Get starting balance from the last finalized summary
-        BigDecimal startingBalance = monthlySummaryRepository.findTopByUserOrderByMonthYearDesc(user)
-                .map(MonthlySummary::getClosingBalance)
-                .orElse(BigDecimal.ZERO);
-
-        BigDecimal currentBalance = startingBalance;
-
-        for (Transaction t : transactions) {
-            BigDecimal credit = t.getCredit() != null ? t.getCredit() : BigDecimal.ZERO;
-            BigDecimal debit = t.getDebit() != null ? t.getDebit() : BigDecimal.ZERO;
-
-            currentBalance = currentBalance.add(credit).subtract(debit);
-            t.setBalance(currentBalance);
-        }
-
-        transactionRepository.saveAll(transactions);
-
-        // Low Balance Check: send only on threshold crossing (positive -> <= 0), after
-        // commit
-        if (startingBalance.compareTo(BigDecimal.ZERO) > 0 && currentBalance.compareTo(BigDecimal.ZERO) <= 0) {
-            final BigDecimal finalBalance = currentBalance;
-            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
-                @Override
-                public void afterCommit() {
-                    try {
-                        emailService.sendLowBalanceAlert(user.getEmail(), finalBalance);
-                    } catch (Exception e) {
-                        log.error("Failed to send low balance alert for user {}: {}", user.getUsername(),
-                                e.getMessage(),
-                                e);
-                    }
-                }
-            });
-        }
+        return ledgerService.currentBalance(user);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<FinalizationLog> getFinalizationHistory(User user) {
         return finalizationLogRepository.findAllByUserOrderByFinalizationDateDesc(user);
     }
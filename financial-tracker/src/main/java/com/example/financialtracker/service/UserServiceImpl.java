@@ -8,8 +8,6 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
-import java.util.List;
-import com.example.financialtracker.model.FinalizationLog;
 
 @Service
 public class UserServiceImpl implements UserService {
@@ -18,26 +16,7 @@ public class UserServiceImpl implements UserService {
     private UserRepository userRepository;
 
     @Autowired
-    private com.example.financialtracker.repository.TransactionRepository transactionRepository;
-
-    @Autowired
-    private com.example.financialtracker.repository.RecurringTransactionRepository recurringTransactionRepository;
-
-    @Autowired
-    private com.example.financialtracker.repository.BudgetRepository budgetRepository;
-
-    @Autowired
-    private com.example.financialtracker.repository.UserDeviceRepository userDeviceRepository;
-
-    @Autowired
-    private com.example.financialtracker.repository.RefreshTokenRepository refreshTokenRepository;
-
-    // Optional repositories if they exist and are tied to user
-    @Autowired(required = false)
-    private com.example.financialtracker.repository.MonthlySummaryRepository monthlySummaryRepository;
-
-    @Autowired(required = false)
-    private com.example.financialtracker.repository.FinalizationLogRepository finalizationLogRepository;
+    private AccountDeletionService accountDeletionService;
 
     @Override
     public User findByUsername(String username) {
@@ -51,39 +30,9 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    @org.springframework.transaction.annotation.Transactional
     public void deleteUser(User user) {
-        // Cascade delete all user data
-
-        // 1. Refresh Tokens
-        refreshTokenRepository.deleteByUser(user);
-
-        // 2. User Devices
-        userDeviceRepository.deleteAll(userDeviceRepository.findAllByUser(user));
-
-        // 3. Transactions
-        // Using batch delete logic if efficient method not available
-        transactionRepository.deleteAll(transactionRepository.findAllByUserOrderByDateAscIdAsc(user));
-
-        // 4. Recurring Transactions
-        recurringTransactionRepository.deleteAll(recurringTransactionRepository.findAllByUser(user));
-
-        // 5. Budgets
-        budgetRepository.deleteAll(budgetRepository.findAllByUser(user));
-
-        // 6. Monthly Summaries (if applicable)
-        if (monthlySummaryRepository != null) {
-            monthlySummaryRepository.deleteAll(monthlySummaryRepository.findByUser(user));
-        }
-
-        // 7. Finalization Logs
-        if (finalizationLogRepository != null) {
-            List<FinalizationLog> logs = finalizationLogRepository.findAllByUser(user);
-            finalizationLogRepository.deleteAll(logs);
-        }
-
-        // 8. Delete User
-        userRepository.delete(user);
+        // Set-based deletes, chunked for large histories; see AccountDeletionService
+        accountDeletionService.deleteAccount(user);
     }
 
     @Override
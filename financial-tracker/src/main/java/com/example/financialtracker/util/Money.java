@@ -0,0 +1,153 @@
+package com.example.financialtracker.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Objects;
+
+/**
+ * Immutable fixed-point amount: a currency code plus a signed number of minor
+ * units (cents) held in a {@code long}.
+ *
+ * Entities keep their {@link BigDecimal} columns (numeric with scale 2); this
+ * type and its static helpers are the boundary used by the computation paths so
+ * inner loops can run on primitives. All arithmetic is overflow-checked and
+ * rounding follows {@link RoundingMode#HALF_UP}, matching the BigDecimal code it
+ * replaces.
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final int SCALE = 2;
+    public static final String DEFAULT_CURRENCY = "XAF";
+
+    private final long minorUnits;
+    private final String currency;
+
+    private Money(long minorUnits, String currency) {
+        this.minorUnits = minorUnits;
+        this.currency = Objects.requireNonNull(currency, "currency");
+    }
+
+    public static Money ofMinor(long minorUnits, String currency) {
+        return new Money(minorUnits, currency);
+    }
+
+    public static Money of(BigDecimal amount, String currency) {
+        return new Money(toMinorUnits(amount), currency);
+    }
+
+    public static Money zero(String currency) {
+        return new Money(0L, currency);
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public boolean isZero() {
+        return minorUnits == 0L;
+    }
+
+    public int signum() {
+        return Long.signum(minorUnits);
+    }
+
+    public Money plus(Money other) {
+        requireSameCurrency(other);
+        return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money minus(Money other) {
+        requireSameCurrency(other);
+        return new Money(Math.subtractExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money negate() {
+        return new Money(Math.negateExact(minorUnits), currency);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return fromMinorUnits(minorUnits);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        requireSameCurrency(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof Money))
+            return false;
+        Money money = (Money) o;
+        return minorUnits == money.minorUnits && currency.equals(money.currency);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(minorUnits) + currency.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString() + " " + currency;
+    }
+
+    private void requireSameCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Currency mismatch: " + currency + " vs " + other.currency);
+        }
+    }
+
+    // Primitive helpers for hot loops
+
+    /**
+     * Converts a column value to minor units, treating {@code null} as zero.
+     * Values with more than two decimals are rounded HALF_UP, which is what the
+     * numeric(…, 2) columns do on write.
+     *
+     * @throws ArithmeticException if the amount does not fit in a long
+     */
+    public static long toMinorUnits(BigDecimal amount) {
+        if (amount == null) {
+            return 0L;
+        }
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal fromMinorUnits(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    /**
+     * Integer division rounded HALF_UP (ties away from zero), i.e. the same
+     * result as {@code BigDecimal.divide(divisor, RoundingMode.HALF_UP)} at the
+     * dividend's scale.
+     */
+    public static long divideHalfUp(long dividend, long divisor) {
+        if (divisor == 0L) {
+            throw new ArithmeticException("Division by zero");
+        }
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder != 0L && Math.abs(remainder) >= Math.abs(divisor) - Math.abs(remainder)) {
+            quotient += (dividend < 0) == (divisor < 0) ? 1 : -1;
+        }
+        return quotient;
+    }
+
+    /**
+     * Compares {@code a * aNumerator} with {@code b * bNumerator}. Used to
+     * evaluate ratios such as "spent > average * 1.3" as
+     * {@code spent * 10 > average * 13} without leaving integer arithmetic.
+     */
+    public static int compareScaled(long a, long aNumerator, long b, long bNumerator) {
+        return Long.compare(Math.multiplyExact(a, aNumerator), Math.multiplyExact(b, bNumerator));
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.financialtracker.util;
+
+/**
+ * Reduces a SQL statement to its shape: literals become {@code ?}, IN lists
+ * and VALUES rows collapse to one entry and whitespace/case are normalized, so
+ * every execution of the same query maps to the same fingerprint whatever its
+ * parameters.
+ */
+public final class SqlFingerprint {
+
+    private SqlFingerprint() {
+    }
+
+    public static String normalize(String sql) {
+        if (sql == null) {
+            return "";
+        }
+        StringBuilder out = new StringBuilder(sql.length());
+        int i = 0;
+        int n = sql.length();
+        boolean pendingSpace = false;
+        while (i < n) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = out.length() > 0;
+                i++;
+                continue;
+            }
+            if (pendingSpace) {
+                out.append(' ');
+                pendingSpace = false;
+            }
+            if (c == '\'') {
+                i = endOfString(sql, i);
+                out.append('?');
+            } else if (Character.isDigit(c) && !isIdentifierPart(out)) {
+                i = endOfNumber(sql, i);
+                out.append('?');
+            } else {
+                out.append(Character.toLowerCase(c));
+                i++;
+            }
+        }
+        return collapseLists(out.toString());
+    }
+
+    /**
+     * {@code text} with its string and numeric literals replaced by {@code ?}
+     * and everything else, case and spacing included, left as it is.
+     */
+    public static String maskLiterals(String text) {
+        StringBuilder out = new StringBuilder(text.length());
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (c == '\'') {
+                i = endOfString(text, i);
+                out.append('?');
+            } else if (Character.isDigit(c) && !isIdentifierPart(out)) {
+                i = endOfNumber(text, i);
+                out.append('?');
+            } else {
+                out.append(c);
+                i++;
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Short, stable id for a normalized statement, suitable as a metric tag.
+     */
+    public static String id(String normalized) {
+        return String.format("%08x", normalized.hashCode());
+    }
+
+    // Index just past the string literal opening at start, with '' as an escaped quote
+    private static int endOfString(String sql, int start) {
+        int i = start + 1;
+        while (i < sql.length()) {
+            if (sql.charAt(i) == '\'') {
+                if (i + 1 < sql.length() && sql.charAt(i + 1) == '\'') {
+                    i += 2;
+                    continue;
+                }
+                break;
+            }
+            i++;
+        }
+        return i + 1;
+    }
+
+    private static int endOfNumber(String sql, int start) {
+        int i = start;
+        while (i < sql.length() && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isIdentifierPart(StringBuilder out) {
+        if (out.length() == 0) {
+            return false;
+        }
+        char prev = out.charAt(out.length() - 1);
+        return Character.isLetterOrDigit(prev) || prev == '_' || prev == '.';
+    }
+
+    private static String collapseLists(String sql) {
+        // "in (?, ?, ?)" -> "in (?)", "values (?, ?), (?, ?)" -> "values (?, ?)"
+        String collapsed = sql.replaceAll("\\bin ?\\(\\?(?:\\s*,\\s*\\?)+\\)", "in (?)");
+        return collapsed.replaceAll("(\\bvalues ?\\([^()]*\\))(?:\\s*,\\s*\\([^()]*\\))+", "$1");
+    }
+}
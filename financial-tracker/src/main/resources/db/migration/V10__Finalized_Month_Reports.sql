@@ -0,0 +1,18 @@
+-- Reports of finalized months, rendered once at finalization and served by content hash
+
+CREATE SEQUENCE finalized_month_reports_id_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE finalized_month_reports (
+    id bigint not null,
+    user_id bigint not null,
+    month_year bytea not null,
+    content_hash varchar(64) not null,
+    body text not null,
+    finalized_at timestamp(6) not null,
+    primary key (id)
+);
+
+ALTER TABLE finalized_month_reports ADD CONSTRAINT fk_finalized_month_reports_user FOREIGN KEY (user_id) REFERENCES users;
+
+-- findByUserAndMonthYear, findAllByUserAndMonthYearIn; one report per user and month
+ALTER TABLE finalized_month_reports ADD CONSTRAINT uk_finalized_month_reports_user_month UNIQUE (user_id, month_year);
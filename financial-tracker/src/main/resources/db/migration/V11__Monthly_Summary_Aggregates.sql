@@ -0,0 +1,18 @@
+-- Month summaries are per user: the month alone was unique, so a second user could not
+-- finalize a month someone else already had
+ALTER TABLE monthly_summaries DROP CONSTRAINT IF EXISTS monthly_summaries_month_year_key;
+
+-- Upserts at finalization and the paged history (findAllByUserOrderByMonthYearDesc);
+-- replaces the plain user_id index
+ALTER TABLE monthly_summaries ADD CONSTRAINT uk_monthly_summaries_user_month UNIQUE (user_id, month_year);
+DROP INDEX IF EXISTS idx_monthly_summaries_user;
+
+-- Month aggregates written at finalization; left null on summaries finalized before this
+ALTER TABLE monthly_summaries
+    ADD COLUMN opening_balance numeric(38,2),
+    ADD COLUMN total_credit numeric(38,2),
+    ADD COLUMN total_debit numeric(38,2),
+    ADD COLUMN transaction_count integer,
+    ADD COLUMN min_balance numeric(38,2),
+    ADD COLUMN max_balance numeric(38,2),
+    ADD COLUMN category_totals text;
@@ -0,0 +1,15 @@
+-- Background account deletions, so their status can be polled through any instance.
+-- No foreign key to users: the job outlives the account it deletes.
+
+CREATE TABLE account_deletion_jobs (
+    id varchar(36) not null,
+    state varchar(16) not null,
+    rows_deleted bigint not null,
+    submitted_at timestamp(6) with time zone not null,
+    finished_at timestamp(6) with time zone,
+    error varchar(255),
+    primary key (id)
+);
+
+-- deleteFinishedBefore
+CREATE INDEX idx_account_deletion_jobs_finished_at ON account_deletion_jobs (finished_at);
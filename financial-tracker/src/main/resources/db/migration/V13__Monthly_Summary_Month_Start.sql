@@ -0,0 +1,20 @@
+-- month_year is a Java-serialized YearMonth: its bytes are not something to sort or
+-- range over. month_start is the same month as a date (its first day), written by
+-- the entity alongside month_year.
+ALTER TABLE monthly_summaries ADD COLUMN month_start date;
+
+-- Existing rows, decoded once from the documented serialized form of YearMonth
+-- (java.time.Ser): a block ending in the year as a 4-byte int and the month as one
+-- byte, followed by the end-of-block marker
+UPDATE monthly_summaries SET month_start = make_date(
+    (get_byte(month_year, length(month_year) - 6) << 24)
+        | (get_byte(month_year, length(month_year) - 5) << 16)
+        | (get_byte(month_year, length(month_year) - 4) << 8)
+        | get_byte(month_year, length(month_year) - 3),
+    get_byte(month_year, length(month_year) - 2),
+    1);
+
+ALTER TABLE monthly_summaries ALTER COLUMN month_start SET NOT NULL;
+
+-- findAllByUserOrderByMonthStartDesc (the paged history) and findTopByUserOrderByMonthStartDesc
+CREATE INDEX idx_monthly_summaries_user_month_start ON monthly_summaries (user_id, month_start);
@@ -0,0 +1,144 @@
+-- Baseline schema, as previously created by ddl-auto=update.
+-- Existing databases are baselined at version 1 (spring.flyway.baseline-on-migrate) and skip this script.
+create table budgets (
+    amount numeric(19,2) not null,
+    month integer not null,
+    year integer not null,
+    id bigserial not null,
+    user_id bigint not null,
+    category varchar(255) not null,
+    primary key (id),
+    unique (user_id, category, month, year)
+);
+
+create table finalization_log (
+    closing_balance numeric(38,2) not null,
+    is_automatic boolean not null,
+    month integer not null,
+    year integer not null,
+    finalization_date timestamp(6) not null,
+    id bigserial not null,
+    user_id bigint not null,
+    primary key (id)
+);
+
+create table monthly_summaries (
+    closing_balance numeric(38,2) not null,
+    id bigserial not null,
+    user_id bigint not null,
+    month_year bytea not null unique,
+    primary key (id)
+);
+
+create table recurring_transactions (
+    active boolean not null,
+    amount numeric(19,2) not null,
+    currency varchar(3),
+    next_run_date date not null,
+    start_date date not null,
+    id bigserial not null,
+    user_id bigint not null,
+    category varchar(255),
+    description varchar(255) not null,
+    frequency varchar(255) not null check (frequency in ('DAILY','WEEKLY','MONTHLY','YEARLY')),
+    primary key (id)
+);
+
+create table refresh_tokens (
+    expiry_date timestamp(6) with time zone not null,
+    id bigserial not null,
+    user_id bigint unique,
+    token varchar(255) not null unique,
+    primary key (id)
+);
+
+create table system_status (
+    is_auto_finalization_enabled boolean not null,
+    id bigserial not null,
+    last_finalization timestamp(6) not null,
+    primary key (id)
+);
+
+create table transaction (
+    balance numeric(38,2) not null,
+    credit numeric(38,2),
+    currency varchar(3),
+    date date not null,
+    debit numeric(38,2),
+    finalized boolean not null,
+    original_amount numeric(38,2),
+    version integer,
+    id bigserial not null,
+    user_id bigint not null,
+    category varchar(255),
+    used_for varchar(255) not null,
+    primary key (id)
+);
+
+create table user_devices (
+    trusted boolean not null,
+    id bigserial not null,
+    last_login timestamp(6),
+    user_id bigint not null,
+    device_hash varchar(255) not null,
+    device_name varchar(255),
+    primary key (id)
+);
+
+create table users (
+    enabled boolean,
+    failed_login_attempts integer not null,
+    reset_password_code_attempts integer not null,
+    reset_password_resend_count integer not null,
+    verification_resend_count integer not null,
+    verification_code varchar(6),
+    deletion_code_expiry timestamp(6),
+    id bigserial not null,
+    last_reset_password_resend_at timestamp(6),
+    last_verification_resend_at timestamp(6),
+    lockout_expiry timestamp(6),
+    reset_password_code_expiry timestamp(6),
+    verification_code_expiry timestamp(6),
+    version bigint,
+    deletion_code varchar(255),
+    email varchar(255) not null unique,
+    password varchar(255) not null,
+    reset_password_code varchar(255),
+    username varchar(255) not null unique,
+    primary key (id)
+);
+
+alter table if exists budgets
+    add constraint FKln0tm5tgf3f9q3sp9sa5m8m7b
+    foreign key (user_id)
+    references users;
+
+alter table if exists finalization_log
+    add constraint FK24yx2bl8p4q2p5rqgxlyh5ncw
+    foreign key (user_id)
+    references users;
+
+alter table if exists monthly_summaries
+    add constraint FK5mh82xboogy0jj0b2h9trnxin
+    foreign key (user_id)
+    references users;
+
+alter table if exists recurring_transactions
+    add constraint FK59dmexrjod697u8j37s0nhyhd
+    foreign key (user_id)
+    references users;
+
+alter table if exists refresh_tokens
+    add constraint FK1lih5y2npsf8u5o3vhdb9y0os
+    foreign key (user_id)
+    references users;
+
+alter table if exists transaction
+    add constraint FKanjpo5tiapru7an6cw4cu37y4
+    foreign key (user_id)
+    references users;
+
+alter table if exists user_devices
+    add constraint FKik0n080vvur1fvdxtygwkt3m4
+    foreign key (user_id)
+    references users;
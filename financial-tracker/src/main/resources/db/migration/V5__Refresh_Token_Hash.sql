@@ -0,0 +1,43 @@
+-- Refresh tokens: one row per (user, device), looked up by SHA-256 hash instead of the raw token
+ALTER TABLE refresh_tokens ADD COLUMN IF NOT EXISTS token_hash VARCHAR(64);
+ALTER TABLE refresh_tokens ADD COLUMN IF NOT EXISTS device VARCHAR(64);
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = 'refresh_tokens' AND column_name = 'token') THEN
+        UPDATE refresh_tokens
+        SET token_hash = encode(sha256(convert_to(token, 'UTF8')), 'hex')
+        WHERE token_hash IS NULL;
+        ALTER TABLE refresh_tokens DROP COLUMN token;
+    END IF;
+END $$;
+
+-- Existing rows predate device tracking; give each its own legacy device key
+UPDATE refresh_tokens SET device = encode(sha256(convert_to('legacy-' || id, 'UTF8')), 'hex') WHERE device IS NULL;
+DELETE FROM refresh_tokens WHERE token_hash IS NULL;
+
+ALTER TABLE refresh_tokens ALTER COLUMN token_hash SET NOT NULL;
+ALTER TABLE refresh_tokens ALTER COLUMN device SET NOT NULL;
+
+-- The one-to-one mapping left a unique constraint on user_id
+DO $$
+DECLARE
+    constraint_name TEXT;
+BEGIN
+    FOR constraint_name IN
+        SELECT c.conname
+        FROM pg_constraint c
+        JOIN pg_attribute a ON a.attrelid = c.conrelid AND a.attnum = ANY (c.conkey)
+        WHERE c.conrelid = 'refresh_tokens'::regclass
+          AND c.contype = 'u'
+          AND array_length(c.conkey, 1) = 1
+          AND a.attname = 'user_id'
+    LOOP
+        EXECUTE 'ALTER TABLE refresh_tokens DROP CONSTRAINT ' || quote_ident(constraint_name);
+    END LOOP;
+END $$;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_refresh_tokens_token_hash ON refresh_tokens (token_hash);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_refresh_tokens_user_device ON refresh_tokens (user_id, device);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_expiry_date ON refresh_tokens (expiry_date);
@@ -0,0 +1,29 @@
+-- Indexes for the hot repository queries. Each one is named after the query it serves.
+
+-- The transaction indexes are created with the partitioned table in V7
+
+-- findAllByActiveAndNextRunDateLessThanEqual(true, today): the daily recurring job
+CREATE INDEX IF NOT EXISTS idx_recurring_due
+    ON recurring_transactions (next_run_date) WHERE active = true;
+
+-- findAllByUser, findAllByUserAndActive
+CREATE INDEX IF NOT EXISTS idx_recurring_user
+    ON recurring_transactions (user_id, active);
+
+-- findByUserAndDeviceHash, findAllByUser
+CREATE INDEX IF NOT EXISTS idx_user_devices_user_hash
+    ON user_devices (user_id, device_hash);
+
+-- findAllByUserAndMonthAndYear (the unique key leads with category)
+CREATE INDEX IF NOT EXISTS idx_budgets_user_period
+    ON budgets (user_id, year, month);
+
+-- findByUser, findTopByUserOrderByMonthYearDesc, findByMonthYearAndUser
+CREATE INDEX IF NOT EXISTS idx_monthly_summaries_user
+    ON monthly_summaries (user_id);
+
+-- findAllByUserOrderByFinalizationDateDesc
+CREATE INDEX IF NOT EXISTS idx_finalization_log_user_date
+    ON finalization_log (user_id, finalization_date DESC);
+
+-- findByTokenHash is served by uk_refresh_tokens_token_hash (V5); deleteExpired by idx_refresh_tokens_expiry_date
@@ -0,0 +1,69 @@
+-- Split transaction into an open (hot) partition and an archive partition that is
+-- range-partitioned by year. Finalizing a month flips `finalized`, which moves the
+-- rows into the archive; open-month queries only ever touch transaction_open.
+
+ALTER TABLE transaction RENAME TO transaction_legacy;
+ALTER TABLE transaction_legacy ALTER COLUMN id DROP DEFAULT;
+ALTER SEQUENCE transaction_id_seq OWNED BY NONE;
+
+CREATE TABLE transaction (
+    balance numeric(38,2) not null,
+    credit numeric(38,2),
+    currency varchar(3),
+    date date not null,
+    debit numeric(38,2),
+    finalized boolean not null,
+    original_amount numeric(38,2),
+    version integer,
+    id bigint not null default nextval('transaction_id_seq'),
+    user_id bigint not null,
+    category varchar(255),
+    used_for varchar(255) not null,
+    -- Partition keys must be part of the primary key; id alone stays unique through the sequence
+    primary key (id, finalized, date)
+) PARTITION BY LIST (finalized);
+
+ALTER SEQUENCE transaction_id_seq OWNED BY transaction.id;
+
+CREATE TABLE transaction_open PARTITION OF transaction FOR VALUES IN (false);
+CREATE TABLE transaction_archive PARTITION OF transaction FOR VALUES IN (true) PARTITION BY RANGE (date);
+CREATE TABLE transaction_archive_default PARTITION OF transaction_archive DEFAULT;
+
+-- Creates the archive partition for one calendar year; called by the application ahead of each new year
+CREATE OR REPLACE FUNCTION create_transaction_archive_partition(archive_year integer) RETURNS void AS $$
+BEGIN
+    EXECUTE format(
+        'CREATE TABLE IF NOT EXISTS %I PARTITION OF transaction_archive FOR VALUES FROM (%L) TO (%L)',
+        'transaction_archive_' || archive_year,
+        make_date(archive_year, 1, 1),
+        make_date(archive_year + 1, 1, 1));
+END;
+$$ LANGUAGE plpgsql;
+
+DO $$
+DECLARE
+    first_year integer;
+    y integer;
+BEGIN
+    SELECT COALESCE(EXTRACT(YEAR FROM MIN(date))::integer, EXTRACT(YEAR FROM CURRENT_DATE)::integer)
+    INTO first_year
+    FROM transaction_legacy
+    WHERE finalized = true;
+
+    FOR y IN first_year .. EXTRACT(YEAR FROM CURRENT_DATE)::integer + 1 LOOP
+        PERFORM create_transaction_archive_partition(y);
+    END LOOP;
+END $$;
+
+INSERT INTO transaction (balance, credit, currency, date, debit, finalized, original_amount, version, id, user_id,
+                         category, used_for)
+SELECT balance, credit, currency, date, debit, finalized, original_amount, version, id, user_id, category, used_for
+FROM transaction_legacy;
+
+DROP TABLE transaction_legacy;
+
+ALTER TABLE transaction ADD CONSTRAINT fk_transaction_user FOREIGN KEY (user_id) REFERENCES users;
+
+-- Covers the full ledger, the date-range reports (index-only) and, via partition pruning,
+-- the open-month and latest-finalized lookups
+CREATE INDEX idx_transaction_user_date_id ON transaction (user_id, date, id) INCLUDE (debit, category, balance);
@@ -0,0 +1,12 @@
+-- Ids are now assigned by Hibernate from pooled sequences (allocationSize = 50) instead of
+-- IDENTITY, which lets inserts be batched. The existing serial sequences are reused; only their
+-- increment changes, so ids already handed out are never reissued.
+ALTER SEQUENCE budgets_id_seq INCREMENT BY 50;
+ALTER SEQUENCE finalization_log_id_seq INCREMENT BY 50;
+ALTER SEQUENCE monthly_summaries_id_seq INCREMENT BY 50;
+ALTER SEQUENCE recurring_transactions_id_seq INCREMENT BY 50;
+ALTER SEQUENCE refresh_tokens_id_seq INCREMENT BY 50;
+ALTER SEQUENCE system_status_id_seq INCREMENT BY 50;
+ALTER SEQUENCE transaction_id_seq INCREMENT BY 50;
+ALTER SEQUENCE user_devices_id_seq INCREMENT BY 50;
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
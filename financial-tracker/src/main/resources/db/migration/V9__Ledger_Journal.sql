@@ -0,0 +1,76 @@
+-- Append-only journal behind the transaction rows. Balances are no longer stored per
+-- transaction: each user's account head carries the current balance, and historical
+-- balances are rebuilt from the nearest checkpoint plus the entries after it.
+
+CREATE SEQUENCE ledger_entries_id_seq;
+
+CREATE TABLE ledger_entries (
+    amount numeric(38,2) not null,
+    entry_date date not null,
+    id bigint not null,
+    posted_at timestamp(6) with time zone not null,
+    reversal_of bigint,
+    transaction_id bigint not null,
+    user_id bigint not null,
+    primary key (id)
+);
+
+ALTER TABLE ledger_entries ADD CONSTRAINT fk_ledger_entries_user FOREIGN KEY (user_id) REFERENCES users;
+ALTER TABLE ledger_entries ADD CONSTRAINT fk_ledger_entries_reversal_of FOREIGN KEY (reversal_of) REFERENCES ledger_entries;
+
+-- Balance sums by date range (index-only) and the standing-entry lookup on edit
+CREATE INDEX idx_ledger_entries_user_date ON ledger_entries (user_id, entry_date, transaction_id) INCLUDE (amount);
+CREATE INDEX idx_ledger_entries_transaction ON ledger_entries (transaction_id);
+
+-- Entries are corrected by reversal, never in place; deletes remain possible for account removal
+CREATE OR REPLACE FUNCTION reject_ledger_entry_update() RETURNS trigger AS $$
+BEGIN
+    RAISE EXCEPTION 'ledger_entries is append-only (entry %)', OLD.id;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER ledger_entries_append_only
+    BEFORE UPDATE ON ledger_entries
+    FOR EACH ROW EXECUTE FUNCTION reject_ledger_entry_update();
+
+CREATE TABLE account_heads (
+    balance numeric(38,2) not null,
+    checkpoint_date date,
+    entry_count bigint not null,
+    version integer,
+    user_id bigint not null,
+    primary key (user_id)
+);
+
+ALTER TABLE account_heads ADD CONSTRAINT fk_account_heads_user FOREIGN KEY (user_id) REFERENCES users;
+
+CREATE SEQUENCE balance_checkpoints_id_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE balance_checkpoints (
+    as_of_date date not null,
+    balance numeric(38,2) not null,
+    entry_count bigint not null,
+    id bigint not null,
+    user_id bigint not null,
+    primary key (id),
+    constraint uk_balance_checkpoints_user_date unique (user_id, as_of_date)
+);
+
+ALTER TABLE balance_checkpoints ADD CONSTRAINT fk_balance_checkpoints_user FOREIGN KEY (user_id) REFERENCES users;
+
+-- One opening entry per existing transaction, in ledger order
+INSERT INTO ledger_entries (amount, entry_date, id, posted_at, reversal_of, transaction_id, user_id)
+SELECT COALESCE(credit, 0) - COALESCE(debit, 0), date, nextval('ledger_entries_id_seq'), now(), NULL, id, user_id
+FROM (SELECT * FROM transaction ORDER BY user_id, date, id) t;
+
+-- Hibernate allocates ids in blocks of 50 from here on (see V8)
+ALTER SEQUENCE ledger_entries_id_seq INCREMENT BY 50;
+
+INSERT INTO account_heads (balance, checkpoint_date, entry_count, version, user_id)
+SELECT COALESCE(SUM(e.amount), 0), NULL, COUNT(e.id), 0, u.id
+FROM users u
+LEFT JOIN ledger_entries e ON e.user_id = u.id
+GROUP BY u.id;
+
+-- The per-row balance is now derived on read; existing values stay but are no longer written
+ALTER TABLE transaction ALTER COLUMN balance DROP NOT NULL;
@@ -0,0 +1,109 @@
+package com.example.financialtracker;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Smoke tests against a running instance, meant for the native binary, where
+ * reflection or resources missing from the image only fail at runtime. Each
+ * test walks one path through the libraries with native metadata: Hibernate
+ * reads and writes, JWT parsing, the rate limiter and the advisor's regression.
+ *
+ * Skipped unless {@code -Dsmoke.base-url} is set; the authenticated tests also
+ * need a verified account in {@code -Dsmoke.username} / {@code -Dsmoke.password}.
+ * {@code scripts/compare-startup.sh} starts the binary and runs them.
+ */
+@EnabledIfSystemProperty(named = "smoke.base-url", matches = ".+")
+class NativeSmokeTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final String baseUrl = System.getProperty("smoke.base-url");
+
+    @Test
+    void register_PersistsUserAndRejectsUnverifiedLogin() throws Exception {
+        String name = "smoke" + UUID.randomUUID().toString().substring(0, 8);
+        HttpResponse<String> registered = post("/api/auth/register",
+                Map.of("username", name, "email", name + "@example.com", "password", "Smoke-test-1"), null);
+        assertEquals(200, registered.statusCode(), registered.body());
+
+        HttpResponse<String> login = post("/api/auth/login", Map.of("username", name, "password", "Smoke-test-1"),
+                null);
+        assertEquals(401, login.statusCode(), login.body());
+        assertTrue(json(login).path("message").asText().toLowerCase().contains("verif"), login.body());
+    }
+
+    @Test
+    void invalidToken_IsRejected() throws Exception {
+        HttpResponse<String> response = get("/api/transactions", "eyJhbGciOiJIUzI1NiJ9.e30.invalid");
+
+        assertEquals(401, response.statusCode());
+    }
+
+    @Test
+    void authenticatedUser_CanWriteReadAndAnalyse() throws Exception {
+        String username = System.getProperty("smoke.username");
+        String password = System.getProperty("smoke.password");
+        Assumptions.assumeTrue(username != null && password != null, "no verified smoke account configured");
+
+        HttpResponse<String> login = post("/api/auth/login", Map.of("username", username, "password", password),
+                null);
+        assertEquals(200, login.statusCode(), login.body());
+        String jwt = json(login).path("jwt").asText();
+
+        HttpResponse<String> created = post("/api/transactions", Map.of("usedFor", "Smoke test", "debit", "1.00",
+                "category", "Others", "date", LocalDate.now().toString()), jwt);
+        assertEquals(201, created.statusCode(), created.body());
+        long id = json(created).path("id").asLong();
+
+        HttpResponse<String> listed = get("/api/transactions", jwt);
+        assertEquals(200, listed.statusCode(), listed.body());
+        assertTrue(listed.body().contains("Smoke test"), listed.body());
+
+        HttpResponse<String> insights = get("/api/advisor/insights", jwt);
+        assertEquals(200, insights.statusCode(), insights.body());
+
+        HttpResponse<String> deleted = client.send(request("/api/transactions/" + id, jwt).DELETE().build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(204, deleted.statusCode(), deleted.body());
+    }
+
+    private HttpResponse<String> get(String path, String jwt) throws IOException, InterruptedException {
+        return client.send(request(path, jwt).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, Object body, String jwt) throws IOException, InterruptedException {
+        HttpRequest request = request(path, jwt)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(MAPPER.writeValueAsString(body)))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest.Builder request(String path, String jwt) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path));
+        if (jwt != null) {
+            builder.header("Authorization", "Bearer " + jwt);
+        }
+        return builder;
+    }
+
+    private static JsonNode json(HttpResponse<String> response) throws IOException {
+        return MAPPER.readTree(response.body());
+    }
+}
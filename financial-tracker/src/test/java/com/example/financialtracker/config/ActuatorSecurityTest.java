@@ -0,0 +1,64 @@
+package com.example.financialtracker.config;
+
+import com.example.financialtracker.service.EmailService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.http.HttpStatus;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Health is open on the management port; metrics and captured query plans
+ * need the operator account.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.datasource.url=jdbc:h2:mem:actuator-security;DB_CLOSE_DELAY=-1;NON_KEYWORDS=MONTH,YEAR",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "app.ledger.partition-maintenance.enabled=false",
+        "management.server.port=0",
+        // No SMTP server here; the mail indicator would report DOWN
+        "management.health.mail.enabled=false",
+        "app.management.username=ops",
+        "app.management.password=s3cret-ops"
+})
+class ActuatorSecurityTest {
+
+    @MockBean
+    private EmailService emailService;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void health_IsOpen() {
+        assertEquals(HttpStatus.OK, get("/actuator/health", restTemplate).getStatusCode());
+    }
+
+    @Test
+    void queriesAndMetrics_NeedOperatorAccount() {
+        assertEquals(HttpStatus.UNAUTHORIZED, get("/actuator/queries", restTemplate).getStatusCode());
+        assertEquals(HttpStatus.UNAUTHORIZED, get("/actuator/metrics", restTemplate).getStatusCode());
+        assertEquals(HttpStatus.UNAUTHORIZED,
+                get("/actuator/queries", restTemplate.withBasicAuth("ops", "wrong")).getStatusCode());
+
+        TestRestTemplate operator = restTemplate.withBasicAuth("ops", "s3cret-ops");
+        assertEquals(HttpStatus.OK, get("/actuator/queries", operator).getStatusCode());
+        assertEquals(HttpStatus.OK, get("/actuator/metrics", operator).getStatusCode());
+    }
+
+    private org.springframework.http.ResponseEntity<String> get(String path, TestRestTemplate client) {
+        return client.getForEntity("http://localhost:" + managementPort + path, String.class);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.financialtracker.config;
+
+import com.example.financialtracker.model.Transaction;
+import com.example.financialtracker.payload.AdvisorInsightsResponse;
+import com.example.financialtracker.service.InMemoryRateLimitStore;
+import com.example.financialtracker.service.LedgerSnapshotService;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The native image hints cover what the application actually reaches
+ * reflectively: the generated Caffeine classes behind each cache it builds, the
+ * jjwt service files and the types Jackson binds.
+ */
+class NativeRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @BeforeEach
+    void setUp() {
+        new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void registeredTypes_AllExistOnTheClasspath() {
+        for (String type : NativeRuntimeHints.JJWT_TYPES) {
+            assertDoesNotThrow(() -> Class.forName(type), type);
+        }
+        for (String type : NativeRuntimeHints.CAFFEINE_TYPES) {
+            assertDoesNotThrow(() -> Class.forName(type), type);
+        }
+    }
+
+    @Test
+    void caffeineClasses_CoverEveryCacheTheApplicationBuilds() {
+        List<Cache<?, ?>> caches = List.of(
+                ((CaffeineCache) new CacheConfig().cacheManager().getCache("reports")).getNativeCache(),
+                field(new ReadYourWritesTracker(Duration.ofSeconds(5)), "recentWriters"),
+                field(new InMemoryRateLimitStore(), "cache"),
+                field(new LedgerSnapshotService(null, null, 1024, 10), "snapshots"));
+
+        for (Cache<?, ?> cache : caches) {
+            Object local = cache.asMap();
+            Object nodeFactory = ReflectionTestUtils.getField(local, "nodeFactory");
+            assertTrue(RuntimeHintsPredicates.reflection().onType(local.getClass()).test(hints),
+                    local.getClass().getName());
+            assertTrue(RuntimeHintsPredicates.reflection().onType(nodeFactory.getClass()).test(hints),
+                    nodeFactory.getClass().getName());
+        }
+    }
+
+    @Test
+    void jjwtServicesAndMathBundles_AreIncluded() {
+        assertTrue(RuntimeHintsPredicates.resource().forResource("META-INF/services/io.jsonwebtoken.io.Serializer")
+                .test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("META-INF/services/io.jsonwebtoken.CompressionCodec")
+                .test(hints));
+        assertTrue(RuntimeHintsPredicates.resource()
+                .forBundle("assets/org/apache/commons/math3/exception/util/LocalizedFormats").test(hints));
+    }
+
+    @Test
+    void responseBodies_AreBoundForJackson() throws NoSuchMethodException {
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(Transaction.class.getMethod("getBalance"))
+                .test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(AdvisorInsightsResponse.class).test(hints));
+    }
+
+    private static Cache<?, ?> field(Object owner, String name) {
+        return (Cache<?, ?>) ReflectionTestUtils.getField(owner, name);
+    }
+}
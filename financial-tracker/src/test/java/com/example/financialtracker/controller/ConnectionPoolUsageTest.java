@@ -0,0 +1,160 @@
+package com.example.financialtracker.controller;
+
+import com.example.financialtracker.model.User;
+import com.example.financialtracker.repository.UserRepository;
+import com.example.financialtracker.service.CurrencyService;
+import com.example.financialtracker.service.EmailService;
+import com.example.financialtracker.service.FinalizedReportService;
+import com.example.financialtracker.util.JwtUtil;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Which pool a request holds connections from, observed while it is blocked
+ * inside a stubbed call. Requests go through the whole filter chain and
+ * controller, so a session kept open for the request would show up here.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.datasource.url=jdbc:h2:mem:pool-usage;DB_CLOSE_DELAY=-1;NON_KEYWORDS=MONTH,YEAR",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "app.ledger.partition-maintenance.enabled=false",
+        "app.query-stats.enabled=false",
+        "management.server.port=-1"
+})
+@AutoConfigureMockMvc
+class ConnectionPoolUsageTest {
+
+    @MockBean
+    private CurrencyService currencyService;
+
+    @MockBean
+    private EmailService emailService;
+
+    @SpyBean
+    private FinalizedReportService finalizedReportService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    @Qualifier("interactiveDataSource")
+    private HikariDataSource interactivePool;
+
+    @Autowired
+    @Qualifier("batchDataSource")
+    private HikariDataSource batchPool;
+
+    private String bearer;
+
+    @BeforeEach
+    void signIn() {
+        User user = new User();
+        String name = "user-" + UUID.randomUUID();
+        user.setUsername(name);
+        user.setEmail(name + "@example.com");
+        user.setPassword(passwordEncoder.encode("x"));
+        user.setEnabled(true);
+        userRepository.save(user);
+        bearer = "Bearer " + jwtUtil.generateToken(name);
+    }
+
+    @Test
+    void createTransaction_HoldsNoConnectionDuringRateLookup() throws Exception {
+        CountDownLatch inRateLookup = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(currencyService.convert(any(BigDecimal.class), eq("USD"), eq("XAF"), any())).thenAnswer(invocation -> {
+            inRateLookup.countDown();
+            assertTrue(release.await(30, TimeUnit.SECONDS));
+            return new BigDecimal("60000.00");
+        });
+
+        CompletableFuture<Void> request = CompletableFuture.runAsync(() -> {
+            try {
+                mockMvc.perform(post("/api/transactions").header("Authorization", bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"date\":\"2024-03-04\",\"usedFor\":\"Hotel\",\"debit\":100,"
+                                + "\"currency\":\"USD\",\"category\":\"Travel\"}"))
+                        .andExpect(status().isCreated());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        try {
+            assertTrue(inRateLookup.await(30, TimeUnit.SECONDS), "request never reached the rate lookup");
+            assertEquals(0, activeConnections(interactivePool));
+            assertEquals(0, activeConnections(batchPool));
+        } finally {
+            release.countDown();
+        }
+        request.get(30, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void finalizeMonth_RunsOnBatchPool() throws Exception {
+        mockMvc.perform(post("/api/transactions").header("Authorization", bearer)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"date\":\"" + LocalDate.now() + "\",\"usedFor\":\"Salary\",\"credit\":500,"
+                        + "\"category\":\"Income\"}"))
+                .andExpect(status().isCreated());
+
+        // Pool usage seen from inside the @BatchWorkload transaction
+        int[] interactiveActive = { -1 };
+        int[] batchActive = { -1 };
+        doAnswer(invocation -> {
+            interactiveActive[0] = activeConnections(interactivePool);
+            batchActive[0] = activeConnections(batchPool);
+            return invocation.callRealMethod();
+        }).when(finalizedReportService).finalizeMonths(any(), any(), any());
+
+        mockMvc.perform(post("/api/transactions/finalize-month").header("Authorization", bearer))
+                .andExpect(status().isOk());
+
+        assertEquals(1, batchActive[0]);
+        assertEquals(0, interactiveActive[0]);
+    }
+
+    private static int activeConnections(HikariDataSource pool) {
+        // A pool starts on its first connection request
+        return pool.getHikariPoolMXBean() != null ? pool.getHikariPoolMXBean().getActiveConnections() : 0;
+    }
+}
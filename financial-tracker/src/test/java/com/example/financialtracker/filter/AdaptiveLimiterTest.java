@@ -0,0 +1,84 @@
+package com.example.financialtracker.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    @Test
+    void tryAcquire_AtLimit_RejectsAfterQueueTimeout() throws InterruptedException {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", 2, 1, 4, 100, 0.5);
+
+        assertTrue(limiter.tryAcquire(0));
+        assertTrue(limiter.tryAcquire(0));
+        assertFalse(limiter.tryAcquire(20));
+        assertEquals(1, limiter.getRejected());
+
+        limiter.release(FAST, true);
+        assertTrue(limiter.tryAcquire(0));
+    }
+
+    @Test
+    void release_SlowCalls_ShrinkLimitDownToMinimum() throws InterruptedException {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", 8, 2, 8, 100, 0.5);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire(0));
+            limiter.release(SLOW, true);
+        }
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void release_FastCallsUnderLoad_GrowLimitUpToMaximum() throws InterruptedException {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", 2, 1, 4, 100, 0.5);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire(0));
+            assertTrue(limiter.tryAcquire(0));
+            limiter.release(FAST, true);
+            limiter.release(FAST, true);
+        }
+        assertEquals(4, limiter.getLimit());
+
+        // A failure counts as slow
+        assertTrue(limiter.tryAcquire(0));
+        limiter.release(FAST, false);
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void tryAcquire_WaitsForReleaseWithinTimeout() throws Exception {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", 1, 1, 1, 100, 0.5);
+        assertTrue(limiter.tryAcquire(0));
+
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException ignored) {
+            }
+            limiter.release(FAST, true);
+        });
+        releaser.start();
+
+        assertTrue(limiter.tryAcquire(5_000));
+        releaser.join();
+        assertEquals(1, limiter.getInFlight());
+    }
+
+    @Test
+    void classify_MapsEndpointsToCostClasses() {
+        assertEquals(EndpointCost.HEAVY, EndpointCost.classify("GET", "/api/advisor/insights"));
+        assertEquals(EndpointCost.HEAVY, EndpointCost.classify("POST", "/api/transactions/finalize-month"));
+        assertEquals(EndpointCost.MEDIUM, EndpointCost.classify("GET", "/api/reports/monthly-summary"));
+        assertEquals(EndpointCost.MEDIUM, EndpointCost.classify("POST", "/api/transactions"));
+        assertEquals(EndpointCost.LIGHT, EndpointCost.classify("GET", "/api/transactions/42"));
+        assertEquals(EndpointCost.LIGHT, EndpointCost.classify("GET", "/api/currencies"));
+    }
+}
@@ -0,0 +1,323 @@
+package com.example.financialtracker.repository;
+
+import com.example.financialtracker.model.User;
+import com.example.financialtracker.config.QueryInspectionConfig;
+import com.example.financialtracker.service.QueryStatsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the Flyway migrations against a real PostgreSQL and checks that each hot
+ * repository query is planned as an index scan, and that the partitioned
+ * transaction table prunes to the partitions a query needs. The plans are for
+ * the statements Hibernate actually sends, as recorded by the application's
+ * {@code ProfilingDataSource}, and are made with the values they were bound
+ * to. Sequential scans are disabled for the session so the result does not
+ * depend on the (tiny) table sizes; a query with no usable index still falls
+ * back to one.
+ *
+ * Uses the PostgreSQL in {@code TEST_POSTGRES_URL} (with
+ * {@code TEST_POSTGRES_USERNAME} and {@code TEST_POSTGRES_PASSWORD}) when set,
+ * migrating a throwaway schema that is dropped afterwards; otherwise a
+ * Testcontainers PostgreSQL. Skipped when neither is available.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIf("postgresAvailable")
+class RepositoryIndexUsageTest {
+
+    private static final String EXTERNAL_URL = System.getenv("TEST_POSTGRES_URL");
+    private static final String SCHEMA = "index_usage_" + UUID.randomUUID().toString().replace("-", "");
+
+    private static PostgreSQLContainer<?> postgres;
+
+    static boolean postgresAvailable() {
+        return EXTERNAL_URL != null || DockerClientFactory.instance().isDockerAvailable();
+    }
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        if (EXTERNAL_URL != null) {
+            registry.add("spring.datasource.url",
+                    () -> EXTERNAL_URL + (EXTERNAL_URL.contains("?") ? "&" : "?") + "currentSchema=" + SCHEMA);
+            registry.add("spring.datasource.username", () -> System.getenv("TEST_POSTGRES_USERNAME"));
+            registry.add("spring.datasource.password", () -> System.getenv("TEST_POSTGRES_PASSWORD"));
+            registry.add("spring.flyway.schemas", () -> SCHEMA);
+        } else {
+            postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+            postgres.start();
+            registry.add("spring.datasource.url", postgres::getJdbcUrl);
+            registry.add("spring.datasource.username", postgres::getUsername);
+            registry.add("spring.datasource.password", postgres::getPassword);
+        }
+    }
+
+    @AfterAll
+    static void dropDatabase() {
+        if (postgres != null) {
+            postgres.stop();
+        } else if (EXTERNAL_URL != null) {
+            new JdbcTemplate(new DriverManagerDataSource(EXTERNAL_URL, System.getenv("TEST_POSTGRES_USERNAME"),
+                    System.getenv("TEST_POSTGRES_PASSWORD"))).execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        }
+    }
+
+    @TestConfiguration
+    @Import(QueryInspectionConfig.class)
+    static class RecordingConfig {
+
+        @Bean
+        RecordingQueryStats queryStatsService(ObjectProvider<MeterRegistry> meterRegistry) {
+            return new RecordingQueryStats(meterRegistry);
+        }
+    }
+
+    /** A statement as ProfilingDataSource saw it run, with its bind values. */
+    record Recorded(String sql, List<Object> parameters) {
+
+        void bindTo(PreparedStatement statement) throws SQLException {
+            for (int i = 0; i < parameters.size(); i++) {
+                Object value = parameters.get(i);
+                if (value == null) {
+                    statement.setNull(i + 1, Types.NULL);
+                } else {
+                    statement.setObject(i + 1, value);
+                }
+            }
+        }
+    }
+
+    /** Keeps every statement the profiling data source reports. */
+    static class RecordingQueryStats extends QueryStatsService {
+
+        private final List<Recorded> statements = new CopyOnWriteArrayList<>();
+
+        RecordingQueryStats(ObjectProvider<MeterRegistry> meterRegistry) {
+            // Never slow enough to be explained in the background
+            super(meterRegistry, Long.MAX_VALUE, 1000);
+        }
+
+        @Override
+        public Stats record(String sql, long elapsedNanos, long rows, List<Object> parameters,
+                DataSource explainSource) {
+            statements.add(new Recorded(sql, parameters != null ? new ArrayList<>(parameters) : List.of()));
+            return super.record(sql, elapsedNanos, rows, parameters, explainSource);
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RecordingQueryStats queryStats;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private RecurringTransactionRepository recurringTransactionRepository;
+
+    @Autowired
+    private UserDeviceRepository userDeviceRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    @Autowired
+    private FinalizationLogRepository finalizationLogRepository;
+
+    @Autowired
+    private MonthlySummaryRepository monthlySummaryRepository;
+
+    private User user;
+
+    @BeforeEach
+    void disableSeqScan() {
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+        insertUser();
+        user = userRepository.findById(1L).orElseThrow();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @ValueSource(strings = {
+            "findAllByUserOrderByDateAscIdAsc",
+            "findAllByUserAndFinalizedOrderByDateAscIdAsc",
+            "findTopByUserAndFinalizedOrderByDateDescIdDesc",
+            "findDailyTotalsByCategory",
+            "findAllByActiveAndNextRunDateLessThanEqual",
+            "findByUserAndDeviceHash",
+            "findByTokenHash",
+            "findAllByUserAndMonthAndYear",
+            "findAllByUserOrderByFinalizationDateDesc",
+            "findAllByUserOrderByMonthStartDesc"
+    })
+    void query_UsesIndex(String repositoryMethod) {
+        Recorded query = record(() -> call(repositoryMethod));
+        String text = explain(query);
+
+        assertTrue(text.contains("Index"), repositoryMethod + " is not using an index:\n" + query.sql() + "\n" + text);
+        assertFalse(text.contains("Seq Scan"), repositoryMethod + " scans a table:\n" + query.sql() + "\n" + text);
+    }
+
+    @Test
+    void openMonthQuery_TouchesOnlyOpenPartition() {
+        String plan = explain(record(() -> transactionRepository.findAllByUserAndFinalizedOrderByDateAscIdAsc(user, false)));
+
+        assertTrue(plan.contains("transaction_open"), plan);
+        assertFalse(plan.contains("transaction_archive"), plan);
+    }
+
+    @Test
+    void openMonthQuery_ReadsSamePagesWhateverTheArchiveSize() {
+        jdbcTemplate.update("INSERT INTO transaction (balance, date, finalized, user_id, used_for) "
+                + "SELECT 10, CURRENT_DATE, false, 1, 'Open ' || n FROM generate_series(1, 20) n");
+        jdbcTemplate.execute("ANALYZE transaction");
+        Recorded query = record(
+                () -> transactionRepository.findAllByUserAndFinalizedOrderByDateAscIdAsc(user, false));
+        long emptyArchive = pagesRead(query);
+
+        // Years of finalized history, in the yearly and default archive partitions
+        jdbcTemplate.update("INSERT INTO transaction (balance, date, finalized, user_id, used_for) "
+                + "SELECT 10, CURRENT_DATE - n, true, 1, 'Archived ' || n FROM generate_series(1, 50000) n");
+        jdbcTemplate.execute("ANALYZE transaction");
+
+        assertEquals(emptyArchive, pagesRead(query));
+    }
+
+    @Test
+    void dateRangeReport_PrunesArchivePartitions() {
+        int year = Year.now().getValue();
+        String plan = explain(record(() -> transactionRepository.findDailyTotalsByCategory(user,
+                LocalDate.of(year, 1, 1), LocalDate.of(year, 1, 31))));
+
+        assertTrue(plan.contains("transaction_archive_" + year), plan);
+        assertFalse(plan.contains("transaction_archive_" + (year - 1)), plan);
+        assertFalse(plan.contains("transaction_archive_default"), plan);
+    }
+
+    @Test
+    void finalizing_MovesRowsIntoArchivePartition() {
+        jdbcTemplate.update("INSERT INTO transaction (balance, date, finalized, user_id, used_for) "
+                + "VALUES (10, CURRENT_DATE, false, 1, 'Salary')");
+
+        transactionRepository.archiveOpenTransactions(user);
+
+        String partition = jdbcTemplate.queryForObject(
+                "SELECT tableoid::regclass::text FROM transaction WHERE user_id = 1", String.class);
+        assertEquals("transaction_archive_" + Year.now().getValue(), partition);
+    }
+
+    private Object call(String repositoryMethod) {
+        return switch (repositoryMethod) {
+            case "findAllByUserOrderByDateAscIdAsc" -> transactionRepository.findAllByUserOrderByDateAscIdAsc(user);
+            case "findAllByUserAndFinalizedOrderByDateAscIdAsc" ->
+                    transactionRepository.findAllByUserAndFinalizedOrderByDateAscIdAsc(user, false);
+            case "findTopByUserAndFinalizedOrderByDateDescIdDesc" ->
+                    transactionRepository.findTopByUserAndFinalizedOrderByDateDescIdDesc(user, true);
+            case "findDailyTotalsByCategory" -> transactionRepository.findDailyTotalsByCategory(user,
+                    LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31));
+            case "findAllByActiveAndNextRunDateLessThanEqual" ->
+                    recurringTransactionRepository.findAllByActiveAndNextRunDateLessThanEqual(true,
+                            LocalDate.of(2024, 1, 31));
+            case "findByUserAndDeviceHash" -> userDeviceRepository.findByUserAndDeviceHash(user, "abc");
+            case "findByTokenHash" -> refreshTokenRepository.findByTokenHash("abc");
+            case "findAllByUserAndMonthAndYear" -> budgetRepository.findAllByUserAndMonthAndYear(user, 1, 2024);
+            case "findAllByUserOrderByFinalizationDateDesc" ->
+                    finalizationLogRepository.findAllByUserOrderByFinalizationDateDesc(user);
+            case "findAllByUserOrderByMonthStartDesc" ->
+                    monthlySummaryRepository.findAllByUserOrderByMonthStartDesc(user, PageRequest.of(0, 24));
+            default -> throw new IllegalArgumentException(repositoryMethod);
+        };
+    }
+
+    /** The single query {@code repositoryCall} sent to the database. */
+    private Recorded record(Runnable repositoryCall) {
+        queryStats.statements.clear();
+        repositoryCall.run();
+        List<Recorded> queries = queryStats.statements.stream()
+                .filter(s -> s.sql().stripLeading().toLowerCase().startsWith("select"))
+                .toList();
+        assertEquals(1, queries.size(), () -> "Expected one query, got " + queries);
+        return queries.get(0);
+    }
+
+    private void insertUser() {
+        jdbcTemplate.update("INSERT INTO users (id, username, email, password, failed_login_attempts, "
+                + "reset_password_code_attempts, reset_password_resend_count, verification_resend_count) "
+                + "VALUES (1, 'alice', 'alice@example.com', 'x', 0, 0, 0, 0)");
+    }
+
+    /**
+     * Shared buffers a warm run of the query touched, a stand-in for latency
+     * that does not vary between runs.
+     */
+    private long pagesRead(Recorded query) {
+        // The first run may also read index metadata into the backend's cache
+        jdbcTemplate.query(query.sql(), query::bindTo, rs -> null);
+        String plan = explain("EXPLAIN (ANALYZE, BUFFERS, COSTS OFF) ", query);
+        // The first Buffers line belongs to the root node and includes its children
+        Matcher buffers = Pattern.compile("Buffers: shared((?: \\w+=\\d+)+)").matcher(plan);
+        assertTrue(buffers.find(), plan);
+        long pages = 0;
+        // hit and read only; dirtied and written depend on what earlier statements left behind
+        Matcher count = Pattern.compile("(?:hit|read)=(\\d+)").matcher(buffers.group(1));
+        while (count.find()) {
+            pages += Long.parseLong(count.group(1));
+        }
+        return pages;
+    }
+
+    /**
+     * Plans the recorded statement with the values it was bound to, as the
+     * driver's unnamed prepared statement would be planned.
+     */
+    private String explain(Recorded query) {
+        return explain("EXPLAIN ", query);
+    }
+
+    private String explain(String explain, Recorded query) {
+        List<String> plan = jdbcTemplate.query(explain + query.sql(), query::bindTo,
+                (rs, row) -> rs.getString(1));
+        return String.join("\n", plan);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.financialtracker.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientIpResolverTest {
+
+    private MockHttpServletRequest request(String remoteAddr, String xff) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddr);
+        if (xff != null) {
+            request.addHeader("X-Forwarded-For", xff);
+        }
+        return request;
+    }
+
+    @Test
+    void resolve_WithoutTrustedProxies_IgnoresHeader() {
+        ClientIpResolver resolver = new ClientIpResolver("");
+        assertEquals("203.0.113.7", resolver.resolve(request("203.0.113.7", "1.2.3.4")));
+    }
+
+    @Test
+    void resolve_UntrustedPeer_IgnoresHeader() {
+        ClientIpResolver resolver = new ClientIpResolver("10.0.0.0/8");
+        assertEquals("203.0.113.7", resolver.resolve(request("203.0.113.7", "1.2.3.4")));
+    }
+
+    @Test
+    void resolve_TrustedChain_ReturnsRightMostUntrustedHop() {
+        ClientIpResolver resolver = new ClientIpResolver("10.0.0.0/8, 192.168.1.1");
+        // The client prepended a spoofed address; the proxies appended the real one
+        assertEquals("198.51.100.23",
+                resolver.resolve(request("10.0.0.5", "6.6.6.6, 198.51.100.23, 192.168.1.1")));
+    }
+
+    @Test
+    void resolve_HostNameHop_IsTreatedAsUntrusted() {
+        ClientIpResolver resolver = new ClientIpResolver("10.0.0.0/8");
+        assertEquals("proxy.example.com", resolver.resolve(request("10.0.0.5", "proxy.example.com")));
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.financialtracker.security;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeviceIdResolverTest {
+
+    private static final String FIREFOX = "Mozilla/5.0 (X11; Linux x86_64; rv:125.0) Gecko/20100101 Firefox/125.0";
+
+    private final DeviceIdResolver resolver = new DeviceIdResolver();
+
+    @Test
+    void sameBrowserOnTwoDevices_GetsTwoKeys() {
+        MockHttpServletRequest laptop = request(FIREFOX);
+        laptop.addHeader(DeviceIdResolver.HEADER, "3f1c0a7e9b2d4c6e8f0a1b2c3d4e5f60");
+        MockHttpServletRequest desktop = request(FIREFOX);
+        desktop.addHeader(DeviceIdResolver.HEADER, "9a8b7c6d5e4f30211f2e3d4c5b6a7988");
+
+        assertNotEquals(resolver.resolve(laptop), resolver.resolve(desktop));
+    }
+
+    @Test
+    void cookie_IsUsedWithoutHeader() {
+        MockHttpServletRequest request = request(FIREFOX);
+        request.setCookies(new Cookie(DeviceIdResolver.COOKIE, "3f1c0a7e9b2d4c6e8f0a1b2c3d4e5f60"));
+
+        assertEquals("id:3f1c0a7e9b2d4c6e8f0a1b2c3d4e5f60", resolver.resolve(request));
+    }
+
+    @Test
+    void noOrMalformedId_FallsBackToUserAgent() {
+        assertEquals(FIREFOX, resolver.resolve(request(FIREFOX)));
+
+        MockHttpServletRequest malformed = request(FIREFOX);
+        malformed.addHeader(DeviceIdResolver.HEADER, "short");
+        assertEquals(FIREFOX, resolver.resolve(malformed));
+
+        assertEquals("Unknown Device", resolver.resolve(new MockHttpServletRequest()));
+    }
+
+    private MockHttpServletRequest request(String userAgent) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("User-Agent", userAgent);
+        return request;
+    }
+}
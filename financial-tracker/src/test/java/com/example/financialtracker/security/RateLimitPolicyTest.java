@@ -0,0 +1,17 @@
+package com.example.financialtracker.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitPolicyTest {
+
+    @Test
+    void forRequest_KeepsTokenRefreshOutOfTheLoginBudget() {
+        assertEquals(RateLimitPolicy.AUTH, RateLimitPolicy.forRequest("POST", "/api/auth/login"));
+        assertEquals(RateLimitPolicy.REFRESH, RateLimitPolicy.forRequest("POST", "/api/auth/refresh"));
+        assertEquals(RateLimitPolicy.EXPENSIVE, RateLimitPolicy.forRequest("GET", "/api/reports/range"));
+        assertEquals(RateLimitPolicy.API, RateLimitPolicy.forRequest("GET", "/api/transactions"));
+        assertNull(RateLimitPolicy.forRequest("GET", "/actuator/health"));
+    }
+}
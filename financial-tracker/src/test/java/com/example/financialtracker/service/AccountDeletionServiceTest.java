@@ -0,0 +1,238 @@
+package com.example.financialtracker.service;
+
+import com.example.financialtracker.model.AccountDeletionJob;
+import com.example.financialtracker.model.AccountHead;
+import com.example.financialtracker.model.Budget;
+import com.example.financialtracker.model.LedgerEntry;
+import com.example.financialtracker.model.Transaction;
+import com.example.financialtracker.model.User;
+import com.example.financialtracker.repository.AccountDeletionJobRepository;
+import com.example.financialtracker.repository.AccountHeadRepository;
+import com.example.financialtracker.repository.BudgetRepository;
+import com.example.financialtracker.repository.LedgerEntryRepository;
+import com.example.financialtracker.repository.TransactionRepository;
+import com.example.financialtracker.repository.UserRepository;
+import com.example.financialtracker.support.StatementCounter;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Account deletion issues the same statements whatever the size of the
+ * history, up to one extra statement per chunk of the large tables.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        // budgets and finalization_log have month/year columns, which H2 otherwise rejects
+        "spring.datasource.url=jdbc:h2:mem:account-deletion;NON_KEYWORDS=MONTH,YEAR;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "app.account-deletion.chunk-size=" + AccountDeletionServiceTest.CHUNK_SIZE
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ AccountDeletionService.class, LedgerSnapshotService.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AccountDeletionServiceTest {
+
+    static final int CHUNK_SIZE = 100;
+
+    @MockBean
+    private EmailService emailService;
+
+    @Autowired
+    private AccountDeletionService accountDeletionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private AccountHeadRepository accountHeadRepository;
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private AccountDeletionJobRepository jobRepository;
+
+    private StatementCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        counter = new StatementCounter(entityManagerFactory);
+    }
+
+    @Test
+    void deleteAccount_StatementCountDoesNotGrowWithHistory() {
+        long small = statementsToDelete(5);
+        long large = statementsToDelete(CHUNK_SIZE - 1);
+
+        // Sessions and small tables, one chunk per large table and one of reversals, then the head
+        // and user row
+        assertTrue(small <= 15, "small history prepared " + small);
+        assertEquals(small, large);
+    }
+
+    @Test
+    void deleteAccount_LargeHistoryIsDeletedInChunks() {
+        long small = statementsToDelete(5);
+        long large = statementsToDelete(CHUNK_SIZE * 2 + 10);
+
+        // Two more full chunks for each of transactions and ledger entries
+        assertEquals(small + 4, large);
+    }
+
+    @Test
+    void deleteAccount_ReversalsGoFirstWhateverTheirIds() {
+        User user = seedAccount(CHUNK_SIZE * 2);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("ALTER TABLE ledger_entries ADD CONSTRAINT fk_test_reversal_of "
+                + "FOREIGN KEY (reversal_of) REFERENCES ledger_entries (id)");
+        try {
+            // An entry from another node's higher id block, reversed with an id below the whole history
+            String insert = "INSERT INTO ledger_entries (id, user_id, transaction_id, entry_date, amount, "
+                    + "reversal_of, posted_at) VALUES (?, ?, 1, DATE '2024-02-01', ?, ?, CURRENT_TIMESTAMP)";
+            jdbc.update(insert, 9_000_000L, user.getId(), new BigDecimal("5.00"), null);
+            jdbc.update(insert, -1L, user.getId(), new BigDecimal("-5.00"), 9_000_000L);
+
+            long deleted = accountDeletionService.deleteAccount(user);
+
+            assertEquals(2L * CHUNK_SIZE * 2 + 4 + 2, deleted);
+            assertTrue(userRepository.findById(user.getId()).isEmpty());
+        } finally {
+            jdbc.execute("ALTER TABLE ledger_entries DROP CONSTRAINT fk_test_reversal_of");
+        }
+    }
+
+    @Test
+    void start_RunsInBackgroundAndReportsStatus() {
+        User user = seedAccount(30);
+
+        AccountDeletionJob job = accountDeletionService.start(user);
+
+        verify(emailService, timeout(10_000)).sendSimpleMessage(eq(user.getEmail()), anyString(), anyString());
+        AccountDeletionJob status = accountDeletionService.getJob(job.getId()).orElseThrow();
+        assertEquals(AccountDeletionJob.State.COMPLETED, status.getState());
+        // 30 transactions, 30 entries, 2 budgets, the head and the user
+        assertEquals(64, status.getRowsDeleted());
+        assertTrue(userRepository.findById(user.getId()).isEmpty());
+    }
+
+    @Test
+    void getJob_SeesJobsStartedByAnotherInstance() {
+        AccountDeletionJob running = new AccountDeletionJob();
+        running.setId(UUID.randomUUID().toString());
+        running.setState(AccountDeletionJob.State.RUNNING);
+        running.setRowsDeleted(5_000);
+        running.setSubmittedAt(Instant.now());
+        jobRepository.save(running);
+
+        AccountDeletionJob status = accountDeletionService.getJob(running.getId()).orElseThrow();
+        assertEquals(AccountDeletionJob.State.RUNNING, status.getState());
+        assertEquals(5_000, status.getRowsDeleted());
+    }
+
+    private long statementsToDelete(int rows) {
+        User user = seedAccount(rows);
+        counter.reset();
+
+        long deleted = accountDeletionService.deleteAccount(user);
+
+        long prepared = counter.prepared();
+        assertEquals(2L * rows + 4, deleted);
+        assertTrue(userRepository.findById(user.getId()).isEmpty());
+        assertTrue(transactionRepository.findAllByUserOrderByDateAscIdAsc(user).isEmpty());
+        assertTrue(accountHeadRepository.findById(user.getId()).isEmpty());
+        return prepared;
+    }
+
+    private User seedAccount(int rows) {
+        User user = new User();
+        String name = "user-" + UUID.randomUUID();
+        user.setUsername(name);
+        user.setEmail(name + "@example.com");
+        user.setPassword("x");
+        User saved = userRepository.save(user);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<Transaction> transactions = new ArrayList<>(rows);
+            for (int i = 0; i < rows; i++) {
+                Transaction t = new Transaction();
+                t.setUser(saved);
+                t.setUsedFor("Seed " + i);
+                t.setCredit(new BigDecimal("10.00"));
+                t.setDate(LocalDate.of(2024, 2, 1).plusDays(i % 28));
+                transactions.add(t);
+            }
+            transactionRepository.saveAll(transactions);
+
+            List<LedgerEntry> entries = new ArrayList<>(rows);
+            for (Transaction t : transactions) {
+                LedgerEntry entry = new LedgerEntry();
+                entry.setUser(saved);
+                entry.setTransactionId(t.getId());
+                entry.setEntryDate(t.getDate());
+                entry.setAmount(t.getCredit());
+                entry.setPostedAt(Instant.now());
+                entries.add(entry);
+            }
+            ledgerEntryRepository.saveAll(entries);
+
+            AccountHead head = new AccountHead();
+            head.setUserId(saved.getId());
+            head.setBalance(new BigDecimal("10.00").multiply(BigDecimal.valueOf(rows)));
+            head.setEntryCount(rows);
+            accountHeadRepository.save(head);
+
+            for (String category : List.of("Food", "Transport")) {
+                Budget budget = new Budget();
+                budget.setUser(saved);
+                budget.setCategory(category);
+                budget.setAmount(new BigDecimal("100.00"));
+                budget.setMonth(2);
+                budget.setYear(2024);
+                budgetRepository.save(budget);
+            }
+        });
+        return saved;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.financialtracker.service;
+
+import com.example.financialtracker.model.Transaction;
+import com.example.financialtracker.model.User;
+import com.example.financialtracker.repository.RecurringTransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AdvisorServiceImplTest {
+
+    @Mock
+    private LedgerSnapshotService ledgerSnapshotService;
+
+    @Mock
+    private RecurringTransactionRepository recurringTransactionRepository;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @InjectMocks
+    private AdvisorServiceImpl advisorService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setUsername("advisor");
+    }
+
+    private static Transaction tx(long id, LocalDate date, String category, String debit) {
+        Transaction t = new Transaction();
+        t.setId(id);
+        t.setDate(date);
+        t.setCategory(category);
+        t.setDebit(debit != null ? new BigDecimal(debit) : null);
+        t.setCredit(debit == null ? new BigDecimal("10.00") : null);
+        return t;
+    }
+
+    @Test
+    void getInsights_AdvisesOnCategoriesWithAZeroDebitThisMonthButNotOnAbsentOnes() {
+        LocalDate lastMonth = LocalDate.now().withDayOfMonth(1).minusMonths(1);
+        LocalDate today = LocalDate.now();
+        List<Transaction> rows = List.of(
+                tx(1, lastMonth, "Food", "300.00"),
+                tx(2, lastMonth, "Rent", "900.00"),
+                tx(3, lastMonth.plusDays(1), "Gifts", "60.00"),
+                // This month: a zero Food debit, a credit-only Gifts row, nothing for Rent
+                tx(4, today, "Food", "0.00"),
+                tx(5, today, "Gifts", null));
+        when(ledgerSnapshotService.getSnapshot(user)).thenReturn(LedgerSnapshot.of(rows, 1));
+
+        List<String> advice = advisorService.getInsights(user).getAdvice();
+
+        assertEquals(List.of("Great job! You've saved quite a bit on 'Food' this month."), advice);
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.financialtracker.service;
+
+import com.example.financialtracker.model.AccountDeletionJob;
+import com.example.financialtracker.model.Transaction;
+import com.example.financialtracker.model.User;
+import com.example.financialtracker.repository.LedgerEntryRepository;
+import com.example.financialtracker.repository.TransactionRepository;
+import com.example.financialtracker.repository.UserRepository;
+import com.example.financialtracker.util.JwtUtil;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Account deletion as the user triggers it, through {@link AuthService}: each
+ * chunk is committed on its own, and a failed background job reports no
+ * exception text.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.datasource.url=jdbc:h2:mem:auth-delete-account;NON_KEYWORDS=MONTH,YEAR;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "app.account-deletion.chunk-size=" + AuthServiceDeleteAccountTest.CHUNK_SIZE
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ AuthService.class, UserServiceImpl.class, AccountDeletionService.class, LedgerSnapshotService.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AuthServiceDeleteAccountTest {
+
+    static final int CHUNK_SIZE = 100;
+
+    @MockBean
+    private EmailService emailService;
+
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+
+    @MockBean
+    private AuthenticationManager authenticationManager;
+
+    @MockBean
+    private JwtUtil jwtUtil;
+
+    @MockBean
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @SpyBean
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private AccountDeletionService accountDeletionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void deleteAccount_CommitsEachChunkSeparately() {
+        User user = seedAccount(CHUNK_SIZE * 2 + 10);
+        // Makes the last step, which deletes the user row, fail after every chunk ran
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE deletion_blocker (user_id BIGINT REFERENCES users (id))");
+        jdbc.update("INSERT INTO deletion_blocker VALUES (?)", user.getId());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        try {
+            assertThrows(RuntimeException.class,
+                    () -> authService.deleteAccount(user.getUsername(), "123456", "ignored"));
+        } finally {
+            jdbc.execute("DROP TABLE deletion_blocker");
+        }
+
+        // Commits for the small tables, the (empty) reversal chunk, one ledger chunk and three
+        // transaction chunks; the last step rolled back on its own
+        assertEquals(6, statistics.getSuccessfulTransactionCount());
+        assertEquals(7, statistics.getTransactionCount());
+        // Each chunk stayed deleted although the step after them rolled back
+        assertEquals(0L, countTransactions(user));
+        assertTrue(userRepository.findById(user.getId()).isPresent());
+    }
+
+    @Test
+    void start_FailedJobReportsNoExceptionText() throws InterruptedException {
+        User user = seedAccount(5);
+        doThrow(new IllegalStateException("ERROR: permission denied for table ledger_entries"))
+                .when(ledgerEntryRepository).deleteChunkByUserId(anyLong(), anyInt());
+
+        AccountDeletionJob job = accountDeletionService.start(user);
+
+        AccountDeletionJob status = awaitFinished(job);
+        assertEquals(AccountDeletionJob.State.FAILED, status.getState());
+        assertEquals(AccountDeletionJob.FAILED_MESSAGE, status.getError());
+        verify(emailService, timeout(1_000).times(0)).sendSimpleMessage(eq(user.getEmail()), anyString(),
+                anyString());
+    }
+
+    private AccountDeletionJob awaitFinished(AccountDeletionJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        AccountDeletionJob status = accountDeletionService.getJob(job.getId()).orElseThrow();
+        while (status.getFinishedAt() == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            status = accountDeletionService.getJob(job.getId()).orElseThrow();
+        }
+        assertNotNull(status.getFinishedAt(), "job did not finish");
+        return status;
+    }
+
+    private long countTransactions(User user) {
+        return new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM transaction WHERE user_id = ?",
+                Long.class, user.getId());
+    }
+
+    private User seedAccount(int rows) {
+        User user = new User();
+        String name = "user-" + UUID.randomUUID();
+        user.setUsername(name);
+        user.setEmail(name + "@example.com");
+        // Not a BCrypt hash, so the password check is skipped as for a Google account
+        user.setPassword("OAUTH2_USER_x");
+        user.setDeletionCode("123456");
+        user.setDeletionCodeExpiry(LocalDateTime.now().plusMinutes(15));
+        User saved = userRepository.save(user);
+
+        List<Transaction> transactions = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Transaction t = new Transaction();
+            t.setUser(saved);
+            t.setUsedFor("Seed " + i);
+            t.setCredit(new BigDecimal("10.00"));
+            t.setDate(LocalDate.of(2024, 2, 1).plusDays(i % 28));
+            transactions.add(t);
+        }
+        transactionRepository.saveAll(transactions);
+        return saved;
+    }
+}
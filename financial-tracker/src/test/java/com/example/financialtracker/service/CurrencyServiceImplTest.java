@@ -1,5 +1,6 @@
 package com.example.financialtracker.service;
 
+import com.example.financialtracker.util.Money;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,11 +12,15 @@ import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,7 +33,8 @@ class CurrencyServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        currencyService = new CurrencyServiceImpl(restTemplate);
+        currencyService = new CurrencyServiceImpl(restTemplate,
+                new ExchangeRateHistory(restTemplate, "https://api.test.com", ""), 10);
         ReflectionTestUtils.setField(currencyService, "apiUrl", "https://api.test.com");
     }
 
@@ -53,8 +59,8 @@ class CurrencyServiceImplTest {
         // Or better, test the convert method assuming getExchangeRate works (by spying)
         // OR construct a realistic mock response.
 
-        // Simulating 1 USD = 0.85 EUR
-        String jsonResponse = "{\"rates\":{\"EUR\":0.85}}";
+        // Simulating 1 USD = 0.85 EUR (rates are quoted per EUR)
+        String jsonResponse = "{\"rates\":{\"USD\":1.17647}}";
         ObjectMapper mapper = new ObjectMapper();
         try {
             JsonNode root = mapper.readTree(jsonResponse);
@@ -70,6 +76,41 @@ class CurrencyServiceImplTest {
         assertEquals(0, new BigDecimal("85.00").compareTo(result));
     }
 
+    @Test
+    void convertAll_MixedCurrencies_FetchesMissingRatesOnceAndMatchesConvert() throws Exception {
+        JsonNode root = new ObjectMapper().readTree("{\"base\":\"EUR\",\"rates\":{\"GBP\":0.8563,\"USD\":1.0842}}");
+        when(restTemplate.getForObject("https://api.test.com/latest?from=EUR&to=GBP,USD", JsonNode.class))
+                .thenReturn(root);
+
+        String[] currencies = { "USD", "EUR", "GBP", "XAF" };
+        List<Money> amounts = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            amounts.add(Money.ofMinor(1 + (i * 7919L) % 5_000_000, currencies[i % currencies.length]));
+        }
+
+        List<Money> converted = currencyService.convertAll(amounts, "XAF");
+
+        verify(restTemplate, times(1)).getForObject(anyString(), eq(JsonNode.class));
+        assertEquals(amounts.size(), converted.size());
+        for (int i = 0; i < amounts.size(); i += 997) {
+            Money amount = amounts.get(i);
+            BigDecimal single = currencyService.convert(amount.toBigDecimal(), amount.getCurrency(), "XAF");
+            assertEquals(single, converted.get(i).toBigDecimal());
+            assertEquals("XAF", converted.get(i).getCurrency());
+        }
+        // Rates stay cached: the single conversions above made no further requests
+        verify(restTemplate, times(1)).getForObject(anyString(), eq(JsonNode.class));
+    }
+
+    @Test
+    void convertAll_UnknownCurrency_Throws() throws Exception {
+        when(restTemplate.getForObject(anyString(), eq(JsonNode.class)))
+                .thenReturn(new ObjectMapper().readTree("{\"rates\":{\"USD\":1.0842}}"));
+
+        List<Money> amounts = List.of(Money.ofMinor(100, "USD"), Money.ofMinor(100, "ZZZ"));
+        assertThrows(RuntimeException.class, () -> currencyService.convertAll(amounts, "XAF"));
+    }
+
     @Test
     void getSupportedCurrencies_ReturnsMap() {
         // Mock fallback behavior (empty response or exception)
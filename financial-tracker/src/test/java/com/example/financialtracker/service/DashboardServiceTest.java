@@ -0,0 +1,94 @@
+package com.example.financialtracker.service;
+
+import com.example.financialtracker.model.User;
+import com.example.financialtracker.payload.AdvisorInsightsResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardServiceTest {
+
+    @Mock
+    private LedgerService ledgerService;
+
+    @Mock
+    private ReportService reportService;
+
+    @Mock
+    private BudgetService budgetService;
+
+    @Mock
+    private AdvisorService advisorService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DashboardService dashboardService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        dashboardService = new DashboardService(ledgerService, reportService, budgetService, advisorService,
+                new ObjectMapper(), transactionManager, 100, 10);
+        user = new User();
+        user.setId(7L);
+        user.setUsername("alice");
+
+        lenient().when(ledgerService.currentBalance(user)).thenReturn(new BigDecimal("100.00"));
+        lenient().when(reportService.getExpensesByCategory(any(), any(), any())).thenReturn(List.of());
+        lenient().when(reportService.getMonthlySummary(any(), any(), any())).thenReturn(List.of());
+        lenient().when(budgetService.getBudgetStatus(any(), anyInt(), anyInt())).thenReturn(List.of());
+        lenient().when(advisorService.getInsights(user))
+                .thenReturn(new AdvisorInsightsResponse(List.of(), List.of(), null));
+    }
+
+    @Test
+    void getDashboard_BuildsOnceAndServesFromCache() {
+        DashboardService.Dashboard first = dashboardService.getDashboard(user);
+        DashboardService.Dashboard second = dashboardService.getDashboard(user);
+
+        assertSame(first, second);
+        assertTrue(new String(first.body()).startsWith("{\"version\":\"" + first.version() + "\""));
+        verify(advisorService, times(1)).getInsights(user);
+    }
+
+    @Test
+    void onEvent_RebuildsCachedDashboardAndChangesVersionOnlyWithContent() {
+        DashboardService.Dashboard before = dashboardService.getDashboard(user);
+
+        // A budget edit that changes nothing shown keeps the version
+        dashboardService.onEvent(new DomainEvent.BudgetChanged(user, 1L));
+        DashboardService.Dashboard unchanged = dashboardService.getDashboard(user);
+        assertNotSame(before, unchanged);
+        assertEquals(before.version(), unchanged.version());
+
+        when(ledgerService.currentBalance(user)).thenReturn(new BigDecimal("90.00"));
+        dashboardService.onEvent(new DomainEvent.TransactionDeleted(user, 1L, new BigDecimal("100.00"),
+                new BigDecimal("90.00")));
+        DashboardService.Dashboard after = dashboardService.getDashboard(user);
+
+        assertNotEquals(before.version(), after.version());
+        assertTrue(new String(after.body()).contains("\"balance\":90.00"));
+        verify(advisorService, times(3)).getInsights(user);
+    }
+
+    @Test
+    void onEvent_SkipsUsersWithoutDashboard() {
+        dashboardService.onEvent(new DomainEvent.TransactionDeleted(user, 1L, BigDecimal.TEN, BigDecimal.ONE));
+
+        verifyNoInteractions(advisorService, transactionManager);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.financialtracker.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DisplayCurrencyServiceTest {
+
+    private static final BigDecimal XAF_TO_EUR = BigDecimal.ONE.divide(new BigDecimal("655.957"),
+            MathContext.DECIMAL128);
+
+    @Mock
+    private CurrencyService currencyService;
+
+    private DisplayCurrencyService displayCurrencyService;
+
+    @BeforeEach
+    void setUp() {
+        displayCurrencyService = new DisplayCurrencyService(currencyService);
+    }
+
+    @Test
+    void converter_ConvertsCopiesOfRowsOnceWithTheLatestAndDailyRates() {
+        when(currencyService.getSupportedCurrencies()).thenReturn(Map.of("EUR", "Euro", "XAF", "CFA franc"));
+        when(currencyService.getExchangeRate("XAF", "EUR")).thenReturn(XAF_TO_EUR);
+        LocalDate day = LocalDate.now().minusDays(3);
+        BigDecimal dailyRate = new BigDecimal("0.0015");
+        when(currencyService.getExchangeRate("XAF", "EUR", day)).thenReturn(dailyRate);
+
+        DisplayCurrencyService.Converter converter = displayCurrencyService.converterFor("eur").orElseThrow();
+
+        Map<String, Object> row = new HashMap<>(Map.of("name", "Food", "value", new BigDecimal("65595.70")));
+        Map<String, Object> converted = converter.convert(row, null, "value");
+        // Same rounding as CurrencyService.convert
+        assertEquals(new BigDecimal("65595.70").multiply(XAF_TO_EUR).setScale(2, RoundingMode.HALF_UP),
+                converted.get("value"));
+        assertEquals(new BigDecimal("100.00"), converted.get("value"));
+        assertEquals(new BigDecimal("65595.70"), row.get("value"));
+
+        assertEquals(new BigDecimal("1.50"), converter.convert(new BigDecimal("1000.00"), day));
+        assertEquals(new BigDecimal("3.00"), converter.convert(new BigDecimal("2000.00"), day));
+        assertEquals(new BigDecimal("1.52"), converter.convert(new BigDecimal("1000.00"), LocalDate.now()));
+        verify(currencyService, times(1)).getExchangeRate("XAF", "EUR", day);
+        verify(currencyService, times(1)).getExchangeRate("XAF", "EUR");
+    }
+
+    @Test
+    void converterFor_XafIsIdentityAndUnknownCurrenciesAreRejected() {
+        DisplayCurrencyService.Converter identity = displayCurrencyService.converterFor(null).orElseThrow();
+        Map<String, Object> row = Map.of("value", new BigDecimal("10.00"));
+        assertTrue(identity.isIdentity());
+        assertSame(row, identity.convert(row, null, "value"));
+        assertTrue(displayCurrencyService.converterFor("XAF").orElseThrow().isIdentity());
+        verify(currencyService, never()).getExchangeRate(anyString(), anyString());
+
+        when(currencyService.getSupportedCurrencies()).thenReturn(Map.of("EUR", "Euro"));
+        assertTrue(displayCurrencyService.converterFor("ZZZ").isEmpty());
+    }
+}
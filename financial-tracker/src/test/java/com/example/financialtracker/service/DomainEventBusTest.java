@@ -0,0 +1,136 @@
+package com.example.financialtracker.service;
+
+import com.example.financialtracker.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Events reach the listeners only once their transaction has committed, in
+ * commit order per user, even when the after-commit callbacks of two
+ * transactions run out of order.
+ */
+class DomainEventBusTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RecordingListener recorder = new RecordingListener();
+    private DomainEventBus bus;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, Object> beans = new LinkedHashMap<>();
+        beans.put("failing", new FailingListener());
+        beans.put("recorder", recorder);
+        bus = new DomainEventBus(new StaticListableBeanFactory(beans).getBeanProvider(DomainEventListener.class),
+                new StaticListableBeanFactory(Map.of("registry", registry)).getBeanProvider(MeterRegistry.class),
+                2);
+        user = new User();
+        user.setId(7L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bus.shutdown();
+    }
+
+    @Test
+    void publishAfterCommit_DeliversInCommitOrderAndDropsRollbacks() throws Exception {
+        TransactionSynchronization first = publishInTransaction(deleted(1L));
+        TransactionSynchronization rolledBack = publishInTransaction(deleted(2L));
+        TransactionSynchronization third = publishInTransaction(deleted(3L));
+
+        first.beforeCommit(false);
+        third.beforeCommit(false);
+        // The later commit completes first; it must wait for the earlier one
+        third.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        rolledBack.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        Thread.sleep(50);
+        assertTrue(recorder.ids.isEmpty());
+
+        first.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+
+        recorder.awaitCount(2);
+        assertEquals(List.of(1L, 3L), recorder.ids);
+        assertEquals(0.0, registry.get("app.domain-events.pending").gauge().value());
+    }
+
+    @Test
+    void failingConsumer_DoesNotStopTheOthers() throws Exception {
+        bus.publishAfterCommit(deleted(1L));
+        bus.publishAfterCommit(deleted(2L));
+
+        recorder.awaitCount(2);
+        assertEquals(List.of(1L, 2L), recorder.ids);
+        assertEquals(2.0, registry.get("app.domain-events.failed").tag("consumer", "failing").counter().count());
+        // Lag is recorded once the consumer has returned
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.get("app.domain-events.lag").tag("consumer", "recorder").timer().count() < 2
+                && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(2, registry.get("app.domain-events.lag").tag("consumer", "recorder").timer().count());
+    }
+
+    private DomainEvent deleted(Long id) {
+        return new DomainEvent.TransactionDeleted(user, id, BigDecimal.TEN, BigDecimal.ONE);
+    }
+
+    private TransactionSynchronization publishInTransaction(DomainEvent event) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bus.publishAfterCommit(event);
+            return TransactionSynchronizationManager.getSynchronizations().get(0);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static final class RecordingListener implements DomainEventListener {
+        private final List<Long> ids = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String consumerName() {
+            return "recorder";
+        }
+
+        @Override
+        public void onEvent(DomainEvent event) {
+            ids.add(((DomainEvent.TransactionDeleted) event).transactionId());
+        }
+
+        void awaitCount(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (ids.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertTrue(ids.size() >= count, "received " + ids.size());
+        }
+    }
+
+    private static final class FailingListener implements DomainEventListener {
+        @Override
+        public String consumerName() {
+            return "failing";
+        }
+
+        @Override
+        public void onEvent(DomainEvent event) {
+            throw new IllegalStateException("boom");
+        }
+    }
+}
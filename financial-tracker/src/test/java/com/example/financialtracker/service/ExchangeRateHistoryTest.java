@@ -0,0 +1,107 @@
+package com.example.financialtracker.service;
+
+import com.example.financialtracker.util.Money;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ExchangeRateHistoryTest {
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    private ExchangeRateHistory history;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        history = new ExchangeRateHistory(restTemplate, "https://api.test.com", "");
+        try (InputStream in = getClass().getResourceAsStream("/rates/eur-2024-03.json")) {
+            history.load(in);
+        }
+    }
+
+    @Test
+    void eurRate_UsesLatestQuoteOnOrBeforeTheDate() {
+        assertEquals(new BigDecimal("1.083300"), history.eurRate("USD", LocalDate.of(2024, 3, 1)).orElseThrow());
+        // No quotes on the weekend: Friday's rate applies
+        assertEquals(new BigDecimal("1.083300"), history.eurRate("USD", LocalDate.of(2024, 3, 3)).orElseThrow());
+        assertEquals(new BigDecimal("0.854850"), history.eurRate("GBP", LocalDate.of(2024, 3, 5)).orElseThrow());
+        assertTrue(history.eurRate("USD", LocalDate.of(2024, 2, 28)).isEmpty());
+        assertTrue(history.eurRate("USD", LocalDate.of(2024, 3, 20)).isEmpty());
+        assertTrue(history.eurRate("JPY", LocalDate.of(2024, 3, 1)).isEmpty());
+    }
+
+    @Test
+    void eurRates_BackfillsTheYearOnceForAllMissingCurrencies() throws Exception {
+        JsonNode year = new ObjectMapper().readTree(
+                "{\"rates\":{\"2023-06-01\":{\"JPY\":149.6},\"2023-06-02\":{\"CHF\":0.9741,\"JPY\":150.01}}}");
+        when(restTemplate.getForObject("https://api.test.com/2023-01-01..2023-12-31?from=EUR&to=CHF,JPY,NOK",
+                JsonNode.class)).thenReturn(year);
+
+        LocalDate date = LocalDate.of(2023, 6, 3);
+        Map<String, BigDecimal> rates = history.eurRates(Set.of("JPY", "CHF", "NOK"), date);
+        assertEquals(new BigDecimal("150.010000"), rates.get("JPY"));
+        assertEquals(new BigDecimal("0.974100"), rates.get("CHF"));
+        assertFalse(rates.containsKey("NOK"));
+
+        // The year was asked for already: no second request, even for the gap
+        history.eurRates(Set.of("JPY", "NOK"), LocalDate.of(2023, 6, 1));
+        verify(restTemplate, times(1)).getForObject(anyString(), eq(JsonNode.class));
+    }
+
+    @Test
+    void eurRates_RetriesTheYearAfterAFailedBackfill() throws Exception {
+        String url = "https://api.test.com/2023-01-01..2023-12-31?from=EUR&to=JPY";
+        JsonNode year = new ObjectMapper().readTree("{\"rates\":{\"2023-06-02\":{\"JPY\":150.01}}}");
+        when(restTemplate.getForObject(url, JsonNode.class))
+                .thenThrow(new ResourceAccessException("Connection reset"))
+                .thenReturn(year);
+
+        LocalDate date = LocalDate.of(2023, 6, 3);
+        assertTrue(history.eurRates(Set.of("JPY"), date).isEmpty());
+        assertEquals(new BigDecimal("150.010000"), history.eurRates(Set.of("JPY"), date).get("JPY"));
+
+        // Answered now, so not asked again
+        history.eurRates(Set.of("JPY"), LocalDate.of(2023, 1, 2));
+        verify(restTemplate, times(2)).getForObject(url, JsonNode.class);
+    }
+
+    @Test
+    void convert_BackDatedAmountsUseThatDaysRateWithoutNetwork() {
+        CurrencyServiceImpl currencyService = new CurrencyServiceImpl(restTemplate, history, 10);
+        LocalDate sunday = LocalDate.of(2024, 3, 3);
+
+        // 100 USD at Friday's 1.0833 USD per EUR, then at the XAF peg
+        BigDecimal converted = currencyService.convert(new BigDecimal("100.00"), "USD", "XAF", sunday);
+        assertEquals(new BigDecimal("60551.74"), converted);
+
+        List<Money> batch = currencyService.convertAll(
+                List.of(Money.ofMinor(10_000, "USD"), Money.ofMinor(2_550, "GBP")), "XAF", sunday);
+        assertEquals(converted, batch.get(0).toBigDecimal());
+        assertEquals(currencyService.convert(new BigDecimal("25.50"), "GBP", "XAF", sunday),
+                batch.get(1).toBigDecimal());
+        verify(restTemplate, never()).getForObject(anyString(), eq(JsonNode.class));
+    }
+}
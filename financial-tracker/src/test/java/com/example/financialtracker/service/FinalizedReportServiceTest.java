@@ -0,0 +1,149 @@
+package com.example.financialtracker.service;
+
+import com.example.financialtracker.model.MonthlySummary;
+import com.example.financialtracker.model.Transaction;
+import com.example.financialtracker.model.User;
+import com.example.financialtracker.repository.MonthlySummaryRepository;
+import com.example.financialtracker.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Finalization summarizes and renders each month it archives rows in; a month
+ * only gets a new report (and hash) when a back-dated row in it is finalized
+ * later, and its summary is updated in place.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Import({ TransactionServiceImpl.class, LedgerSnapshotService.class, LedgerLock.class, LedgerService.class,
+        LiveUpdateService.class, InMemoryEventBroker.class, DomainEventBus.class,
+        FinalizedReportService.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FinalizedReportServiceTest {
+
+    private static final YearMonth FEBRUARY = YearMonth.of(2021, 2);
+    private static final YearMonth MARCH = YearMonth.of(2021, 3);
+
+    @MockBean
+    private CurrencyService currencyService;
+
+    @MockBean
+    private BudgetService budgetService;
+
+    @MockBean
+    private EmailService emailService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private FinalizedReportService finalizedReportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @Autowired
+    private MonthlySummaryRepository monthlySummaryRepository;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(newUser());
+    }
+
+    private static User newUser() {
+        User user = new User();
+        String name = "user-" + UUID.randomUUID();
+        user.setUsername(name);
+        user.setEmail(name + "@example.com");
+        user.setPassword("x");
+        return user;
+    }
+
+    @Test
+    void finalizeMonth_StoresReportsAndRendersMonthsAgainOnlyWhenTheyChange() {
+        transactionService.createTransaction(tx("Salary", "1000.00", null, FEBRUARY.atDay(25)), user);
+        transactionService.createTransaction(tx("Rent", null, "400.00", MARCH.atDay(1)), user);
+        transactionService.createTransaction(tx("Food", null, "25.50", MARCH.atDay(3)), user);
+        transactionService.finalizeMonth(user);
+
+        FinalizedReportService.Report march = finalizedReportService.getReport(user, MARCH).orElseThrow();
+        String body = new String(march.body(), StandardCharsets.UTF_8);
+        assertTrue(body.startsWith("{\"month\":\"2021-03\",\"credits\":0.00,\"debits\":425.50"), body);
+        assertTrue(body.contains("\"dailySeries\":[{\"date\":\"2021-03-01\",\"amount\":400.00}"), body);
+        String february = finalizedReportService.getReport(user, FEBRUARY).orElseThrow().contentHash();
+
+        // A back-dated February row finalized later renders February again, not March
+        transactionService.createTransaction(tx("Bonus", "50.00", null, FEBRUARY.atDay(28)), user);
+        transactionService.finalizeMonth(user);
+
+        assertNotEquals(february, finalizedReportService.getReport(user, FEBRUARY).orElseThrow().contentHash());
+        assertSame(march, finalizedReportService.getReport(user, MARCH).orElseThrow());
+        assertTrue(finalizedReportService.getReport(user, YearMonth.of(2021, 4)).isEmpty());
+    }
+
+    @Test
+    void finalizeMonth_SummarizesEachMonthOncePerUser() {
+        transactionService.createTransaction(tx("Salary", "1000.00", null, FEBRUARY.atDay(25)), user);
+        transactionService.createTransaction(tx("Rent", null, "400.00", MARCH.atDay(2)), user);
+        transactionService.createTransaction(tx("Refund", "20.00", null, MARCH.atDay(5)), user);
+        transactionService.createTransaction(tx("Food", null, "25.50", MARCH.atDay(5)), user);
+        MonthlySummary summary = transactionService.finalizeMonth(user);
+
+        assertEquals(MARCH, summary.getMonthYear());
+        assertEquals(MARCH.atDay(1), summary.getMonthStart());
+        assertEquals(0, new BigDecimal("1000.00").compareTo(summary.getOpeningBalance()));
+        assertEquals(0, new BigDecimal("594.50").compareTo(summary.getClosingBalance()));
+        assertEquals(0, new BigDecimal("20.00").compareTo(summary.getTotalCredit()));
+        assertEquals(0, new BigDecimal("425.50").compareTo(summary.getTotalDebit()));
+        assertEquals(3, summary.getTransactionCount());
+        // End-of-day balances: 1000 on the 1st, 600 on the 2nd, 594.50 from the 5th
+        assertEquals(0, new BigDecimal("594.50").compareTo(summary.getMinBalance()));
+        assertEquals(0, new BigDecimal("1000.00").compareTo(summary.getMaxBalance()));
+        assertEquals("{\"Rent\":400.00,\"Food\":25.50}", summary.getCategoryTotals());
+
+        // Back-dated March row: March is summarized again, not added twice
+        transactionService.createTransaction(tx("Coffee", null, "4.50", MARCH.atDay(1)), user);
+        transactionService.finalizeMonth(user);
+        List<MonthlySummary> summaries = monthlySummaryRepository.findAllByUserOrderByMonthStartDesc(user,
+                PageRequest.of(0, 10)).getContent();
+        assertEquals(List.of(MARCH, FEBRUARY), summaries.stream().map(MonthlySummary::getMonthYear).toList());
+        assertEquals(4, summaries.get(0).getTransactionCount());
+        assertEquals(0, new BigDecimal("995.50").compareTo(summaries.get(0).getMaxBalance()));
+
+        // Another user can finalize the same month
+        User other = userRepository.save(newUser());
+        transactionService.createTransaction(tx("Salary", "10.00", null, MARCH.atDay(9)), other);
+        assertEquals(MARCH, transactionService.finalizeMonth(other).getMonthYear());
+    }
+
+    private static Transaction tx(String usedFor, String credit, String debit, LocalDate date) {
+        Transaction t = new Transaction();
+        t.setUsedFor(usedFor);
+        t.setCategory(usedFor);
+        t.setCredit(credit != null ? new BigDecimal(credit) : null);
+        t.setDebit(debit != null ? new BigDecimal(debit) : null);
+        t.setDate(date);
+        return t;
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.financialtracker.service;
+
+import com.example.financialtracker.model.LedgerEntry;
+import com.example.financialtracker.model.Transaction;
+import com.example.financialtracker.model.User;
+import com.example.financialtracker.repository.BalanceCheckpointRepository;
+import com.example.financialtracker.repository.LedgerEntryRepository;
+import com.example.financialtracker.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The journal behind the transaction endpoints: corrections are reversals,
+ * the head carries the balance, and historical balances come from
+ * checkpoints that a back-dated entry invalidates.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Import({ TransactionServiceImpl.class, LedgerSnapshotService.class, LedgerLock.class, LedgerService.class,
+        LiveUpdateService.class, InMemoryEventBroker.class, DomainEventBus.class,
+        FinalizedReportService.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LedgerServiceTest {
+
+    private static final LocalDate MARCH_1 = LocalDate.of(2024, 3, 1);
+
+    @MockBean
+    private CurrencyService currencyService;
+
+    @MockBean
+    private BudgetService budgetService;
+
+    @MockBean
+    private EmailService emailService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private BalanceCheckpointRepository balanceCheckpointRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        String name = "user-" + UUID.randomUUID();
+        user.setUsername(name);
+        user.setEmail(name + "@example.com");
+        user.setPassword("x");
+        user = userRepository.save(user);
+    }
+
+    @Test
+    void editsAndDeletes_PostReversalsAndKeepEntriesImmutable() {
+        Transaction salary = transactionService.createTransaction(tx("Salary", "100.00", null, MARCH_1), user);
+        Transaction rent = transactionService.createTransaction(tx("Rent", null, "30.00", MARCH_1.plusDays(4)), user);
+        assertEquals(0, new BigDecimal("70.00").compareTo(rent.getBalance()));
+
+        // Amount and date change: the standing entry is reversed on its own date, then reposted
+        transactionService.updateTransaction(rent.getId(), tx("Rent", null, "50.00", MARCH_1.plusDays(2)), user);
+        // Metadata-only edit: nothing posted
+        transactionService.updateTransaction(rent.getId(), tx("Rent (March)", null, "50.00", MARCH_1.plusDays(2)),
+                user);
+        transactionService.deleteTransaction(salary.getId(), user);
+
+        List<LedgerEntry> entries = journal();
+        assertEquals(5, entries.size());
+        LedgerEntry rentReversal = entries.get(2);
+        assertEquals(entries.get(1).getId(), rentReversal.getReversalOf());
+        assertEquals(MARCH_1.plusDays(4), rentReversal.getEntryDate());
+        assertEquals(0, new BigDecimal("30.00").compareTo(rentReversal.getAmount()));
+        assertEquals(entries.get(0).getId(), entries.get(4).getReversalOf());
+
+        assertEquals(0, new BigDecimal("-50.00").compareTo(transactionService.getCurrentBalance(user)));
+        assertEquals(0, BigDecimal.ZERO.compareTo(ledgerService.balanceAsOf(user, MARCH_1.plusDays(1))));
+        assertEquals(0, new BigDecimal("-50.00").compareTo(ledgerService.balanceAsOf(user, MARCH_1.plusDays(30))));
+
+        List<Transaction> open = transactionService.getAllTransactions(user);
+        assertEquals(1, open.size());
+        assertEquals(0, new BigDecimal("-50.00").compareTo(open.get(0).getBalance()));
+    }
+
+    @Test
+    void journal_ReversalsCancelAndEntriesSumToHeadBalance() {
+        Transaction salary = transactionService.createTransaction(tx("Salary", "250.00", null, MARCH_1), user);
+        Transaction food = transactionService.createTransaction(tx("Food", null, "12.50", MARCH_1.plusDays(1)), user);
+        transactionService.updateTransaction(food.getId(), tx("Food", null, "20.00", MARCH_1.plusDays(1)), user);
+        transactionService.updateTransaction(salary.getId(), tx("Salary", "300.00", null, MARCH_1.plusDays(3)),
+                user);
+        transactionService.deleteTransaction(food.getId(), user);
+
+        List<LedgerEntry> entries = journal();
+        Map<Long, LedgerEntry> byId = entries.stream().collect(Collectors.toMap(LedgerEntry::getId, e -> e));
+        for (LedgerEntry entry : entries) {
+            if (entry.getReversalOf() != null) {
+                LedgerEntry original = byId.get(entry.getReversalOf());
+                assertEquals(original.getTransactionId(), entry.getTransactionId());
+                assertEquals(0, BigDecimal.ZERO.compareTo(original.getAmount().add(entry.getAmount())));
+            }
+        }
+        BigDecimal total = entries.stream().map(LedgerEntry::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, total.compareTo(ledgerService.currentBalance(user)));
+        assertEquals(0, new BigDecimal("300.00").compareTo(total));
+    }
+
+    @Test
+    void edits_ReverseTheStandingEntryWhateverItsId() {
+        Transaction rent = transactionService.createTransaction(tx("Rent", null, "30.00", MARCH_1), user);
+        // Posted by another node from a later id block than the entries this node writes next
+        new JdbcTemplate(dataSource).update("UPDATE ledger_entries SET id = id + 1000 WHERE transaction_id = ?",
+                rent.getId());
+
+        transactionService.updateTransaction(rent.getId(), tx("Rent", null, "40.00", MARCH_1), user);
+        transactionService.updateTransaction(rent.getId(), tx("Rent", null, "50.00", MARCH_1), user);
+
+        List<LedgerEntry> entries = journal();
+        assertEquals(5, entries.size());
+        Map<Long, Long> reversals = entries.stream().filter(e -> e.getReversalOf() != null)
+                .collect(Collectors.groupingBy(LedgerEntry::getReversalOf, Collectors.counting()));
+        assertEquals(2, reversals.size());
+        assertTrue(reversals.values().stream().allMatch(n -> n == 1), reversals.toString());
+        assertEquals(0, new BigDecimal("-50.00").compareTo(ledgerService.currentBalance(user)));
+        BigDecimal total = entries.stream().map(LedgerEntry::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, total.compareTo(ledgerService.currentBalance(user)));
+    }
+
+    @Test
+    void backDatedEntry_InvalidatesLaterCheckpoints() {
+        LocalDate today = LocalDate.now();
+        LocalDate yesterday = today.minusDays(1);
+        transactionService.createTransaction(tx("Salary", "100.00", null, today.minusDays(5)), user);
+
+        ledgerService.writeCheckpoints();
+        assertEquals(0, new BigDecimal("100.00").compareTo(checkpointBalance(yesterday)));
+        assertEquals(0, new BigDecimal("100.00").compareTo(ledgerService.balanceAsOf(user, yesterday)));
+
+        transactionService.createTransaction(tx("Groceries", null, "40.00", today.minusDays(3)), user);
+        assertTrue(balanceCheckpointRepository.findTopByUserOrderByAsOfDateDesc(user).isEmpty());
+        assertEquals(0, new BigDecimal("100.00").compareTo(ledgerService.balanceAsOf(user, today.minusDays(4))));
+        assertEquals(0, new BigDecimal("60.00").compareTo(ledgerService.balanceAsOf(user, yesterday)));
+
+        ledgerService.writeCheckpoints();
+        assertEquals(0, new BigDecimal("60.00").compareTo(checkpointBalance(yesterday)));
+    }
+
+    private BigDecimal checkpointBalance(LocalDate asOf) {
+        return balanceCheckpointRepository.findTopByUserAndAsOfDateLessThanEqualOrderByAsOfDateDesc(user, asOf)
+                .filter(c -> c.getAsOfDate().isEqual(asOf))
+                .orElseThrow()
+                .getBalance();
+    }
+
+    private List<LedgerEntry> journal() {
+        return ledgerEntryRepository.findAll().stream()
+                .filter(e -> e.getUser().getId().equals(user.getId()))
+                .sorted(Comparator.comparing(LedgerEntry::getId))
+                .toList();
+    }
+
+    private static Transaction tx(String usedFor, String credit, String debit, LocalDate date) {
+        Transaction t = new Transaction();
+        t.setUsedFor(usedFor);
+        t.setCredit(credit != null ? new BigDecimal(credit) : null);
+        t.setDebit(debit != null ? new BigDecimal(debit) : null);
+        t.setDate(date);
+        return t;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.financialtracker.service;
+
+import com.example.financialtracker.model.Transaction;
+import com.example.financialtracker.model.User;
+import com.example.financialtracker.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerSnapshotServiceTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void writeDuringLoad_DropsTheSnapshotTheLoadStores() throws Exception {
+        LedgerSnapshotService service = new LedgerSnapshotService(transactionRepository, transactionTemplate,
+                64L * 1024 * 1024, 10);
+        User user = new User();
+        user.setId(1L);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Transaction> beforeCommit = List.of(tx(1));
+        List<Transaction> afterCommit = List.of(tx(1), tx(2));
+        when(transactionRepository.findAllByUserOrderByDateAscIdAsc(user)).thenAnswer(invocation -> {
+            loading.countDown();
+            assertTrue(release.await(10, TimeUnit.SECONDS));
+            return beforeCommit;
+        }).thenReturn(afterCommit);
+
+        // A read that queried the rows just before the write committed
+        CompletableFuture<LedgerSnapshot> staleRead = CompletableFuture.supplyAsync(() -> service.getSnapshot(user));
+        assertTrue(loading.await(10, TimeUnit.SECONDS));
+        CompletableFuture<Void> event = CompletableFuture.runAsync(() -> service.onEvent(
+                new DomainEvent.TransactionCreated(user, DomainEvent.TransactionSnapshot.of(tx(2)),
+                        BigDecimal.ZERO, BigDecimal.TEN)));
+        // Give the event time to get past its cache check while the load is still running
+        Thread.sleep(200);
+        release.countDown();
+        assertEquals(1, staleRead.get(10, TimeUnit.SECONDS).size());
+        event.get(10, TimeUnit.SECONDS);
+
+        assertEquals(2, service.getSnapshot(user).size());
+    }
+
+    private static Transaction tx(long id) {
+        Transaction t = new Transaction();
+        t.setId(id);
+        t.setDate(LocalDate.of(2024, 3, 1));
+        t.setCredit(BigDecimal.TEN);
+        t.setBalance(BigDecimal.TEN.multiply(BigDecimal.valueOf(id)));
+        return t;
+    }
+}
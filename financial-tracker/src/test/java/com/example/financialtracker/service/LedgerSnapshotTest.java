@@ -0,0 +1,97 @@
+package com.example.financialtracker.service;
+
+import com.example.financialtracker.model.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerSnapshotTest {
+
+    private static final LocalDate MARCH_1 = LocalDate.of(2024, 3, 1);
+
+    private Transaction tx(long id, LocalDate date, String category, String credit, String debit, String balance,
+            boolean finalized) {
+        Transaction t = new Transaction();
+        t.setId(id);
+        t.setDate(date);
+        t.setCategory(category);
+        t.setCredit(credit != null ? new BigDecimal(credit) : null);
+        t.setDebit(debit != null ? new BigDecimal(debit) : null);
+        t.setBalance(new BigDecimal(balance));
+        t.setFinalized(finalized);
+        return t;
+    }
+
+    private List<Transaction> sampleLedger() {
+        List<Transaction> rows = new ArrayList<>();
+        rows.add(tx(1, MARCH_1, null, "1000.00", null, "1000.00", true));
+        rows.add(tx(2, MARCH_1.plusDays(1), "Food", null, "25.50", "974.50", true));
+        rows.add(tx(3, MARCH_1.plusDays(1), "Food", null, "4.50", "970.00", true));
+        rows.add(tx(4, MARCH_1.plusDays(3), "Transport", null, "70.00", "900.00", false));
+        rows.add(tx(5, MARCH_1.plusDays(5), null, null, "100.00", "800.00", false));
+        return rows;
+    }
+
+    @Test
+    void rangeQueries_AggregateByCategoryAndDay() {
+        LedgerSnapshot snapshot = LedgerSnapshot.of(sampleLedger(), 1);
+
+        Map<String, Long> byCategory = snapshot.debitsByCategory(MARCH_1, MARCH_1.plusDays(3));
+        assertEquals(Map.of("Food", 3000L, "Transport", 7000L), byCategory);
+
+        Map<String, Long> others = snapshot.debitsByCategory(MARCH_1.plusDays(4), MARCH_1.plusDays(10));
+        assertEquals(Map.of("Others", 10000L), others);
+
+        List<long[]> daily = new ArrayList<>();
+        snapshot.forEachDailyDebit((int) MARCH_1.toEpochDay(), (int) MARCH_1.plusDays(30).toEpochDay(),
+                (day, amount) -> daily.add(new long[] { day, amount }));
+        assertEquals(3, daily.size());
+        assertArrayEquals(new long[] { MARCH_1.plusDays(1).toEpochDay(), 3000L }, daily.get(0));
+
+        assertEquals(17000L, snapshot.sumDebits((int) MARCH_1.plusDays(2).toEpochDay(), Integer.MAX_VALUE));
+    }
+
+    @Test
+    void balanceOn_ReturnsLastBalanceOnOrBeforeDate() {
+        LedgerSnapshot snapshot = LedgerSnapshot.of(sampleLedger(), 1);
+
+        assertEquals(0L, snapshot.balanceOn((int) MARCH_1.minusDays(1).toEpochDay()));
+        assertEquals(97000L, snapshot.balanceOn((int) MARCH_1.plusDays(2).toEpochDay()));
+        assertEquals(80000L, snapshot.balanceOn((int) MARCH_1.plusDays(40).toEpochDay()));
+        assertEquals(80000L, snapshot.lastBalance());
+    }
+
+    @Test
+    void withOpenRows_ReplacesOpenRowsAndKeepsFinalizedOrder() {
+        LedgerSnapshot snapshot = LedgerSnapshot.of(sampleLedger(), 1);
+
+        // A back-dated open row lands between finalized rows; the old open rows are gone
+        List<Transaction> open = List.of(
+                tx(6, MARCH_1, "Food", null, "10.00", "990.00", false),
+                tx(4, MARCH_1.plusDays(3), "Transport", null, "70.00", "890.00", false));
+        LedgerSnapshot patched = snapshot.withOpenRows(open, 2);
+
+        assertEquals(5, patched.size());
+        assertEquals(2, patched.getStamp());
+        assertEquals(89000L, patched.lastBalance());
+        assertEquals(Map.of("Food", 4000L, "Transport", 7000L),
+                patched.debitsByCategory(MARCH_1, MARCH_1.plusDays(30)));
+        // Finalized row 1 (id 1) still sorts before the new row with the same date (id 6)
+        assertEquals(100000L, patched.balance(0));
+        assertEquals((int) MARCH_1.toEpochDay(), patched.epochDay(1));
+        assertEquals(99000L, patched.balance(1));
+    }
+
+    @Test
+    void estimatedBytes_StaysUnderHalfMegabytePerTenThousandRows() {
+        long bytes = LedgerSnapshot.estimatedBytesFor(10_000);
+        assertTrue(bytes > 10_000L * 40);
+        assertTrue(bytes < 512 * 1024, "was " + bytes);
+    }
+}
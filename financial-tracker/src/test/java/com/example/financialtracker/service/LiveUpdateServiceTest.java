@@ -0,0 +1,182 @@
+package com.example.financialtracker.service;
+
+import com.example.financialtracker.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Updates reach a user's streams only after commit, and a stream that cannot
+ * keep up holds at most one update per key until its backlog overflows.
+ */
+class LiveUpdateServiceTest {
+
+    private static final int MAX_PENDING = 3;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private LiveUpdateService service;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        service = new LiveUpdateService(new InMemoryEventBroker(),
+                new StaticListableBeanFactory(Map.of("registry", registry)).getBeanProvider(MeterRegistry.class),
+                30, 2, MAX_PENDING, 1);
+        user = new User();
+        user.setId(7L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void publishAfterCommit_DeliversOnlyCommittedUpdates() throws Exception {
+        RecordingSink sink = new RecordingSink(null);
+        service.open(user.getId(), sink);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.publishAfterCommit(user, "balance", "balance", Map.of("balance", 10));
+            Thread.sleep(50);
+            assertTrue(sink.received.isEmpty());
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.publishAfterCommit(user, "balance", "balance", Map.of("balance", 20));
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                    TransactionSynchronizationManager.getSynchronizations(),
+                    TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        sink.awaitCount(1);
+        Thread.sleep(50);
+        assertEquals(List.of("{\"balance\":10}"), sink.data());
+    }
+
+    @Test
+    void slowStream_KeepsOnlyLatestUpdatePerKey() throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        RecordingSink sink = new RecordingSink(gate);
+        service.open(user.getId(), sink);
+
+        service.publishAfterCommit(user, "balance", "balance", Map.of("balance", 1));
+        sink.awaitSending();
+        for (int i = 2; i <= 10; i++) {
+            service.publishAfterCommit(user, "balance", "balance", Map.of("balance", i));
+        }
+        gate.countDown();
+
+        sink.awaitCount(2);
+        Thread.sleep(50);
+        // The first update was already being sent; the other nine collapsed into the last
+        assertEquals(List.of("{\"balance\":1}", "{\"balance\":10}"), sink.data());
+        assertEquals(8.0, registry.counter("app.live-updates.coalesced").count());
+    }
+
+    @Test
+    void backlogOverflow_ClosesStream() throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        RecordingSink slow = new RecordingSink(gate);
+        RecordingSink fast = new RecordingSink(null);
+        service.open(user.getId(), slow);
+
+        service.publishAfterCommit(user, "transaction", "transaction:0", Map.of("id", 0));
+        slow.awaitSending();
+        for (int i = 1; i <= MAX_PENDING + 1; i++) {
+            service.publishAfterCommit(user, "transaction", "transaction:" + i, Map.of("id", i));
+        }
+
+        assertTrue(slow.closed);
+        assertEquals(1.0, registry.counter("app.live-updates.evicted").count());
+        assertEquals(0.0, registry.get("app.live-updates.streams").gauge().value());
+        gate.countDown();
+
+        // A new stream for the same user is unaffected
+        service.open(user.getId(), fast);
+        service.publishAfterCommit(user, "balance", "balance", Map.of("balance", 1));
+        fast.awaitCount(1);
+    }
+
+    @Test
+    void open_ClosesOldestStreamBeyondPerUserLimit() {
+        RecordingSink first = new RecordingSink(null);
+        RecordingSink second = new RecordingSink(null);
+        RecordingSink third = new RecordingSink(null);
+
+        service.open(user.getId(), first);
+        service.open(user.getId(), second);
+        service.open(user.getId(), third);
+
+        assertTrue(first.closed);
+        assertFalse(second.closed);
+        assertFalse(third.closed);
+        assertEquals(2.0, registry.get("app.live-updates.streams").gauge().value());
+    }
+
+    private static final class RecordingSink implements LiveUpdateService.Sink {
+        private final CountDownLatch gate;
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final List<LiveUpdate> received = new CopyOnWriteArrayList<>();
+        private volatile boolean closed;
+
+        RecordingSink(CountDownLatch gate) {
+            this.gate = gate;
+        }
+
+        @Override
+        public void send(LiveUpdate update) {
+            sending.countDown();
+            if (gate != null) {
+                try {
+                    gate.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            received.add(update);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        void awaitSending() throws InterruptedException {
+            assertTrue(sending.await(5, TimeUnit.SECONDS));
+        }
+
+        void awaitCount(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (received.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertTrue(received.size() >= count, "received " + received.size());
+        }
+
+        List<String> data() {
+            return received.stream().map(LiveUpdate::data).toList();
+        }
+    }
+}
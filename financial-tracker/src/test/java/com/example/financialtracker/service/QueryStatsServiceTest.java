@@ -0,0 +1,24 @@
+package com.example.financialtracker.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryStatsServiceTest {
+
+    @Test
+    void redact_MasksBoundValuesInConditions() {
+        assertEquals("        Index Cond: ((username)::text = ?::text)",
+                QueryStatsService.redact("        Index Cond: ((username)::text = 'alice@example.com'::text)"));
+        assertEquals("  ->  Seq Scan on transaction t1_0  Filter: ((debit > ?) AND (user_id = ?))",
+                QueryStatsService.redact("  ->  Seq Scan on transaction t1_0  Filter: ((debit > 1500.00) AND (user_id = 7))"));
+        assertEquals("  Join Filter: (t1_0.category = ?::text)",
+                QueryStatsService.redact("  Join Filter: (t1_0.category = 'Filter: rent'::text)"));
+    }
+
+    @Test
+    void redact_KeepsCostsAndEstimates() {
+        String node = "Index Scan using idx_transaction_user_date on transaction t1_0  (cost=0.29..8.31 rows=1 width=64)";
+        assertEquals(node, QueryStatsService.redact(node));
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.financialtracker.service;
+
+import com.example.financialtracker.model.Transaction;
+import com.example.financialtracker.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RangeReportServiceTest {
+
+    @Mock
+    private LedgerSnapshotService ledgerSnapshotService;
+
+    private RangeReportService rangeReportService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        rangeReportService = new RangeReportService(ledgerSnapshotService, 1000, 2);
+        user = new User();
+        user.setId(3L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        rangeReportService.shutdown();
+    }
+
+    private Transaction tx(long id, LocalDate date, String category, String credit, String debit,
+            boolean finalized) {
+        Transaction t = new Transaction();
+        t.setId(id);
+        t.setDate(date);
+        t.setCategory(category);
+        t.setCredit(credit != null ? new BigDecimal(credit) : null);
+        t.setDebit(debit != null ? new BigDecimal(debit) : null);
+        t.setFinalized(finalized);
+        return t;
+    }
+
+    private List<Transaction> history() {
+        List<Transaction> rows = new ArrayList<>();
+        rows.add(tx(1, LocalDate.of(2023, 3, 1), null, "1000.00", null, true));
+        rows.add(tx(2, LocalDate.of(2023, 3, 9), "Food", null, "100.00", true));
+        rows.add(tx(3, LocalDate.of(2024, 3, 1), null, "1000.00", null, true));
+        rows.add(tx(4, LocalDate.of(2024, 3, 4), "Food", null, "150.00", true));
+        rows.add(tx(5, LocalDate.of(2024, 3, 5), "Rent", null, "400.00", true));
+        return rows;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void getRangeReport_GroupsByMonthAndComparesWithPreviousYear() {
+        when(ledgerSnapshotService.getSnapshot(user)).thenReturn(LedgerSnapshot.of(history(), 1));
+
+        Map<String, Object> report = rangeReportService.getRangeReport(user, YearMonth.of(2024, 2),
+                YearMonth.of(2024, 3), RangeReportService.Granularity.MONTH, RangeReportService.Comparison.YEAR);
+
+        List<Map<String, Object>> buckets = (List<Map<String, Object>>) report.get("buckets");
+        assertEquals(2, buckets.size());
+        assertEquals("2024-03", buckets.get(1).get("period"));
+        assertEquals(new BigDecimal("550.00"), buckets.get(1).get("debits"));
+        assertEquals(new BigDecimal("1350.00"), buckets.get(1).get("closingBalance"));
+
+        Map<String, Object> comparison = (Map<String, Object>) report.get("comparison");
+        assertEquals("2023-02", comparison.get("from"));
+        Map<String, Object> change = (Map<String, Object>) comparison.get("change");
+        assertEquals(new BigDecimal("450.0"), change.get("debits"));
+        assertEquals(new BigDecimal("0.0"), change.get("credits"));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void getRangeReport_ReusesFinalizedMonthsAndRecomputesOpenRows() {
+        List<Transaction> rows = history();
+        when(ledgerSnapshotService.getSnapshot(user)).thenReturn(LedgerSnapshot.of(rows, 1));
+        rangeReportService.getRangeReport(user, YearMonth.of(2024, 3), YearMonth.of(2024, 3),
+                RangeReportService.Granularity.CATEGORY, RangeReportService.Comparison.NONE);
+
+        // Same number of finalized rows: March's finalized part comes from the
+        // cache (the edited amount is not seen) and the new open row is added
+        rows.set(4, tx(5, LocalDate.of(2024, 3, 5), "Rent", null, "999.00", true));
+        rows.add(tx(6, LocalDate.of(2024, 3, 20), "Food", null, "10.00", false));
+        when(ledgerSnapshotService.getSnapshot(user)).thenReturn(LedgerSnapshot.of(rows, 2));
+        Map<String, Object> report = rangeReportService.getRangeReport(user, YearMonth.of(2024, 3),
+                YearMonth.of(2024, 3), RangeReportService.Granularity.CATEGORY, RangeReportService.Comparison.NONE);
+
+        List<Map<String, Object>> buckets = (List<Map<String, Object>>) report.get("buckets");
+        assertEquals("Rent", buckets.get(0).get("category"));
+        assertEquals(new BigDecimal("400.00"), buckets.get(0).get("debits"));
+        assertEquals(new BigDecimal("160.00"), buckets.get(1).get("debits"));
+
+        // Finalizing the open row changes the count and the month is summed again
+        rows.set(5, tx(6, LocalDate.of(2024, 3, 20), "Food", null, "10.00", true));
+        when(ledgerSnapshotService.getSnapshot(user)).thenReturn(LedgerSnapshot.of(rows, 3));
+        report = rangeReportService.getRangeReport(user, YearMonth.of(2024, 3), YearMonth.of(2024, 3),
+                RangeReportService.Granularity.CATEGORY, RangeReportService.Comparison.NONE);
+
+        buckets = (List<Map<String, Object>>) report.get("buckets");
+        assertEquals(new BigDecimal("999.00"), buckets.get(0).get("debits"));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void getRangeReport_CutsWeeksAtTheEndsOfTheRange() {
+        when(ledgerSnapshotService.getSnapshot(user)).thenReturn(LedgerSnapshot.of(history(), 1));
+
+        Map<String, Object> report = rangeReportService.getRangeReport(user, YearMonth.of(2024, 3),
+                YearMonth.of(2024, 3), RangeReportService.Granularity.WEEK, RangeReportService.Comparison.NONE);
+
+        // March 2024 starts on a Friday and ends on a Sunday
+        List<Map<String, Object>> buckets = (List<Map<String, Object>>) report.get("buckets");
+        assertEquals(5, buckets.size());
+        assertEquals("2024-03-01", buckets.get(0).get("start"));
+        assertEquals("2024-03-03", buckets.get(0).get("end"));
+        assertEquals("2024-W10", buckets.get(1).get("period"));
+        assertEquals(new BigDecimal("550.00"), buckets.get(1).get("debits"));
+        assertEquals("2024-03-31", buckets.get(4).get("end"));
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.financialtracker.service;
+
+import com.example.financialtracker.model.RefreshToken;
+import com.example.financialtracker.model.User;
+import com.example.financialtracker.repository.RefreshTokenRepository;
+import com.example.financialtracker.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two clients presenting the same refresh token at once, as a stolen token
+ * replayed alongside its owner would: exactly one of them gets a new token.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.datasource.url=jdbc:h2:mem:token-rotation;LOCK_TIMEOUT=30000;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(RefreshTokenService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RefreshTokenRotationConcurrencyTest {
+
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void concurrentRotationsOfOneToken_ExactlyOneSucceeds() throws Exception {
+        User user = new User();
+        String name = "user-" + UUID.randomUUID();
+        user.setUsername(name);
+        user.setEmail(name + "@example.com");
+        user.setPassword("x");
+        User saved = userRepository.save(user);
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                String rawToken = UUID.randomUUID().toString();
+                RefreshToken token = new RefreshToken();
+                token.setUser(saved);
+                token.setDevice(RefreshTokenService.hash("device-" + round));
+                token.setTokenHash(RefreshTokenService.hash(rawToken));
+                token.setExpiryDate(Instant.now().plusSeconds(600));
+                refreshTokenRepository.save(token);
+
+                CyclicBarrier start = new CyclicBarrier(2);
+                List<Future<Optional<RefreshToken>>> results = new ArrayList<>();
+                for (int client = 0; client < 2; client++) {
+                    results.add(pool.submit(() -> {
+                        start.await();
+                        return refreshTokenService.rotate(rawToken);
+                    }));
+                }
+
+                List<RefreshToken> rotated = new ArrayList<>();
+                for (Future<Optional<RefreshToken>> result : results) {
+                    result.get(30, TimeUnit.SECONDS).ifPresent(rotated::add);
+                }
+                assertEquals(1, rotated.size(), "round " + round);
+                assertTrue(refreshTokenService.findByToken(rawToken).isEmpty());
+                assertTrue(refreshTokenService.findByToken(rotated.get(0).getToken()).isPresent());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
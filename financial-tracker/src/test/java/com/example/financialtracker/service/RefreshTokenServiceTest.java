@@ -0,0 +1,99 @@
+package com.example.financialtracker.service;
+
+import com.example.financialtracker.model.RefreshToken;
+import com.example.financialtracker.model.User;
+import com.example.financialtracker.repository.RefreshTokenRepository;
+import com.example.financialtracker.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private RefreshTokenService refreshTokenService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(refreshTokenService, "refreshTokenDurationMs", 60_000L);
+        user = new User();
+        user.setId(7L);
+        user.setUsername("alice");
+    }
+
+    @Test
+    void createRefreshToken_UpsertsHashPerDevice() {
+        RefreshToken issued = refreshTokenService.createRefreshToken(user, "Firefox");
+
+        ArgumentCaptor<String> hash = ArgumentCaptor.forClass(String.class);
+        verify(refreshTokenRepository).upsert(eq(7L), eq(RefreshTokenService.hash("Firefox")), hash.capture(),
+                any(Instant.class));
+        assertEquals(RefreshTokenService.hash(issued.getToken()), hash.getValue());
+        assertNotEquals(issued.getToken(), hash.getValue());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void rotate_IssuesNewToken() {
+        RefreshToken stored = storedToken("old", Instant.now().plusSeconds(60));
+        when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash("old"))).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.rotate(eq(stored.getTokenHash()), anyString(), any(), any())).thenReturn(1);
+
+        RefreshToken rotated = refreshTokenService.rotate("old").orElseThrow();
+
+        assertNotEquals("old", rotated.getToken());
+        assertSame(user, rotated.getUser());
+    }
+
+    @Test
+    void rotate_AlreadyRotated_ReturnsEmpty() {
+        RefreshToken stored = storedToken("old", Instant.now().plusSeconds(60));
+        when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash("old"))).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.rotate(anyString(), anyString(), any(), any())).thenReturn(0);
+
+        assertTrue(refreshTokenService.rotate("old").isEmpty());
+    }
+
+    @Test
+    void rotate_Expired_DeletesAndThrows() {
+        RefreshToken stored = storedToken("old", Instant.now().minusSeconds(1));
+        when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash("old"))).thenReturn(Optional.of(stored));
+
+        assertThrows(RefreshTokenService.ExpiredTokenException.class, () -> refreshTokenService.rotate("old"));
+        verify(refreshTokenRepository).deleteByTokenHash(stored.getTokenHash());
+        verify(refreshTokenRepository, never()).rotate(anyString(), anyString(), any(), any());
+    }
+
+    private RefreshToken storedToken(String raw, Instant expiry) {
+        RefreshToken token = new RefreshToken();
+        token.setId(1L);
+        token.setUser(user);
+        token.setTokenHash(RefreshTokenService.hash(raw));
+        token.setDevice(RefreshTokenService.hash("Firefox"));
+        token.setExpiryDate(expiry);
+        return token;
+    }
+}
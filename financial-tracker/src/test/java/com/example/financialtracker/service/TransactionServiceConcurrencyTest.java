@@ -0,0 +1,119 @@
+package com.example.financialtracker.service;
+
+import com.example.financialtracker.model.Transaction;
+import com.example.financialtracker.model.User;
+import com.example.financialtracker.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Many writers for the same user at once, starting before the user has an
+ * account head: with the ledger lock they queue, so none fails on a version
+ * conflict and the running balances come out exact.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.datasource.url=jdbc:h2:mem:ledger-lock;LOCK_TIMEOUT=30000;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.hikari.maximum-pool-size=12"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ TransactionServiceImpl.class, LedgerSnapshotService.class, LedgerLock.class, LedgerService.class,
+        LiveUpdateService.class, InMemoryEventBroker.class, DomainEventBus.class,
+        FinalizedReportService.class,
+        SimpleMeterRegistry.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransactionServiceConcurrencyTest {
+
+    private static final int WRITERS = 8;
+    private static final int WRITES_PER_WRITER = 5;
+
+    @MockBean
+    private CurrencyService currencyService;
+
+    @MockBean
+    private BudgetService budgetService;
+
+    @MockBean
+    private EmailService emailService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void parallelWriters_QueueOnLedgerLockAndKeepBalancesExact() throws Exception {
+        User user = new User();
+        String name = "user-" + UUID.randomUUID();
+        user.setUsername(name);
+        user.setEmail(name + "@example.com");
+        user.setPassword("x");
+        User saved = userRepository.save(user);
+        long locksBefore = meterRegistry.timer("app.ledger.lock.wait").count();
+
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            int writer = w;
+            results.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < WRITES_PER_WRITER; i++) {
+                    Transaction t = new Transaction();
+                    t.setUsedFor("Writer " + writer + " #" + i);
+                    t.setCredit(new BigDecimal("10.00"));
+                    // Back-dated rows land between existing ones
+                    t.setDate(LocalDate.of(2024, 3, 1).plusDays((writer * 7L + i) % 20));
+                    transactionService.createTransaction(t, saved);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            // Any version conflict would surface here as an ExecutionException
+            result.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        int total = WRITERS * WRITES_PER_WRITER;
+        assertEquals(total, meterRegistry.timer("app.ledger.lock.wait").count() - locksBefore);
+
+        List<Transaction> rows = transactionService.getAllTransactions(saved);
+        assertEquals(total, rows.size());
+        BigDecimal expected = BigDecimal.ZERO;
+        for (Transaction row : rows) {
+            expected = expected.add(row.getCredit());
+            assertEquals(0, expected.compareTo(row.getBalance()), "balance of row " + row.getId());
+        }
+        assertEquals(0, new BigDecimal("400.00").compareTo(transactionService.getCurrentBalance(saved)));
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.financialtracker.service;
 
+import com.example.financialtracker.model.AccountHead;
 import com.example.financialtracker.model.Transaction;
 import com.example.financialtracker.model.User;
 import com.example.financialtracker.repository.MonthlySummaryRepository;
@@ -11,11 +12,11 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -35,7 +36,16 @@ class TransactionServiceImplTest {
     private CurrencyService currencyService;
 
     @Mock
-    private BudgetService budgetService;
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private LedgerLock ledgerLock;
+
+    @Mock
+    private LedgerService ledgerService;
+
+    @Mock
+    private DomainEventBus domainEventBus;
 
     @InjectMocks
     private TransactionServiceImpl transactionService;
@@ -47,10 +57,15 @@ class TransactionServiceImplTest {
         testUser = new User();
         testUser.setId(1L);
         testUser.setEmail("test@example.com");
+
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(
+                invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(ledgerLock.acquire(any())).thenReturn(new AccountHead());
+        lenient().when(transactionRepository.sumOpenAfter(any(), any(), any())).thenReturn(BigDecimal.ZERO);
     }
 
     @Test
-    void createTransaction_BasicCredit_SavesAndRecalculates() {
+    void createTransaction_BasicCredit_SavesAndPostsOneEntry() {
         Transaction input = new Transaction();
         input.setCredit(new BigDecimal("1000"));
         input.setCurrency("XAF");
@@ -64,16 +79,44 @@ class TransactionServiceImplTest {
         when(transactionRepository.save(any(Transaction.class))).thenReturn(savedTx);
         when(transactionRepository.findById(1L)).thenReturn(Optional.of(savedTx));
 
-        // For recalculation
-        when(monthlySummaryRepository.findTopByUserOrderByMonthYearDesc(any())).thenReturn(Optional.empty());
-        when(transactionRepository.findAllByUserAndFinalizedOrderByDateAscIdAsc(any(), eq(false)))
-                .thenReturn(List.of(savedTx));
-
         Transaction result = transactionService.createTransaction(input, testUser);
 
         assertNotNull(result);
         verify(transactionRepository, times(1)).save(any(Transaction.class));
-        verify(transactionRepository, times(1)).saveAll(anyList());
+        verify(ledgerService, times(1)).post(any(AccountHead.class), eq(savedTx));
+        // No other row is rewritten
+        verify(transactionRepository, never()).saveAll(anyList());
+        // Budgets, caches and alerts follow from the event, after commit
+        verify(domainEventBus).publishAfterCommit(any(DomainEvent.TransactionCreated.class));
+    }
+
+    @Test
+    void createTransaction_EventKeepsValuesAsCommitted() {
+        Transaction input = new Transaction();
+        input.setDebit(new BigDecimal("250"));
+        input.setCurrency("XAF");
+        input.setUsedFor("Taxi");
+        input.setCategory("Transport");
+
+        Transaction savedTx = new Transaction();
+        savedTx.setId(7L);
+        savedTx.setDate(LocalDate.of(2024, 3, 4));
+        savedTx.setUsedFor("Taxi");
+        savedTx.setCategory("Transport");
+        savedTx.setDebit(new BigDecimal("250"));
+        when(transactionRepository.save(any(Transaction.class))).thenReturn(savedTx);
+        when(transactionRepository.findById(7L)).thenReturn(Optional.of(savedTx));
+
+        transactionService.createTransaction(input, testUser);
+        // The entity is changed again after the event was published
+        savedTx.setCategory("Food");
+        savedTx.setDebit(new BigDecimal("999"));
+
+        ArgumentCaptor<DomainEvent.TransactionCreated> captor =
+                ArgumentCaptor.forClass(DomainEvent.TransactionCreated.class);
+        verify(domainEventBus).publishAfterCommit(captor.capture());
+        assertEquals(new DomainEvent.TransactionSnapshot(7L, LocalDate.of(2024, 3, 4), "Taxi", "Transport",
+                null, new BigDecimal("250")), captor.getValue().transaction());
     }
 
     @Test
@@ -84,19 +127,13 @@ class TransactionServiceImplTest {
         input.setUsedFor("Lunch");
 
         BigDecimal convertedAmount = new BigDecimal("6000"); // 10 USD = ~6000 XAF
-        when(currencyService.convert(any(), eq("USD"), eq("XAF"))).thenReturn(convertedAmount);
+        when(currencyService.convert(any(), eq("USD"), eq("XAF"), any())).thenReturn(convertedAmount);
 
         Transaction savedTx = new Transaction();
         savedTx.setId(1L);
         when(transactionRepository.save(any(Transaction.class))).thenReturn(savedTx);
         when(transactionRepository.findById(1L)).thenReturn(Optional.of(savedTx));
 
-        // Mock for recalculation
-        when(monthlySummaryRepository.findTopByUserOrderByMonthYearDesc(any())).thenReturn(Optional.empty());
-        // Mock Empty list for recalculation to avoid NPE if logic iterates
-        when(transactionRepository.findAllByUserAndFinalizedOrderByDateAscIdAsc(any(), eq(false)))
-                .thenReturn(new ArrayList<>());
-
         transactionService.createTransaction(input, testUser);
 
         ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
@@ -111,11 +148,7 @@ class TransactionServiceImplTest {
 
     @Test
     void getCurrentBalance_CalculatesCorrectly() {
-        Transaction tx1 = new Transaction();
-        tx1.setBalance(new BigDecimal("5000"));
-
-        when(transactionRepository.findTopByUserAndFinalizedOrderByDateDescIdDesc(eq(testUser), eq(false)))
-                .thenReturn(Optional.of(tx1));
+        when(ledgerService.currentBalance(testUser)).thenReturn(new BigDecimal("5000"));
 
         BigDecimal result = transactionService.getCurrentBalance(testUser);
 
@@ -0,0 +1,166 @@
+package com.example.financialtracker.service;
+
+import com.example.financialtracker.model.Transaction;
+import com.example.financialtracker.model.User;
+import com.example.financialtracker.repository.TransactionRepository;
+import com.example.financialtracker.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * The currency lookup is a remote call; it must run with no database
+ * transaction open and no JDBC connection checked out.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Import({ TransactionServiceImpl.class, LedgerSnapshotService.class, LedgerLock.class, LedgerService.class,
+        LiveUpdateService.class, InMemoryEventBroker.class, DomainEventBus.class,
+        FinalizedReportService.class,
+        TransactionServiceRemoteCallTest.ConnectionTracking.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransactionServiceRemoteCallTest {
+
+    static final AtomicInteger OPEN_CONNECTIONS = new AtomicInteger();
+
+    @MockBean
+    private CurrencyService currencyService;
+
+    @MockBean
+    private BudgetService budgetService;
+
+    @MockBean
+    private EmailService emailService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+    private final AtomicInteger fetches = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        String name = "user-" + UUID.randomUUID();
+        user.setUsername(name);
+        user.setEmail(name + "@example.com");
+        user.setPassword("x");
+        user = userRepository.save(user);
+
+        when(currencyService.convert(any(), eq("USD"), eq("XAF"), any())).thenAnswer(invocation -> {
+            fetches.incrementAndGet();
+            assertFalse(TransactionSynchronizationManager.isActualTransactionActive(), "transaction open");
+            assertTrue(TransactionSynchronizationManager.getResourceMap().isEmpty(), "resources bound");
+            assertEquals(0, OPEN_CONNECTIONS.get(), "connections held");
+            return ((BigDecimal) invocation.getArgument(0)).multiply(new BigDecimal("600"));
+        });
+    }
+
+    @Test
+    void createTransaction_ConvertsBeforeOpeningTransaction() {
+        Transaction transaction = new Transaction();
+        transaction.setUsedFor("Books");
+        transaction.setDebit(new BigDecimal("10.00"));
+        transaction.setCurrency("USD");
+        transaction.setDate(LocalDate.of(2024, 3, 1));
+
+        Transaction created = transactionService.createTransaction(transaction, user);
+
+        assertEquals(1, fetches.get());
+        assertEquals(0, new BigDecimal("6000").compareTo(created.getDebit()));
+        assertEquals(0, new BigDecimal("10.00").compareTo(created.getOriginalAmount()));
+    }
+
+    @Test
+    void updateTransaction_ConvertsBetweenReadAndWrite() {
+        Transaction transaction = new Transaction();
+        transaction.setUsedFor("Groceries");
+        transaction.setDebit(new BigDecimal("100.00"));
+        transaction.setDate(LocalDate.of(2024, 3, 1));
+        Transaction created = transactionService.createTransaction(transaction, user);
+
+        Transaction details = new Transaction();
+        details.setDebit(new BigDecimal("2.00"));
+        details.setCurrency("USD");
+        details.setUsedFor("Lunch");
+        transactionService.updateTransaction(created.getId(), details, user);
+
+        assertEquals(1, fetches.get());
+        Transaction updated = transactionService.getTransactionById(created.getId(), user).orElseThrow();
+        assertEquals("USD", updated.getCurrency());
+        assertEquals(0, new BigDecimal("1200").compareTo(updated.getDebit()));
+        assertEquals(0, new BigDecimal("-1200").compareTo(updated.getBalance()));
+    }
+
+    @TestConfiguration
+    static class ConnectionTracking {
+
+        // Counts connections handed out by the test data source and not yet closed
+        @Bean
+        static BeanPostProcessor connectionTrackingPostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource) {
+                        return new DelegatingDataSource(dataSource) {
+                            @Override
+                            public Connection getConnection() throws SQLException {
+                                return track(super.getConnection());
+                            }
+                        };
+                    }
+                    return bean;
+                }
+            };
+        }
+
+        private static Connection track(Connection connection) {
+            OPEN_CONNECTIONS.incrementAndGet();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                        if (method.getName().equals("close") && !connection.isClosed()) {
+                            OPEN_CONNECTIONS.decrementAndGet();
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.financialtracker.service;
+
+import com.example.financialtracker.model.AccountHead;
+import com.example.financialtracker.model.Transaction;
+import com.example.financialtracker.model.User;
+import com.example.financialtracker.repository.AccountHeadRepository;
+import com.example.financialtracker.repository.TransactionRepository;
+import com.example.financialtracker.repository.UserRepository;
+import com.example.financialtracker.support.StatementCounter;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Statement-count budget for the write paths, run on H2 with the production
+ * batching settings. Each test commits for real (no test transaction) so the
+ * flush is part of what is measured.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Import({ TransactionServiceImpl.class, LedgerSnapshotService.class, LedgerLock.class, LedgerService.class,
+        LiveUpdateService.class, InMemoryEventBroker.class, DomainEventBus.class,
+        FinalizedReportService.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransactionServiceStatementCountTest {
+
+    private static final int BATCH_SIZE = 50;
+
+    @MockBean
+    private CurrencyService currencyService;
+
+    @MockBean
+    private BudgetService budgetService;
+
+    @MockBean
+    private EmailService emailService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountHeadRepository accountHeadRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private StatementCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        counter = new StatementCounter(entityManagerFactory);
+    }
+
+    @Test
+    void saveAll_BatchesInserts() {
+        User user = newUser();
+        counter.reset();
+
+        seedOpenTransactions(user, 200);
+
+        // 200 / 50 insert batches plus the sequence calls for 200 ids (pooled, 50 per call)
+        assertTrue(counter.prepared() <= 2 * (200 / BATCH_SIZE) + 1, "prepared " + counter.prepared());
+    }
+
+    @Test
+    void createTransaction_DoesNotGrowWithOpenRows() {
+        long small = statementsForCreate(10);
+        long large = statementsForCreate(200);
+
+        assertTrue(small <= 10, "small ledger prepared " + small);
+        // A journal entry never touches the other rows; at most one more id block is fetched
+        assertTrue(large <= small + 1, "small " + small + ", large " + large);
+    }
+
+    @Test
+    void finalizeMonth_IsConstant() {
+        User user = newUser();
+        seedOpenTransactions(user, 200);
+        counter.reset();
+
+        transactionService.finalizeMonth(user);
+
+        // ledger lock, first and last open rows, bulk archive update, one grouped aggregate,
+        // opening balance (checkpoint + sum), stored summary and report lookups,
+        // summary id + insert, report id + insert
+        assertTrue(counter.prepared() <= 13, "prepared " + counter.prepared());
+        assertTrue(transactionRepository.findAllByUserAndFinalizedOrderByDateAscIdAsc(user, false).isEmpty());
+    }
+
+    private long statementsForCreate(int openRows) {
+        User user = newUser();
+        seedOpenTransactions(user, openRows);
+        counter.reset();
+
+        Transaction transaction = new Transaction();
+        transaction.setUsedFor("Coffee");
+        transaction.setDebit(new BigDecimal("2.50"));
+        transaction.setDate(LocalDate.of(2024, 3, 1));
+        transactionService.createTransaction(transaction, user);
+
+        return counter.prepared();
+    }
+
+    private User newUser() {
+        User user = new User();
+        String name = "user-" + UUID.randomUUID();
+        user.setUsername(name);
+        user.setEmail(name + "@example.com");
+        user.setPassword("x");
+        return userRepository.save(user);
+    }
+
+    private void seedOpenTransactions(User user, int count) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<Transaction> rows = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Transaction t = new Transaction();
+                t.setUser(user);
+                t.setUsedFor("Seed " + i);
+                t.setCredit(new BigDecimal("10.00"));
+                t.setBalance(BigDecimal.ZERO);
+                t.setDate(LocalDate.of(2024, 2, 1).plusDays(i % 28));
+                rows.add(t);
+            }
+            transactionRepository.saveAll(rows);
+
+            AccountHead head = new AccountHead();
+            head.setUserId(user.getId());
+            head.setBalance(new BigDecimal("10.00").multiply(BigDecimal.valueOf(count)));
+            head.setEntryCount(count);
+            accountHeadRepository.save(head);
+        });
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.financialtracker.support;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+/**
+ * Counts the JDBC statements Hibernate prepares between {@link #reset()} and
+ * {@link #prepared()}. A JDBC batch is prepared once, so a batched
+ * {@code saveAll} of 100 rows counts as two statements, not a hundred.
+ */
+public class StatementCounter {
+
+    private final Statistics statistics;
+
+    public StatementCounter(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.statistics.setStatisticsEnabled(true);
+    }
+
+    public void reset() {
+        statistics.clear();
+    }
+
+    public long prepared() {
+        return statistics.getPrepareStatementCount();
+    }
+}
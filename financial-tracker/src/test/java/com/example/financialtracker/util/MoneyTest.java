@@ -0,0 +1,118 @@
+package com.example.financialtracker.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    private static final int SAMPLES = 20_000;
+
+    private final Random random = new Random(42);
+
+    private BigDecimal randomAmount() {
+        // Up to +/- 10 billion with two decimals, like the numeric(…, 2) columns
+        long minor = (long) (random.nextDouble() * 2_000_000_000_000L) - 1_000_000_000_000L;
+        return BigDecimal.valueOf(minor, 2);
+    }
+
+    @Test
+    void toMinorUnits_RoundTripsTwoDecimalAmounts() {
+        for (int i = 0; i < SAMPLES; i++) {
+            BigDecimal amount = randomAmount();
+            assertEquals(amount, Money.fromMinorUnits(Money.toMinorUnits(amount)));
+        }
+        assertEquals(0L, Money.toMinorUnits(null));
+    }
+
+    @Test
+    void toMinorUnits_RoundsExtraDecimalsHalfUp() {
+        assertEquals(1235L, Money.toMinorUnits(new BigDecimal("12.345")));
+        assertEquals(-1235L, Money.toMinorUnits(new BigDecimal("-12.345")));
+        assertEquals(1234L, Money.toMinorUnits(new BigDecimal("12.3449")));
+        assertEquals(120000L, Money.toMinorUnits(new BigDecimal("1200")));
+    }
+
+    @Test
+    void toMinorUnits_Overflow_Throws() {
+        assertThrows(ArithmeticException.class, () -> Money.toMinorUnits(new BigDecimal("1e30")));
+    }
+
+    @Test
+    void divideHalfUp_MatchesBigDecimal() {
+        for (int i = 0; i < SAMPLES; i++) {
+            BigDecimal dividend = randomAmount();
+            long divisor = random.nextInt(1000) + 1;
+            if (random.nextBoolean()) {
+                divisor = -divisor;
+            }
+            BigDecimal expected = dividend.divide(BigDecimal.valueOf(divisor), 2, RoundingMode.HALF_UP);
+            long actual = Money.divideHalfUp(Money.toMinorUnits(dividend), divisor);
+            assertEquals(expected, Money.fromMinorUnits(actual), dividend + " / " + divisor);
+        }
+    }
+
+    @Test
+    void divideHalfUp_Ties_RoundAwayFromZero() {
+        assertEquals(2L, Money.divideHalfUp(3, 2));
+        assertEquals(-2L, Money.divideHalfUp(-3, 2));
+        assertEquals(1L, Money.divideHalfUp(4, 3));
+        assertThrows(ArithmeticException.class, () -> Money.divideHalfUp(1, 0));
+    }
+
+    @Test
+    void budgetPercent_MatchesBigDecimal() {
+        for (int i = 0; i < SAMPLES; i++) {
+            BigDecimal actual = randomAmount().abs();
+            BigDecimal budget = randomAmount().abs().add(new BigDecimal("0.01"));
+            BigDecimal expected = actual.multiply(new BigDecimal("100")).divide(budget, 2, RoundingMode.HALF_UP);
+            long percent = Money.divideHalfUp(Math.multiplyExact(Money.toMinorUnits(actual), 10_000L),
+                    Money.toMinorUnits(budget));
+            assertEquals(expected, Money.fromMinorUnits(percent));
+        }
+    }
+
+    @Test
+    void compareScaled_MatchesBigDecimalRatios() {
+        BigDecimal factor = new BigDecimal("1.3");
+        for (int i = 0; i < SAMPLES; i++) {
+            BigDecimal current = randomAmount();
+            BigDecimal average = randomAmount();
+            int expected = Integer.signum(current.compareTo(average.multiply(factor)));
+            int actual = Integer.signum(Money.compareScaled(Money.toMinorUnits(current), 10,
+                    Money.toMinorUnits(average), 13));
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    void runningBalance_MatchesBigDecimalCascade() {
+        BigDecimal expected = randomAmount();
+        long balance = Money.toMinorUnits(expected);
+        for (int i = 0; i < SAMPLES; i++) {
+            BigDecimal credit = random.nextBoolean() ? randomAmount().abs() : null;
+            BigDecimal debit = credit == null ? randomAmount().abs() : null;
+            expected = expected.add(credit != null ? credit : BigDecimal.ZERO)
+                    .subtract(debit != null ? debit : BigDecimal.ZERO);
+            balance = Math.subtractExact(Math.addExact(balance, Money.toMinorUnits(credit)),
+                    Money.toMinorUnits(debit));
+            assertEquals(0, expected.compareTo(Money.fromMinorUnits(balance)));
+        }
+    }
+
+    @Test
+    void plusAndMinus_CheckCurrencyAndOverflow() {
+        Money a = Money.of(new BigDecimal("10.50"), "XAF");
+        Money b = Money.ofMinor(250, "XAF");
+
+        assertEquals(Money.ofMinor(1300, "XAF"), a.plus(b));
+        assertEquals(Money.ofMinor(800, "XAF"), a.minus(b));
+        assertEquals(new BigDecimal("10.50"), a.toBigDecimal());
+        assertThrows(IllegalArgumentException.class, () -> a.plus(Money.ofMinor(1, "EUR")));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MAX_VALUE, "XAF").plus(b));
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.financialtracker.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlFingerprintTest {
+
+    @Test
+    void normalize_ReplacesLiteralsAndWhitespace() {
+        assertEquals("select * from transaction t where t.user_id=? and t.category=?",
+                SqlFingerprint.normalize("SELECT *\n  FROM transaction t WHERE t.user_id=42 AND t.category='Food'"));
+        assertEquals("select ? from users where username=?",
+                SqlFingerprint.normalize("select 1 from users where username='o''brien'"));
+    }
+
+    @Test
+    void normalize_KeepsDigitsInsideIdentifiers() {
+        assertEquals("select t1_0.id,t1_0.balance from transaction t1_0 where t1_0.user_id=?",
+                SqlFingerprint.normalize("select t1_0.id,t1_0.balance from transaction t1_0 where t1_0.user_id=?"));
+    }
+
+    @Test
+    void normalize_CollapsesInListsAndValuesRows() {
+        String three = SqlFingerprint.normalize("delete from budget where id in (?, ?, ?)");
+        String one = SqlFingerprint.normalize("delete from budget where id in (?)");
+        assertEquals(one, three);
+        assertEquals("insert into t (a,b) values (?,?)",
+                SqlFingerprint.normalize("insert into t (a,b) values (1,'x'), (2,'y'), (3,'z')"));
+    }
+
+    @Test
+    void id_IsStableForSameShape() {
+        String a = SqlFingerprint.normalize("select * from budget where user_id = 1");
+        String b = SqlFingerprint.normalize("select * from budget where user_id = 2");
+        assertEquals(SqlFingerprint.id(a), SqlFingerprint.id(b));
+        assertEquals(8, SqlFingerprint.id(a).length());
+    }
+
+    @Test
+    void maskLiterals_KeepsEverythingButLiterals() {
+        assertEquals("(t1_0.user_id = ?) AND ((t1_0.category)::text = ?::text)",
+                SqlFingerprint.maskLiterals("(t1_0.user_id = 42) AND ((t1_0.category)::text = 'O''Brien Café'::text)"));
+        assertEquals("(date >= ?::date)", SqlFingerprint.maskLiterals("(date >= '2024-03-01'::date)"));
+    }
+}